@@ -0,0 +1,42 @@
+package FootballFantasy.fantasy.Configuration;
+
+import FootballFantasy.fantasy.Entities.GameweekEntities.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the pooled id generators past the ids already assigned by the former
+ * AUTO_INCREMENT columns, so the first pooled block never reuses an existing id.
+ * Runs once the schema update created the generator table; a no-op when the
+ * generators are already ahead.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdGeneratorSeeder {
+
+    // generator name -> table whose ids it continues
+    private static final Map<String, String> GENERATED_TABLES = Map.of(
+            "prediction", "prediction",
+            "session_participation", "session_participation",
+            "wallet_ledger", "wallet_ledger"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdGeneratorSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void seedGenerators() {
+        GENERATED_TABLES.forEach((generator, table) -> jdbcTemplate.update(
+                "INSERT INTO " + IdGenerators.TABLE + " (sequence_name, next_val) " +
+                        "SELECT ?, COALESCE(MAX(id), 0) + ? FROM " + table + " " +
+                        "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))",
+                generator, IdGenerators.POOL_SIZE + 1));
+    }
+}
@@ -0,0 +1,88 @@
+package FootballFantasy.fantasy.Configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.keycloak.OAuth2Constants;
+import org.keycloak.admin.client.JacksonProvider;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.KeycloakBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single, long-lived Keycloak admin client shared by the whole backend.
+ * The client's TokenManager reuses the client-credentials token and refreshes it
+ * {@code min-token-validity-seconds} before it expires, so no grant per call.
+ * Token requests are counted as {@code keycloak.admin.token.refreshes}.
+ */
+@Configuration
+public class KeycloakAdminClientConfig {
+
+    @Value("${keycloak.backend.server-url}")
+    private String serverUrl;
+
+    @Value("${keycloak.backend.realm}")
+    private String realm;
+
+    @Value("${keycloak.backend.client-id}")
+    private String clientId;
+
+    @Value("${keycloak.backend.client-secret}")
+    private String clientSecret;
+
+    @Value("${keycloak.admin-client.pool-size:20}")
+    private int poolSize;
+
+    @Value("${keycloak.admin-client.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${keycloak.admin-client.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
+    @Value("${keycloak.admin-client.checkout-timeout-ms:2000}")
+    private long checkoutTimeoutMs;
+
+    @Value("${keycloak.admin-client.min-token-validity-seconds:30}")
+    private long minTokenValiditySeconds;
+
+    @Bean(destroyMethod = "close")
+    public Keycloak keycloakAdminClient(MeterRegistry meterRegistry) {
+        Counter tokenRefreshes = Counter.builder("keycloak.admin.token.refreshes")
+                .description("Client-credentials tokens obtained by the admin client")
+                .register(meterRegistry);
+        // The TokenManager grants and refreshes through this client: count its token requests
+        ClientRequestFilter tokenRequests = request -> {
+            if (request.getUri().getPath().endsWith("/protocol/openid-connect/token")) {
+                tokenRefreshes.increment();
+            }
+        };
+
+        Client httpClient = ((ResteasyClientBuilder) ClientBuilder.newBuilder())
+                .connectionPoolSize(poolSize)
+                .maxPooledPerRoute(poolSize)
+                .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS)
+                .connectionCheckoutTimeout(checkoutTimeoutMs, TimeUnit.MILLISECONDS)
+                .register(JacksonProvider.class, 100)
+                .register(tokenRequests)
+                .build();
+
+        Keycloak keycloak = KeycloakBuilder.builder()
+                .serverUrl(serverUrl)
+                .realm(realm)
+                .grantType(OAuth2Constants.CLIENT_CREDENTIALS)
+                .clientId(clientId)
+                .clientSecret(clientSecret)
+                .resteasyClient(httpClient)
+                .build();
+        keycloak.tokenManager().setMinTokenValidity(minTokenValiditySeconds);
+        return keycloak;
+    }
+}
@@ -55,7 +55,8 @@ public class SecurityConfig {
                                 "/api/league-classement/**",
                                 "/api/admin-management/**",
                                 "/api/deposit-transactions/**",
-                                "/api/withdraw-requests/**"
+                                "/api/withdraw-requests/**",
+                                "/api/internal/session-revocations"
 
 
 
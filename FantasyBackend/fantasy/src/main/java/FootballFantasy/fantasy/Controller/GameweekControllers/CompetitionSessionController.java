@@ -5,6 +5,7 @@ import FootballFantasy.fantasy.Entities.GameweekEntities.LeagueTheme;
 import FootballFantasy.fantasy.Entities.GameweekEntities.SessionParticipation;
 import FootballFantasy.fantasy.Entities.GameweekEntities.SessionType;
 import FootballFantasy.fantasy.Services.GameweekService.CompetitionSessionService;
+import FootballFantasy.fantasy.Services.GameweekService.GameweekSettlementService;
 import FootballFantasy.fantasy.Services.GameweekService.SessionParticipationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +24,9 @@ public class CompetitionSessionController {
     @Autowired
     private SessionParticipationService sessionParticipationService;
 
+    @Autowired
+    private GameweekSettlementService gameweekSettlementService;
+
     // ✅ 3. Get session details with participants and current status
     @GetMapping("/{sessionId}")
     public ResponseEntity<CompetitionSession> getSession(@PathVariable Long sessionId) {
@@ -104,22 +108,29 @@ public class CompetitionSessionController {
 
     // ✅ 11. Admin: Manually trigger winner determination for a GameWeek
     @PostMapping("/admin/manual-trigger/gameweek/{gameWeekId}")
-    public ResponseEntity<String> manuallyTriggerWinners(@PathVariable Long gameWeekId) {
-        competitionSessionService.manuallyTriggerWinnerDetermination(gameWeekId);
-        return ResponseEntity.ok("✅ Manual winner determination triggered for GameWeek ID: " + gameWeekId);
+    public ResponseEntity<GameweekSettlementService.SettlementProgress> manuallyTriggerWinners(@PathVariable Long gameWeekId) {
+        return ResponseEntity.ok(gameweekSettlementService.settleGameweek(gameWeekId));
     }
 
-    // ✅ 12. Admin: Force winner calculation for one session (fallback)
+    // ✅ 12. Admin: Force winner calculation for one session (fallback, never pays twice)
     @PostMapping("/admin/manual-trigger/session/{sessionId}")
     public ResponseEntity<String> triggerWinnerForSession(@PathVariable Long sessionId) {
-        competitionSessionService.determineWinner(sessionId);
-        return ResponseEntity.ok("✅ Winner calculated for session ID: " + sessionId);
+        boolean settled = gameweekSettlementService.settleSession(sessionId);
+        return ResponseEntity.ok(settled
+                ? "✅ Winner calculated for session ID: " + sessionId
+                : "ℹ️ Session ID " + sessionId + " was already settled");
     }
 
     // ✅ 13. Admin: Automatically determine winners for completed gameweek
     @PostMapping("/admin/auto-determine/gameweek/{gameWeekId}")
-    public ResponseEntity<String> autoTriggerWinners(@PathVariable Long gameWeekId) {
-        competitionSessionService.determineWinnersForCompletedGameWeek(gameWeekId);
-        return ResponseEntity.ok("✅ Automatic winner determination completed for GameWeek ID: " + gameWeekId);
+    public ResponseEntity<GameweekSettlementService.SettlementProgress> autoTriggerWinners(@PathVariable Long gameWeekId) {
+        return ResponseEntity.ok(gameweekSettlementService.settleGameweek(gameWeekId));
+    }
+
+    // ✅ 14. Admin: Progress of the last settlement run for a GameWeek
+    @GetMapping("/admin/settlement/gameweek/{gameWeekId}/progress")
+    public ResponseEntity<GameweekSettlementService.SettlementProgress> getSettlementProgress(@PathVariable Long gameWeekId) {
+        GameweekSettlementService.SettlementProgress progress = gameweekSettlementService.getProgress(gameWeekId);
+        return progress != null ? ResponseEntity.ok(progress) : ResponseEntity.notFound().build();
     }
-}
\ No newline at end of file
+}
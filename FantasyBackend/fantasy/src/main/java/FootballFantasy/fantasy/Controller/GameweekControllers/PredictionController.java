@@ -2,12 +2,14 @@ package FootballFantasy.fantasy.Controller.GameweekControllers;
 
 import FootballFantasy.fantasy.Dto.GameweekPredictionSubmissionDTO;
 import FootballFantasy.fantasy.Entities.GameweekEntities.*;
+import FootballFantasy.fantasy.Exceptions.AdmissionRejectedException;
 import FootballFantasy.fantasy.Exceptions.BusinessLogicException;
 import FootballFantasy.fantasy.Exceptions.PaiementExceptions.InsufficientBalanceException;
 import FootballFantasy.fantasy.Exceptions.PrivateSessionsExceptions.PrivateSessionNotFoundException;
 import FootballFantasy.fantasy.Exceptions.PrivateSessionsExceptions.PrivateSessionGameweekMismatchException;
 import FootballFantasy.fantasy.Exceptions.PrivateSessionsExceptions.PrivateSessionFullException;
 import FootballFantasy.fantasy.Services.GameweekService.*;
+import FootballFantasy.fantasy.Services.PaiementService.IdempotencyService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -32,6 +34,12 @@ public class PredictionController {
     @Autowired
     private SessionParticipationService sessionParticipationService;
 
+    @Autowired
+    private JoinAdmissionService joinAdmissionService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @PostMapping("/submit-predictions")
     public ResponseEntity<Map<String, Object>> submitPredictionsAndJoinSession(
             @Valid @RequestBody GameweekPredictionSubmissionDTO submissionDTO,
@@ -39,7 +47,8 @@ public class PredictionController {
             @RequestParam BigDecimal buyInAmount,
             @RequestParam boolean isPrivate,
             @RequestParam(required = false) String accessKey,
-            @RequestParam(required = false) String privateMode) {
+            @RequestParam(required = false) String privateMode,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
         System.out.println("🔍 [CONTROLLER] Received submission for user: " + submissionDTO.getUserId());
         System.out.println("- Gameweek: " + submissionDTO.getGameweekId());
@@ -51,8 +60,14 @@ public class PredictionController {
             // Basic validation
             validateSubmissionRequest(submissionDTO);
 
-            // Call service to submit predictions and join session
-            Map<String, Object> result = predictionService.submitPredictionsAndJoinSession(
+            // Call service to submit predictions and join session (queued / rate limited in the deadline rush);
+            // a retried request with the same Idempotency-Key gets the first response back
+            Map<String, Object> result = idempotencyService.execute(
+                    idempotencyKey, "submit-predictions", String.valueOf(submissionDTO.getUserId()), Map.class,
+                    () -> joinAdmissionService.admit(
+                            submissionDTO.getGameweekId(), submissionDTO.getUserId(),
+                            () -> predictionService.submitPredictionsAndJoinSession(
+                                    submissionDTO, sessionType, buyInAmount, isPrivate, accessKey, privateMode)),
                     submissionDTO, sessionType, buyInAmount, isPrivate, accessKey, privateMode);
 
             // Return success response
@@ -65,6 +80,11 @@ public class PredictionController {
             System.out.println("✅ [CONTROLLER] Successfully processed submission for user: " + submissionDTO.getUserId());
             return ResponseEntity.ok(successResponse);
 
+        } catch (AdmissionRejectedException ex) {
+            System.out.println("⏳ [CONTROLLER] Submission shed by admission control: " + ex.getErrorCode());
+            // Re-throw to let GlobalExceptionHandler answer 429 with Retry-After
+            throw ex;
+
         } catch (InsufficientBalanceException ex) {
             System.out.println("❌ [CONTROLLER] Insufficient balance for user: " + submissionDTO.getUserId());
             // Re-throw to let GlobalExceptionHandler handle it with proper error structure
@@ -4,7 +4,10 @@ import FootballFantasy.fantasy.Dto.UserSessionStats;
 import FootballFantasy.fantasy.Entities.GameweekEntities.LeagueTheme;
 import FootballFantasy.fantasy.Entities.GameweekEntities.SessionParticipation;
 import FootballFantasy.fantasy.Entities.GameweekEntities.SessionType;
+import FootballFantasy.fantasy.Exceptions.AdmissionRejectedException;
+import FootballFantasy.fantasy.Services.GameweekService.JoinAdmissionService;
 import FootballFantasy.fantasy.Services.GameweekService.SessionParticipationService;
+import FootballFantasy.fantasy.Services.PaiementService.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -30,6 +33,12 @@ public class SessionParticipationController {
     @Autowired
     private SessionParticipationService sessionParticipationService;
 
+    @Autowired
+    private JoinAdmissionService joinAdmissionService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     // ===== JOIN COMPETITION/SESSION =====
 
     @PostMapping("/join-competition")
@@ -48,7 +57,9 @@ public class SessionParticipationController {
             @Parameter(description = "Buy-in amount") @RequestParam BigDecimal buyInAmount,
             @Parameter(description = "Is private session") @RequestParam(defaultValue = "false") boolean isPrivate,
             @Parameter(description = "Access key for private sessions") @RequestParam(required = false) String accessKey,
-            @Parameter(description = "Private mode: CREATE or JOIN") @RequestParam(required = false) String privateMode) {
+            @Parameter(description = "Private mode: CREATE or JOIN") @RequestParam(required = false) String privateMode,
+            @Parameter(description = "Same value on retries to avoid joining (and paying) twice")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
         try {
             String keycloakId = getCurrentUserKeycloakId();
@@ -63,10 +74,17 @@ public class SessionParticipationController {
                     "\n- accessKey: '" + accessKey + "'" +
                     "\n- privateMode: '" + privateMode + "'");
 
-            SessionParticipation participation = sessionParticipationService.joinCompetitionByKeycloakId(
-                    gameweekId, competition, sessionType, buyInAmount, isPrivate, accessKey, keycloakId, privateMode);
+            SessionParticipation participation = idempotencyService.execute(
+                    idempotencyKey, "join-competition", keycloakId, SessionParticipation.class,
+                    () -> joinAdmissionService.admitByKeycloakId(gameweekId, keycloakId,
+                            () -> sessionParticipationService.joinCompetitionByKeycloakId(
+                                    gameweekId, competition, sessionType, buyInAmount, isPrivate, accessKey, keycloakId, privateMode)),
+                    gameweekId, competition, sessionType, buyInAmount, isPrivate, accessKey, privateMode);
 
             return ResponseEntity.ok(participation);
+        } catch (AdmissionRejectedException e) {
+            // 429 + Retry-After from GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             System.err.println("❌ [CONTROLLER] Error joining competition: " + e.getMessage());
             
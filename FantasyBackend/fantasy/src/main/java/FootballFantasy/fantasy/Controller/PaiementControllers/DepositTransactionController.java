@@ -3,6 +3,7 @@ package FootballFantasy.fantasy.Controller.PaiementControllers;
 import FootballFantasy.fantasy.Dto.WithdrawReservationResponseDTO;
 import FootballFantasy.fantasy.Entities.PaiementEntities.*;
 import FootballFantasy.fantasy.Services.PaiementService.DepositTransactionService;
+import FootballFantasy.fantasy.Services.PaiementService.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,6 +17,7 @@ import java.util.List;
 public class DepositTransactionController {
 
     private final DepositTransactionService depositService;
+    private final IdempotencyService idempotencyService;
 
     // ===========================
     // Phase 1 – Reserve Withdraw Number
@@ -37,10 +39,13 @@ public class DepositTransactionController {
     @Operation(summary = "Confirm a deposit using the reserved withdraw number")
     public DepositTransactionEntity confirmDeposit(
             @RequestParam Long withdrawId,
-            @RequestParam String screenshotUrl
+            @RequestParam String screenshotUrl,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey
     ) {
         String keycloakId = depositService.getCurrentUserKeycloakId();
-        return depositService.confirmDeposit(keycloakId,  screenshotUrl, withdrawId);
+        return idempotencyService.execute(idempotencyKey, "deposit-confirm", keycloakId, DepositTransactionEntity.class,
+                () -> depositService.confirmDeposit(keycloakId, screenshotUrl, withdrawId),
+                withdrawId, screenshotUrl);
     }
 
     // ===========================
@@ -3,6 +3,7 @@ package FootballFantasy.fantasy.Controller.PaiementControllers;
 import FootballFantasy.fantasy.Entities.PaiementEntities.*;
 import FootballFantasy.fantasy.Repositories.UserRepositories.UserRepository;
 import FootballFantasy.fantasy.Services.PaiementService.DepositTransactionService;
+import FootballFantasy.fantasy.Services.PaiementService.IdempotencyService;
 import FootballFantasy.fantasy.Services.PaiementService.WithdrawRequestService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +20,7 @@ public class WithdrawRequestController {
 
     private final WithdrawRequestService withdrawService;
     private final DepositTransactionService depositTransactionService;
+    private final IdempotencyService idempotencyService;
 
     // ===========================
     // User: Submit a new withdraw request
@@ -28,10 +30,13 @@ public class WithdrawRequestController {
     public WithdrawRequestEntity submitWithdraw(
             @RequestParam PrefixedAmount prefixedAmount,
             @RequestParam PaymentPlatform platform,
-            @RequestParam String withdrawNumber
+            @RequestParam String withdrawNumber,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey
     ) {
         String keycloakId = depositTransactionService.getCurrentUserKeycloakId();
-        return withdrawService.submitWithdrawRequest(keycloakId, prefixedAmount, platform, withdrawNumber);
+        return idempotencyService.execute(idempotencyKey, "withdraw-submit", keycloakId, WithdrawRequestEntity.class,
+                () -> withdrawService.submitWithdrawRequest(keycloakId, prefixedAmount, platform, withdrawNumber),
+                prefixedAmount, platform, withdrawNumber);
     }
 
     @PostMapping("/cancel/{withdrawId}")
@@ -0,0 +1,43 @@
+package FootballFantasy.fantasy.Controller.UserControllers;
+
+import FootballFantasy.fantasy.Dto.SessionRevocationEventDTO;
+import FootballFantasy.fantasy.Security.SessionRevocationRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Receives session revocations pushed by the keycloak-one-session-plugin.
+ * Not a user endpoint: callers authenticate with the shared X-Revocation-Secret header.
+ */
+@RestController
+@RequestMapping("/api/internal/session-revocations")
+@RequiredArgsConstructor
+public class SessionRevocationController {
+
+    private final SessionRevocationRegistry revocationRegistry;
+
+    @Value("${keycloak.revocation.shared-secret:}")
+    private String sharedSecret;
+
+    @PostMapping
+    @Operation(summary = "Register a Keycloak session revoked by the one-session plugin (Keycloak only)")
+    public ResponseEntity<Void> revokeSession(
+            @RequestHeader(value = "X-Revocation-Secret", required = false) String secret,
+            @RequestBody SessionRevocationEventDTO event
+    ) {
+        if (sharedSecret == null || sharedSecret.isBlank() || secret == null
+                || !MessageDigest.isEqual(sharedSecret.getBytes(StandardCharsets.UTF_8),
+                                          secret.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        revocationRegistry.revoke(event);
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -1,6 +1,7 @@
 package FootballFantasy.fantasy.Controller.UserControllers;
 
 import FootballFantasy.fantasy.Entities.UserEntities.UserEntity;
+import FootballFantasy.fantasy.Services.PaiementService.WalletLedgerService;
 import FootballFantasy.fantasy.Services.UserService.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -21,6 +22,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private WalletLedgerService walletLedgerService;
+
     @GetMapping("/me")
     public ResponseEntity<UserProfileResponse> getCurrentUser() {
         try {
@@ -63,7 +67,8 @@ public class UserController {
 
             System.out.println("✅ Balance retrieved for user: " + currentUser.getKeycloakId());
 
-            return ResponseEntity.ok(new BalanceResponse(currentUser.getBalance()));
+            // Ledger snapshot + tail once reconciled, never blocked by in-flight balance updates
+            return ResponseEntity.ok(new BalanceResponse(walletLedgerService.displayedBalanceOf(currentUser.getId())));
         } catch (Exception e) {
             System.err.println("❌ Error getting balance: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,66 @@
+package FootballFantasy.fantasy.Dto;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * One fixture of the football-data competition feed, parsed once per fetch.
+ * Team names are the raw API names (not yet normalized).
+ */
+public record FixtureDTO(
+        Long id,            // football-data match id
+        Integer matchday,
+        String status,      // FINISHED, IN_PLAY, PAUSED, SCHEDULED, TIMED, POSTPONED, ...
+        OffsetDateTime utcDate,
+        String homeTeam,
+        String awayTeam,
+        Integer homeScore,  // full-time score, null until known
+        Integer awayScore
+) {
+
+    public LocalDateTime matchDateUtc() {
+        return utcDate != null ? utcDate.toLocalDateTime() : null;
+    }
+
+    public boolean hasTeams() {
+        return homeTeam != null && awayTeam != null;
+    }
+
+    // Hash of every field the match upsert cares about; equal hash = nothing to write
+    public int contentHash() {
+        return Objects.hash(matchday, status, utcDate, homeTeam, awayTeam, homeScore, awayScore);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static FixtureDTO fromApi(Map<String, Object> match) {
+        Map<String, Object> home = (Map<String, Object>) match.get("homeTeam");
+        Map<String, Object> away = (Map<String, Object>) match.get("awayTeam");
+        String dateStr = (String) match.get("utcDate");
+
+        Integer homeScore = null;
+        Integer awayScore = null;
+        Map<String, Object> score = (Map<String, Object>) match.get("score");
+        if (score != null) {
+            Map<String, Object> fullTime = (Map<String, Object>) score.get("fullTime");
+            if (fullTime != null) {
+                homeScore = (Integer) fullTime.get("home");
+                awayScore = (Integer) fullTime.get("away");
+            }
+        }
+
+        Number id = (Number) match.get("id");
+
+        return new FixtureDTO(
+                id != null ? id.longValue() : null,
+                (Integer) match.get("matchday"),
+                (String) match.get("status"),
+                dateStr != null ? OffsetDateTime.parse(dateStr) : null,
+                home != null ? (String) home.get("name") : null,
+                away != null ? (String) away.get("name") : null,
+                homeScore,
+                awayScore
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package FootballFantasy.fantasy.Dto;
+
+import java.time.Instant;
+
+/**
+ * Pushed by the keycloak-one-session-plugin when it kills an older user session.
+ */
+public record SessionRevocationEventDTO(
+        String realm,
+        String userId,     // keycloak user id (JWT "sub")
+        String sessionId,  // keycloak user session id (JWT "sid")
+        Instant revokedAt
+) {}
@@ -0,0 +1,17 @@
+package FootballFantasy.fantasy.Entities.GameweekEntities;
+
+/**
+ * Shared settings of the table-based id generators used by high-volume entities
+ * (predictions, participations). Unlike IDENTITY columns, pooled ids are known before
+ * the INSERT, which lets Hibernate group inserts into JDBC batches.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generator";
+
+    // Ids reserved per generator round trip; matches hibernate.jdbc.batch_size
+    public static final int POOL_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
@@ -0,0 +1,24 @@
+package FootballFantasy.fantasy.Entities.GameweekEntities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Shared counter handing out blocks of values to application nodes (e.g. private
+ * session access keys). Each node reserves a block under a row lock, then allocates
+ * from it in memory.
+ */
+@Entity
+@Table(name = "key_sequence")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeySequence {
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    // First value of the next unreserved block
+    @Column(nullable = false)
+    private Long nextValue = 0L;
+}
@@ -0,0 +1,53 @@
+package FootballFantasy.fantasy.Entities.GameweekEntities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Materialized standings: one team's record over the matches of a single gameweek.
+ * The table "up to gameweek N" is the sum of a team's rows with weekNumber <= N.
+ * Maintained incrementally by LeagueClassementService.
+ */
+@Entity
+@Table(
+        name = "league_standing",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"competition", "week_number", "team_name"}),
+        indexes = @Index(name = "idx_league_standing_competition_week", columnList = "competition, week_number")
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeagueStanding {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LeagueTheme competition;
+
+    @Column(name = "week_number", nullable = false)
+    private int weekNumber;
+
+    @Column(name = "team_name", nullable = false)
+    private String teamName;
+
+    private int played;
+    private int won;
+    private int draw;
+    private int lost;
+    private int goalsFor;
+    private int goalsAgainst;
+
+    // sign = +1 to apply a result, -1 to reverse it
+    public void addResult(int scored, int conceded, int sign) {
+        played += sign;
+        goalsFor += sign * scored;
+        goalsAgainst += sign * conceded;
+        if (scored > conceded) won += sign;
+        else if (scored == conceded) draw += sign;
+        else lost += sign;
+    }
+}
@@ -1,5 +1,6 @@
 package FootballFantasy.fantasy.Entities.GameweekEntities;
 
+import FootballFantasy.fantasy.Listeners.MatchEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
@@ -10,6 +11,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "football_match")
+@EntityListeners(MatchEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,6 +20,10 @@ public class Match {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // football-data match id, used to diff polls against stored rows
+    @Column(unique = true)
+    private Long externalId;
+
     private String homeTeam;
     private String awayTeam;
 
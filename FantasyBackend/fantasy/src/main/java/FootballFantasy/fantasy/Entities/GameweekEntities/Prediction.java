@@ -14,8 +14,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Prediction {
+    // Pooled table ids: known before the INSERT, so inserts are JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "prediction_ids")
+    @TableGenerator(name = "prediction_ids", table = IdGenerators.TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "prediction", allocationSize = IdGenerators.POOL_SIZE)
     private Long id;
 
     @JsonIgnore
@@ -16,8 +16,15 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class SessionParticipation {
+
+    // Tiebreaker score of a participation without any scored tiebreaker prediction
+    public static final double NO_TIEBREAKER_SCORE = 999999.0;
+
+    // Pooled table ids: known before the INSERT, so inserts are JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "session_participation_ids")
+    @TableGenerator(name = "session_participation_ids", table = IdGenerators.TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "session_participation", allocationSize = IdGenerators.POOL_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -29,6 +36,9 @@ public class SessionParticipation {
     @Column(nullable = false)
     private Double accuracyPercentage = 0.0;
 
+    // 🎯 Average tiebreaker score distance (lower is better), precomputed at scoring time
+    private Double tiebreakerScore = NO_TIEBREAKER_SCORE;
+
     @Column(nullable = false)
     private LocalDateTime joinedAt;
 
@@ -0,0 +1,53 @@
+package FootballFantasy.fantasy.Entities.GameweekEntities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Settlement journal entry of one competition session. Each phase (scored, ranked,
+ * paid) commits together with the journal update that records it, while the row is
+ * locked - so a resumed run skips finished phases and a session is never paid twice.
+ */
+@Entity
+@Table(name = "session_settlement")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionSettlement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "session_id", nullable = false, unique = true)
+    private Long sessionId;
+
+    @Column(name = "gameweek_id")
+    private Long gameweekId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SettlementStatus status = SettlementStatus.PENDING;
+
+    // Null on rows written before phases were journaled - treated as PENDING
+    @Enumerated(EnumType.STRING)
+    private SettlementPhase phase = SettlementPhase.PENDING;
+
+    private LocalDateTime scoredAt;
+    private LocalDateTime rankedAt;
+    private LocalDateTime paidAt;
+
+    private int attempts = 0;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime updatedAt;
+
+    public SettlementPhase getPhase() {
+        return phase != null ? phase : SettlementPhase.PENDING;
+    }
+}
@@ -0,0 +1,13 @@
+package FootballFantasy.fantasy.Entities.GameweekEntities;
+
+/**
+ * Last settlement step committed for a session. Phases only move forward:
+ * PENDING -> SCORED -> RANKED -> PAID.
+ */
+public enum SettlementPhase {
+    PENDING, SCORED, RANKED, PAID;
+
+    public boolean isBefore(SettlementPhase other) {
+        return ordinal() < other.ordinal();
+    }
+}
@@ -0,0 +1,5 @@
+package FootballFantasy.fantasy.Entities.GameweekEntities;
+
+public enum SettlementStatus {
+    PENDING, SETTLED, FAILED
+}
@@ -0,0 +1,50 @@
+package FootballFantasy.fantasy.Entities.GameweekEntities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The result of a match as it is currently counted in league_standing (one row per
+ * gameweek the match belongs to), so a corrected score can be reversed exactly.
+ */
+@Entity
+@Table(
+        name = "standing_contribution",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"match_id", "gameweek_id"})
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StandingContribution {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "match_id", nullable = false)
+    private Long matchId;
+
+    @Column(name = "gameweek_id", nullable = false)
+    private Long gameweekId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LeagueTheme competition;
+
+    private int weekNumber;
+
+    private String homeTeam;
+    private String awayTeam;
+    private int homeScore;
+    private int awayScore;
+
+    public boolean sameResult(StandingContribution other) {
+        return competition == other.competition
+                && weekNumber == other.weekNumber
+                && homeTeam.equals(other.homeTeam)
+                && awayTeam.equals(other.awayTeam)
+                && homeScore == other.homeScore
+                && awayScore == other.awayScore;
+    }
+}
@@ -0,0 +1,11 @@
+package FootballFantasy.fantasy.Entities.PaiementEntities;
+
+public enum LedgerEntryType {
+    OPENING,        // balance held before the ledger existed
+    BUY_IN,         // session join (reference: session id)
+    PRIZE,          // session winnings (reference: session id)
+    REFUND,         // buy-in or withdraw given back (reference: session or withdraw id)
+    DEPOSIT,        // approved deposit (reference: deposit id)
+    WITHDRAW,       // submitted withdraw (reference: withdraw id)
+    ADMIN_ADJUST,   // admin credit / debit (reference: admin user id)
+}
@@ -0,0 +1,34 @@
+package FootballFantasy.fantasy.Entities.PaiementEntities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running balance of one user: the sum of the user's ledger entries up to lastEntryId.
+ * A balance read adds the entries written after it. entryCount tells whether an entry
+ * at or below lastEntryId committed after the snapshot was taken (pooled ids do not
+ * follow commit order).
+ */
+@Entity
+@Table(name = "wallet_balance_snapshot")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletBalanceSnapshot {
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long lastEntryId;
+
+    @Column(precision = 10, scale = 2, nullable = false)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    private LocalDateTime takenAt;
+
+    @Column(nullable = false)
+    private long entryCount;
+}
@@ -0,0 +1,48 @@
+package FootballFantasy.fantasy.Entities.PaiementEntities;
+
+import FootballFantasy.fantasy.Entities.GameweekEntities.IdGenerators;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One movement of a user's balance. Rows are only ever inserted: the balance is the sum
+ * of a user's entries, so concurrent money operations never update a shared row.
+ */
+@Entity
+@Table(
+        name = "wallet_ledger",
+        indexes = {
+                @Index(name = "idx_wallet_ledger_user_id", columnList = "user_id, id"),
+                @Index(name = "idx_wallet_ledger_created_at", columnList = "created_at")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletLedgerEntry {
+    // Pooled table ids: known before the INSERT, so inserts are JDBC-batched
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "wallet_ledger_ids")
+    @TableGenerator(name = "wallet_ledger_ids", table = IdGenerators.TABLE, pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "wallet_ledger", allocationSize = IdGenerators.POOL_SIZE)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 25)
+    private LedgerEntryType type;
+
+    // Signed: credits are positive, debits negative
+    @Column(precision = 10, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    private Long referenceId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
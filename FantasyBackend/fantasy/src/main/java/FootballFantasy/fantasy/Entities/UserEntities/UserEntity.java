@@ -6,6 +6,7 @@ import FootballFantasy.fantasy.Entities.PaiementEntities.WithdrawRequestEntity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -14,6 +15,8 @@ import java.util.ArrayList;
 import java.util.List;
 @Entity
 @Table(name = "users")
+// Profile saves write only changed columns, never stale balances (see BalanceService)
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
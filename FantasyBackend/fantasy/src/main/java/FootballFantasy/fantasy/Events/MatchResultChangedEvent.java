@@ -0,0 +1,14 @@
+package FootballFantasy.fantasy.Events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class MatchResultChangedEvent extends ApplicationEvent {
+    private final Long matchId;
+
+    public MatchResultChangedEvent(Object source, Long matchId) {
+        super(source);
+        this.matchId = matchId;
+    }
+}
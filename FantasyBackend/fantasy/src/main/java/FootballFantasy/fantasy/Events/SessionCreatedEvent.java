@@ -0,0 +1,18 @@
+package FootballFantasy.fantasy.Events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class SessionCreatedEvent extends ApplicationEvent {
+    private final Long sessionId;
+    private final LocalDateTime joinDeadline;
+
+    public SessionCreatedEvent(Object source, Long sessionId, LocalDateTime joinDeadline) {
+        super(source);
+        this.sessionId = sessionId;
+        this.joinDeadline = joinDeadline;
+    }
+}
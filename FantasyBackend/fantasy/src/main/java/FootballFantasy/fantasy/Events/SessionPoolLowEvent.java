@@ -0,0 +1,16 @@
+package FootballFantasy.fantasy.Events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class SessionPoolLowEvent extends ApplicationEvent {
+    private final Long gameweekId;
+    private final Long templateId;
+
+    public SessionPoolLowEvent(Object source, Long gameweekId, Long templateId) {
+        super(source);
+        this.gameweekId = gameweekId;
+        this.templateId = templateId;
+    }
+}
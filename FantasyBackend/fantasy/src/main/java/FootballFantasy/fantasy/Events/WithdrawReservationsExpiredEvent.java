@@ -0,0 +1,16 @@
+package FootballFantasy.fantasy.Events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+@Getter
+public class WithdrawReservationsExpiredEvent extends ApplicationEvent {
+    private final List<Long> withdrawIds;
+
+    public WithdrawReservationsExpiredEvent(Object source, List<Long> withdrawIds) {
+        super(source);
+        this.withdrawIds = withdrawIds;
+    }
+}
@@ -0,0 +1,16 @@
+package FootballFantasy.fantasy.Exceptions;
+
+import lombok.Getter;
+
+// Request shed by admission control; the client should retry after the given delay
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+    private final String errorCode;
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, String errorCode, long retryAfterSeconds) {
+        super(message);
+        this.errorCode = errorCode;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
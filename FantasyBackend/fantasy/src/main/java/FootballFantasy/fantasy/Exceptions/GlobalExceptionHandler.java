@@ -7,6 +7,7 @@ import FootballFantasy.fantasy.Exceptions.PrivateSessionsExceptions.PrivateSessi
 import FootballFantasy.fantasy.Exceptions.UsersExceptions.UserAlreadyExistsException;
 import FootballFantasy.fantasy.Exceptions.UsersExceptions.UserBannedException;
 import FootballFantasy.fantasy.Exceptions.UsersExceptions.UserNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
@@ -335,6 +336,28 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
     }
 
+    /**
+     * Handle AdmissionRejectedException (load shedding during the deadline rush)
+     */
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleAdmissionRejected(
+            AdmissionRejectedException ex, WebRequest request) {
+
+        Map<String, Object> errorResponse = createBaseErrorResponse(
+                ex.getErrorCode(),
+                ex.getMessage(),
+                request
+        );
+        errorResponse.put("retryAfterSeconds", ex.getRetryAfterSeconds());
+
+        System.out.println("⏳ [EXCEPTION_HANDLER] Request shed: " + ex.getErrorCode() +
+                " (retry after " + ex.getRetryAfterSeconds() + "s)");
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(DepositNotFoundException.class)
     public ResponseEntity<String> handleDepositNotFound(DepositNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -0,0 +1,28 @@
+package FootballFantasy.fantasy.Listeners;
+
+import FootballFantasy.fantasy.Entities.GameweekEntities.Match;
+import FootballFantasy.fantasy.Events.MatchResultChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA callbacks on Match: every write path (API polling, admin edits, seeders)
+ * ends up here, so derived data such as the standings table cannot miss a change.
+ */
+@Component
+public class MatchEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onMatchWritten(Match match) {
+        eventPublisher.publishEvent(new MatchResultChangedEvent(this, match.getId()));
+    }
+}
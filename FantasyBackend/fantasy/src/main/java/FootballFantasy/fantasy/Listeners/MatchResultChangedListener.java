@@ -0,0 +1,29 @@
+package FootballFantasy.fantasy.Listeners;
+
+import FootballFantasy.fantasy.Events.MatchResultChangedEvent;
+import FootballFantasy.fantasy.Services.DataService.LeagueClassementService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class MatchResultChangedListener {
+
+    @Autowired
+    private LeagueClassementService leagueClassementService;
+
+    // Only committed results reach the standings table
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleMatchResultChanged(MatchResultChangedEvent event) {
+        try {
+            leagueClassementService.applyMatchResult(event.getMatchId());
+        } catch (DataIntegrityViolationException e) {
+            // Two results created the same standings row concurrently - the row exists now
+            leagueClassementService.applyMatchResult(event.getMatchId());
+        } catch (Exception e) {
+            System.err.println("❌ Error updating standings for match " + event.getMatchId() + ": " + e.getMessage());
+        }
+    }
+}
@@ -7,6 +7,7 @@ import FootballFantasy.fantasy.Entities.GameweekEntities.SessionType;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.math.BigDecimal;
@@ -18,6 +19,20 @@ public interface CompetitionSessionRepository extends JpaRepository<CompetitionS
 
     List<CompetitionSession> findByGameweekId(Long gameweekId);
 
+    // 🔒 Lock one session row (settlement, deadline close, private joins)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CompetitionSession s WHERE s.id = :id")
+    Optional<CompetitionSession> findByIdForUpdate(@Param("id") Long id);
+
+    // 🔒 Shared lock held by a join until it commits: joins never wait on each other, but a
+    // deadline close (write lock) waits for them, and joins after it read its status
+    @Query(value = "SELECT status FROM competition_session WHERE id = :id FOR SHARE", nativeQuery = true)
+    Optional<String> lockStatusForJoin(@Param("id") Long id);
+
+    // 🩺 Crash recovery: sessions of finished gameweeks that never got their result
+    @Query("SELECT s.id FROM CompetitionSession s WHERE s.gameweek.status = 'FINISHED' AND s.status NOT IN ('FINISHED', 'CANCELLED')")
+    List<Long> findUnsettledSessionIdsOfFinishedGameweeks();
+
     // 🔍 Find available public session (not locked - for preview only)
     @Query("SELECT s FROM CompetitionSession s WHERE s.gameweek.id = :gameweekId AND s.competition = :competition AND s.sessionType = :sessionType AND s.buyInAmount = :buyInAmount AND s.status = 'OPEN' AND s.accessKey IS NULL ORDER BY s.createdAt ASC")
     Optional<CompetitionSession> findAvailablePublicSession(@Param("gameweekId") Long gameweekId,
@@ -33,6 +48,40 @@ public interface CompetitionSessionRepository extends JpaRepository<CompetitionS
                                                               @Param("sessionType") SessionType sessionType,
                                                               @Param("buyInAmount") BigDecimal buyInAmount);
 
+    // 🎟️ Matchmaking: joinable public sessions of one bucket (FULL may have seats given back since)
+    @Query("SELECT s FROM CompetitionSession s WHERE s.gameweek.id = :gameweekId AND s.competition = :competition AND s.sessionType = :sessionType AND s.buyInAmount = :buyInAmount AND s.status IN ('OPEN', 'FULL') AND s.accessKey IS NULL AND s.joinDeadline > CURRENT_TIMESTAMP")
+    List<CompetitionSession> findOpenPublicSessions(@Param("gameweekId") Long gameweekId,
+                                                    @Param("competition") LeagueTheme competition,
+                                                    @Param("sessionType") SessionType sessionType,
+                                                    @Param("buyInAmount") BigDecimal buyInAmount);
+
+    // 🎟️ Matchmaking: apply seats handed out in memory (status first: MySQL evaluates SET left to right)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CompetitionSession s SET " +
+            "s.status = CASE WHEN s.status IN ('OPEN', 'FULL') THEN " +
+            "(CASE WHEN s.currentParticipants + :seats >= s.maxParticipants " +
+            "THEN FootballFantasy.fantasy.Entities.GameweekEntities.CompetitionSessionStatus.FULL " +
+            "ELSE FootballFantasy.fantasy.Entities.GameweekEntities.CompetitionSessionStatus.OPEN END) " +
+            "ELSE s.status END, " +
+            "s.currentParticipants = s.currentParticipants + :seats, " +
+            "s.totalPrizePool = s.totalPrizePool + s.buyInAmount * :seats, " +
+            "s.version = s.version + 1 " +
+            "WHERE s.id = :sessionId")
+    int applySeatDelta(@Param("sessionId") Long sessionId, @Param("seats") int seats);
+
+    // 🩺 Matchmaking reconciliation: stored counter vs actual participations of joinable public sessions
+    @Query("SELECT s.id AS sessionId, s.currentParticipants AS currentParticipants, COUNT(p) AS participantCount " +
+            "FROM CompetitionSession s LEFT JOIN s.participations p " +
+            "WHERE s.status IN ('OPEN', 'FULL') AND s.accessKey IS NULL " +
+            "GROUP BY s.id, s.currentParticipants")
+    List<SeatCountView> findPublicSeatCounts();
+
+    interface SeatCountView {
+        Long getSessionId();
+        Integer getCurrentParticipants();
+        Long getParticipantCount();
+    }
+
     // 🔍 UPDATED: Find private session by access key for specific gameweek (not locked - for preview)
     @Query("SELECT s FROM CompetitionSession s WHERE s.accessKey = :accessKey AND s.competition = :competition AND s.gameweek.id = :gameweekId AND s.status = 'OPEN'")
     Optional<CompetitionSession> findPrivateSessionByAccessKeyAndGameweek(@Param("accessKey") String accessKey,
@@ -65,16 +114,13 @@ public interface CompetitionSessionRepository extends JpaRepository<CompetitionS
                                                       @Param("buyInAmount") BigDecimal buyInAmount,
                                                       @Param("competition") LeagueTheme competition);
 
-    List<CompetitionSession> findByStatusAndSessionTypeAndMaxParticipantsAndJoinDeadlineBefore(
-            CompetitionSessionStatus status,
-            SessionType type,
-            int maxParticipants,
-            LocalDateTime deadline
-    );
-
-    @Query("SELECT cs FROM CompetitionSession cs WHERE cs.status = :status AND cs.joinDeadline < :deadline")
-    List<CompetitionSession> findByStatusAndJoinDeadlineBefore(
-            @Param("status") CompetitionSessionStatus status,
-            @Param("deadline") LocalDateTime deadline
-    );
-}
\ No newline at end of file
+    // ⏰ Deadline index rebuild: join deadlines of sessions still waiting for players
+    @Query("SELECT s.id AS sessionId, s.joinDeadline AS joinDeadline FROM CompetitionSession s " +
+            "WHERE s.status = 'OPEN' AND s.joinDeadline IS NOT NULL")
+    List<SessionDeadlineView> findOpenSessionDeadlines();
+
+    interface SessionDeadlineView {
+        Long getSessionId();
+        LocalDateTime getJoinDeadline();
+    }
+}
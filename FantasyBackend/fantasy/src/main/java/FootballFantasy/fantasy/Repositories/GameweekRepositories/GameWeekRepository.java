@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +36,11 @@ public interface GameWeekRepository extends JpaRepository<GameWeek, Long> {
     List<GameWeek> findByCompetitionAndWeekNumberLessThanEqual(LeagueTheme competition, int weekNumber);
     List<GameWeek> findByCompetitionOrderByWeekNumber(LeagueTheme competition);
     List<GameWeek> findByCompetitionAndJoinDeadlineAfterAndValidatedTrue(LeagueTheme competition, LocalDateTime now);
+    List<GameWeek> findByJoinDeadlineAfterAndValidatedTrue(LocalDateTime now);
+
+    // 🚦 Gameweeks among ids still taking joins (admission gates of the others are dropped)
+    @Query("SELECT g.id FROM GameWeek g WHERE g.id IN :ids AND g.joinDeadline > :now")
+    List<Long> findIdsWithJoinDeadlineAfter(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 
 
 }
@@ -0,0 +1,20 @@
+package FootballFantasy.fantasy.Repositories.GameweekRepositories;
+
+import FootballFantasy.fantasy.Entities.GameweekEntities.KeySequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface KeySequenceRepository extends JpaRepository<KeySequence, String> {
+
+    // 🔒 Reserve the next block: held until the reserving transaction commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT k FROM KeySequence k WHERE k.name = :name")
+    Optional<KeySequence> findForUpdate(@Param("name") String name);
+}
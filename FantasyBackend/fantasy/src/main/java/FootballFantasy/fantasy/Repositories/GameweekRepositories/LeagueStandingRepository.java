@@ -0,0 +1,47 @@
+package FootballFantasy.fantasy.Repositories.GameweekRepositories;
+
+import FootballFantasy.fantasy.Entities.GameweekEntities.LeagueStanding;
+import FootballFantasy.fantasy.Entities.GameweekEntities.LeagueTheme;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LeagueStandingRepository extends JpaRepository<LeagueStanding, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM LeagueStanding s WHERE s.competition = :competition AND s.weekNumber = :weekNumber AND s.teamName = :teamName")
+    Optional<LeagueStanding> findForUpdate(@Param("competition") LeagueTheme competition,
+                                           @Param("weekNumber") int weekNumber,
+                                           @Param("teamName") String teamName);
+
+    // 📊 League table up to a gameweek: one range scan on (competition, week_number)
+    @Query("SELECT s.teamName AS teamName, SUM(s.played) AS played, SUM(s.won) AS won, SUM(s.draw) AS draw, " +
+            "SUM(s.lost) AS lost, SUM(s.goalsFor) AS goalsFor, SUM(s.goalsAgainst) AS goalsAgainst " +
+            "FROM LeagueStanding s WHERE s.competition = :competition AND s.weekNumber <= :weekNumber " +
+            "GROUP BY s.teamName HAVING SUM(s.played) > 0 " +
+            "ORDER BY (SUM(s.won) * 3 + SUM(s.draw)) DESC, (SUM(s.goalsFor) - SUM(s.goalsAgainst)) DESC, SUM(s.goalsFor) DESC")
+    List<StandingView> findTableUpToWeek(@Param("competition") LeagueTheme competition,
+                                         @Param("weekNumber") int weekNumber);
+
+    @Modifying
+    @Query("DELETE FROM LeagueStanding s")
+    void deleteAllRows();
+
+    interface StandingView {
+        String getTeamName();
+        Long getPlayed();
+        Long getWon();
+        Long getDraw();
+        Long getLost();
+        Long getGoalsFor();
+        Long getGoalsAgainst();
+    }
+}
@@ -3,11 +3,15 @@ package FootballFantasy.fantasy.Repositories.GameweekRepositories;
 import FootballFantasy.fantasy.Entities.GameweekEntities.GameWeek;
 import FootballFantasy.fantasy.Entities.GameweekEntities.LeagueTheme;
 import FootballFantasy.fantasy.Entities.GameweekEntities.Match;
+import FootballFantasy.fantasy.Entities.GameweekEntities.MatchStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +28,11 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
 
     List<Match> findByGameweeksIdAndActiveTrue(Long gameweekId);
 
+    // 🔒 Serializes standings updates of one match (poll and admin edits racing)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Match m WHERE m.id = :id")
+    Optional<Match> findByIdForUpdate(@Param("id") Long id);
+
     // ✅ New method to fetch match with gameweeks
     @Query("SELECT m FROM Match m LEFT JOIN FETCH m.gameweeks " +
             "WHERE m.homeTeam = :home AND m.awayTeam = :away AND m.matchDate BETWEEN :from AND :to")
@@ -34,6 +43,10 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
             @Param("to") LocalDateTime to
     );
 
+    // 🔁 Diff-based upsert: existing rows of one poll, gameweeks fetched with them
+    @Query("SELECT DISTINCT m FROM Match m LEFT JOIN FETCH m.gameweeks WHERE m.externalId IN :externalIds")
+    List<Match> findWithGameweeksByExternalIdIn(@Param("externalIds") Collection<Long> externalIds);
+
     // ✅ Missing method needed by MatchUpdateService - find matches that belong to a specific gameweek
     @Query("SELECT m FROM Match m WHERE :gameweek MEMBER OF m.gameweeks")
     List<Match> findByGameweeksContaining(@Param("gameweek") GameWeek gameweek);
@@ -53,6 +66,10 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
     List<Match> findByMatchDateBetween(@Param("startDate") LocalDateTime startDate,
                                        @Param("endDate") LocalDateTime endDate);
 
+    // Matches with a result (live or final), used to rebuild the standings table
+    @Query("SELECT DISTINCT m FROM Match m LEFT JOIN FETCH m.gameweeks WHERE m.homeScore IS NOT NULL AND m.awayScore IS NOT NULL")
+    List<Match> findAllWithScoreAndGameweeks();
+
     // Find finished matches
     List<Match> findByFinishedTrue();
 
@@ -78,6 +95,21 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
     @Query("SELECT m FROM Match m JOIN m.gameweeks gw WHERE gw.competition = :competition AND gw.weekNumber = :weekNumber AND m.active = true")
     List<Match> findActiveMatchesByCompetitionAndWeek(@Param("competition") LeagueTheme competition, @Param("weekNumber") int weekNumber);
 
+    // ⏱️ Polling calendar: kick-off, status and competition of active matches in a time window
+    @Query("SELECT DISTINCT gw.competition AS competition, m.id AS matchId, m.matchDate AS matchDate, " +
+            "m.status AS status, m.finished AS finished " +
+            "FROM Match m JOIN m.gameweeks gw " +
+            "WHERE m.active = true AND m.matchDate BETWEEN :from AND :to")
+    List<KickoffView> findKickoffsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    interface KickoffView {
+        LeagueTheme getCompetition();
+        Long getMatchId();
+        LocalDateTime getMatchDate();
+        MatchStatus getStatus();
+        Boolean getFinished();
+    }
+
     // ✅ ADD: Count active matches in a gameweek
     @Query("SELECT COUNT(m) FROM Match m JOIN m.gameweeks gw WHERE gw.id = :gameweekId AND m.active = true")
     long countActiveMatchesByGameweek(@Param("gameweekId") Long gameweekId);
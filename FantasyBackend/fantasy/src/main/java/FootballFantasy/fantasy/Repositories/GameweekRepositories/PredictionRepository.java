@@ -8,6 +8,7 @@ import FootballFantasy.fantasy.Entities.GameweekEntities.LeagueTheme;
 import FootballFantasy.fantasy.Entities.UserEntities.UserEntity;
 import java.math.BigDecimal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -76,4 +77,49 @@ public interface PredictionRepository extends JpaRepository<Prediction, Long> {
     // 🎯 Get tiebreaker score for ranking
     @Query("SELECT COALESCE(AVG(p.scoreDistance), 999999.0) FROM Prediction p WHERE p.participation.id = :participationId AND p.isTiebreaker = true AND p.scoreDistance IS NOT NULL")
     Double getTiebreakerScore(@Param("participationId") Long participationId);
-}
\ No newline at end of file
+
+    // ======== Set-based scoring (one statement per match, no entity loading) ========
+
+    // ✅ Mark every prediction of the match as correct / incorrect
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Prediction p SET p.isCorrect = CASE WHEN p.predictedResult = :actualResult THEN true ELSE false END " +
+            "WHERE p.match.id = :matchId")
+    int bulkScoreResults(@Param("matchId") Long matchId, @Param("actualResult") PredictionResult actualResult);
+
+    // 🎯 Euclidean distance for tiebreakers that carry a score prediction
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Prediction p SET p.scoreDistance = SQRT(" +
+            "(p.predictedHomeScore - :homeScore) * (p.predictedHomeScore - :homeScore) + " +
+            "(p.predictedAwayScore - :awayScore) * (p.predictedAwayScore - :awayScore)) " +
+            "WHERE p.match.id = :matchId AND p.isTiebreaker = true " +
+            "AND p.predictedHomeScore IS NOT NULL AND p.predictedAwayScore IS NOT NULL")
+    int bulkScoreTiebreakerDistances(@Param("matchId") Long matchId,
+                                     @Param("homeScore") int homeScore,
+                                     @Param("awayScore") int awayScore);
+
+    // 🎯 Tiebreakers without a score prediction get the maximum penalty
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Prediction p SET p.scoreDistance = 10.0 " +
+            "WHERE p.match.id = :matchId AND p.isTiebreaker = true " +
+            "AND (p.predictedHomeScore IS NULL OR p.predictedAwayScore IS NULL)")
+    int bulkPenalizeTiebreakersWithoutScore(@Param("matchId") Long matchId);
+
+    // 📊 Recompute totals/accuracy/tiebreaker score of every participation that predicted this match, in one grouped UPDATE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE session_participation sp " +
+            "JOIN (SELECT p.participation_id AS pid, " +
+            "             COUNT(*) AS total, " +
+            "             SUM(CASE WHEN p.is_correct = 1 THEN 1 ELSE 0 END) AS correct, " +
+            "             AVG(CASE WHEN p.is_tiebreaker = 1 THEN p.score_distance END) AS tiebreaker " +
+            "      FROM prediction p " +
+            "      JOIN football_match m ON m.id = p.match_id " +
+            "      WHERE m.status = 'COMPLETED' " +
+            "        AND p.participation_id IN (SELECT p2.participation_id FROM prediction p2 WHERE p2.match_id = :matchId) " +
+            "      GROUP BY p.participation_id) agg ON agg.pid = sp.id " +
+            "SET sp.total_predictions = agg.total, " +
+            "    sp.total_correct_predictions = agg.correct, " +
+            "    sp.accuracy_percentage = agg.correct * 100.0 / agg.total, " +
+            "    sp.tiebreaker_score = COALESCE(agg.tiebreaker, 999999.0)",
+            nativeQuery = true)
+    int bulkUpdateParticipationAggregatesForMatch(@Param("matchId") Long matchId);
+}
@@ -0,0 +1,31 @@
+package FootballFantasy.fantasy.Repositories.GameweekRepositories;
+
+import FootballFantasy.fantasy.Entities.GameweekEntities.SessionSettlement;
+import FootballFantasy.fantasy.Entities.GameweekEntities.SettlementStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SessionSettlementRepository extends JpaRepository<SessionSettlement, Long> {
+
+    Optional<SessionSettlement> findBySessionId(Long sessionId);
+
+    // 🔒 Claim the marker for the duration of the settlement transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SessionSettlement s WHERE s.sessionId = :sessionId")
+    Optional<SessionSettlement> findBySessionIdForUpdate(@Param("sessionId") Long sessionId);
+
+    List<SessionSettlement> findByGameweekId(Long gameweekId);
+
+    List<SessionSettlement> findByStatus(SettlementStatus status);
+
+    @Query("SELECT s.sessionId FROM SessionSettlement s WHERE s.status = :status")
+    List<Long> findSessionIdsByStatus(@Param("status") SettlementStatus status);
+}
@@ -0,0 +1,23 @@
+package FootballFantasy.fantasy.Repositories.GameweekRepositories;
+
+import FootballFantasy.fantasy.Entities.GameweekEntities.StandingContribution;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StandingContributionRepository extends JpaRepository<StandingContribution, Long> {
+
+    // 🔒 Locked so a concurrent update of the same match cannot reverse the same result twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StandingContribution> findByMatchId(Long matchId);
+
+    @Modifying
+    @Query("DELETE FROM StandingContribution c")
+    void deleteAllRows();
+}
@@ -0,0 +1,12 @@
+package FootballFantasy.fantasy.Repositories.PaiementRepositories;
+
+import FootballFantasy.fantasy.Entities.PaiementEntities.WalletBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface WalletBalanceSnapshotRepository extends JpaRepository<WalletBalanceSnapshot, Long> {
+
+    // 📒 Every entry up to this id is covered by the snapshots
+    @Query("SELECT COALESCE(MAX(s.lastEntryId), 0) FROM WalletBalanceSnapshot s")
+    Long findWatermark();
+}
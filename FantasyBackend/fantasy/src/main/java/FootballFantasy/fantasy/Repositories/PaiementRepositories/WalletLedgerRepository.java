@@ -0,0 +1,80 @@
+package FootballFantasy.fantasy.Repositories.PaiementRepositories;
+
+import FootballFantasy.fantasy.Entities.PaiementEntities.WalletLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface WalletLedgerRepository extends JpaRepository<WalletLedgerEntry, Long> {
+
+    // 📒 Tail of a user's ledger after its snapshot
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM WalletLedgerEntry e WHERE e.userId = :userId AND e.id > :afterId")
+    BigDecimal sumAfter(@Param("userId") Long userId, @Param("afterId") Long afterId);
+
+    // 📒 Newest entry old enough to be committed by now (snapshot cut-off)
+    @Query("SELECT MAX(e.id) FROM WalletLedgerEntry e WHERE e.createdAt < :before")
+    Long findMaxIdCreatedBefore(@Param("before") LocalDateTime before);
+
+    // 📒 Tail after a snapshot, plus how many entries the snapshot's id range holds by now
+    @Query("SELECT COALESCE(SUM(CASE WHEN e.id > :afterId THEN e.amount ELSE 0 END), 0) AS tail, " +
+            "COALESCE(SUM(CASE WHEN e.id <= :afterId THEN 1 ELSE 0 END), 0) AS coveredEntries " +
+            "FROM WalletLedgerEntry e WHERE e.userId = :userId")
+    LedgerTailView findTail(@Param("userId") Long userId, @Param("afterId") Long afterId);
+
+    // 📒 Users with entries in (fromId, toId], whose snapshots are rolled forward
+    @Query("SELECT DISTINCT e.userId FROM WalletLedgerEntry e WHERE e.id > :fromId AND e.id <= :toId")
+    List<Long> findUserIdsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // 📒 Per-user totals of all entries up to toId
+    @Query("SELECT e.userId AS userId, SUM(e.amount) AS total, MAX(e.id) AS lastEntryId, COUNT(e) AS entryCount " +
+            "FROM WalletLedgerEntry e WHERE e.userId IN :userIds AND e.id <= :toId GROUP BY e.userId")
+    List<LedgerTotalsView> sumByUserUpTo(@Param("userIds") Collection<Long> userIds, @Param("toId") Long toId);
+
+    boolean existsByUserId(Long userId);
+
+    // 📒 Locking read: sees entries committed after the caller's snapshot (first-entry check)
+    @Query(value = "SELECT id FROM wallet_ledger WHERE user_id = :userId ORDER BY id LIMIT 1 FOR SHARE", nativeQuery = true)
+    Optional<Long> lockFirstEntryId(@Param("userId") Long userId);
+
+    // 🩺 Users whose stored balance has no ledger history yet
+    @Query("SELECT u.id AS userId, u.balance AS storedBalance FROM UserEntity u " +
+            "WHERE u.balance <> 0 AND NOT EXISTS (SELECT 1 FROM WalletLedgerEntry e WHERE e.userId = u.id)")
+    List<BalanceDriftView> findUnledgeredBalances();
+
+    // 🩺 Users whose stored balance differs from the sum of their entries
+    @Query("SELECT u.id AS userId, u.balance AS storedBalance, COALESCE(SUM(e.amount), 0) AS ledgerBalance " +
+            "FROM UserEntity u LEFT JOIN WalletLedgerEntry e ON e.userId = u.id " +
+            "GROUP BY u.id, u.balance HAVING u.balance <> COALESCE(SUM(e.amount), 0)")
+    List<BalanceDriftView> findBalanceDrift();
+
+    // 🩺 Snapshots that no longer match the entries they claim to cover (late commits)
+    @Query("SELECT s.userId AS userId, SUM(e.amount) AS total, s.lastEntryId AS lastEntryId, COUNT(e) AS entryCount " +
+            "FROM WalletBalanceSnapshot s JOIN WalletLedgerEntry e ON e.userId = s.userId AND e.id <= s.lastEntryId " +
+            "GROUP BY s.userId, s.balance, s.lastEntryId, s.entryCount " +
+            "HAVING s.balance <> SUM(e.amount) OR s.entryCount <> COUNT(e)")
+    List<LedgerTotalsView> findSnapshotDrift();
+
+    interface LedgerTailView {
+        BigDecimal getTail();
+        Long getCoveredEntries();
+    }
+
+    interface LedgerTotalsView {
+        Long getUserId();
+        BigDecimal getTotal();
+        Long getLastEntryId();
+        Long getEntryCount();
+    }
+
+    interface BalanceDriftView {
+        Long getUserId();
+        BigDecimal getStoredBalance();
+        BigDecimal getLedgerBalance();
+    }
+}
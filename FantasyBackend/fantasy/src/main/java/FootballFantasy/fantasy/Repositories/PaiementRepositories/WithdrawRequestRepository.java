@@ -1,6 +1,5 @@
 package FootballFantasy.fantasy.Repositories.PaiementRepositories;
 
-import FootballFantasy.fantasy.Entities.PaiementEntities.PaymentPlatform;
 import FootballFantasy.fantasy.Entities.PaiementEntities.PrefixedAmount;
 import FootballFantasy.fantasy.Entities.PaiementEntities.TransactionStatus;
 import FootballFantasy.fantasy.Entities.PaiementEntities.WithdrawRequestEntity;
@@ -8,10 +7,12 @@ import FootballFantasy.fantasy.Entities.UserEntities.UserEntity;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,12 +21,10 @@ public interface WithdrawRequestRepository extends JpaRepository<WithdrawRequest
     List<WithdrawRequestEntity> findByStatus(TransactionStatus status);
     List<WithdrawRequestEntity> findByPrefixedAmountAndStatus(PrefixedAmount amount, TransactionStatus status);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<WithdrawRequestEntity> findFirstByStatusAndReservedFalseAndPrefixedAmountAndPlatformOrderByCreatedAtAsc(
-            TransactionStatus status,
-            PrefixedAmount prefixedAmount,
-            PaymentPlatform platform
-    );
+    // 📗 Order book rebuild: available withdraws oldest first, and active reservations
+    List<WithdrawRequestEntity> findByStatusAndReservedFalseOrderByCreatedAtAsc(TransactionStatus status);
+
+    List<WithdrawRequestEntity> findByStatusAndReservedTrue(TransactionStatus status);
 
     List<WithdrawRequestEntity> findAllByReservedTrueAndReservedAtBeforeAndStatus(
             LocalDateTime before, TransactionStatus status
@@ -35,5 +34,22 @@ public interface WithdrawRequestRepository extends JpaRepository<WithdrawRequest
 
     boolean existsByReservedTrueAndReservedByKeycloakIdAndStatus(String keycloakId, TransactionStatus status);
 
+    // 🔒 Lock one withdraw row (deposit confirmation against reservation expiry)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM WithdrawRequestEntity w WHERE w.id = :id")
+    Optional<WithdrawRequestEntity> findByIdForUpdate(@Param("id") Long id);
 
+    // 🔒 Still-reserved withdraws among ids, locked until the release commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM WithdrawRequestEntity w WHERE w.id IN :ids AND w.reserved = true " +
+            "AND w.status = FootballFantasy.fantasy.Entities.PaiementEntities.TransactionStatus.RESERVED")
+    List<WithdrawRequestEntity> findReservedByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    // ⏰ Expired reservations back to the pool; rows confirmed meanwhile are left alone
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE WithdrawRequestEntity w SET w.reserved = false, w.reservedAt = null, w.reservedByKeycloakId = null, " +
+            "w.status = FootballFantasy.fantasy.Entities.PaiementEntities.TransactionStatus.PENDING " +
+            "WHERE w.id IN :ids AND w.reserved = true " +
+            "AND w.status = FootballFantasy.fantasy.Entities.PaiementEntities.TransactionStatus.RESERVED")
+    int releaseReservations(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
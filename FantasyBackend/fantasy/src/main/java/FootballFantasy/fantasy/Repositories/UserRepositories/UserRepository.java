@@ -1,9 +1,15 @@
 package FootballFantasy.fantasy.Repositories.UserRepositories;
 
 import FootballFantasy.fantasy.Entities.UserEntities.UserEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +21,92 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     boolean existsByEmail(String email);
     boolean existsByReferralCode(String referralCode);
 
+    // 🔒 Balance-sensitive paths: fresh row, locked until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM UserEntity u WHERE u.keycloakId = :keycloakId")
+    Optional<UserEntity> findByKeycloakIdForUpdate(@Param("keycloakId") String keycloakId);
+
+    // 💰 Atomic credit: safe when several settlements pay the same user concurrently
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserEntity u SET u.balance = u.balance + :amount WHERE u.id = :userId")
+    int incrementBalance(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    // 💸 Conditional debit: no row updated when the balance does not cover the amount
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserEntity u SET u.balance = u.balance - :amount WHERE u.id = :userId AND u.balance >= :amount")
+    int decrementBalance(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    // 💰 Withdrawable money credited (admin credits, refunds of withdrawable funds)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserEntity u SET u.balance = u.balance + :amount, " +
+            "u.withdrawableBalance = u.withdrawableBalance + :amount WHERE u.id = :userId")
+    int incrementWithdrawableBalance(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    // 💸 Conditional debit of withdrawable money
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserEntity u SET u.balance = u.balance - :amount, " +
+            "u.withdrawableBalance = u.withdrawableBalance - :amount " +
+            "WHERE u.id = :userId AND u.withdrawableBalance >= :amount")
+    int decrementWithdrawableBalance(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    // 🏧 Withdraw submitted: withdrawable money moves to pending withdrawals
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserEntity u SET u.balance = u.balance - :amount, " +
+            "u.withdrawableBalance = u.withdrawableBalance - :amount, " +
+            "u.pendingWithdrawals = u.pendingWithdrawals + :amount " +
+            "WHERE u.id = :userId AND u.withdrawableBalance >= :amount")
+    int reserveWithdrawal(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    // 🏧 Withdraw cancelled or its deposit rejected: pending money goes back
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserEntity u SET u.balance = u.balance + :amount, " +
+            "u.withdrawableBalance = u.withdrawableBalance + :amount, " +
+            "u.pendingWithdrawals = CASE WHEN u.pendingWithdrawals > :amount THEN u.pendingWithdrawals - :amount ELSE 0 END " +
+            "WHERE u.id = :userId")
+    int restoreWithdrawal(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    // 🏧 Withdraw paid out by a matched deposit
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserEntity u SET " +
+            "u.pendingWithdrawals = CASE WHEN u.pendingWithdrawals > :amount THEN u.pendingWithdrawals - :amount ELSE 0 END " +
+            "WHERE u.id = :userId")
+    int settleWithdrawal(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    // 🏦 Deposit approved: pending deposit becomes balance
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserEntity u SET u.balance = u.balance + :amount, " +
+            "u.pendingDeposits = CASE WHEN u.pendingDeposits > :amount THEN u.pendingDeposits - :amount ELSE 0 END " +
+            "WHERE u.id = :userId")
+    int settleDeposit(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    // 🏦 Deposit rejected
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserEntity u SET " +
+            "u.pendingDeposits = CASE WHEN u.pendingDeposits > :amount THEN u.pendingDeposits - :amount ELSE 0 END " +
+            "WHERE u.id = :userId")
+    int releasePendingDeposit(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    // 💰 Current balances without loading (or going through) the managed entity
+    @Query("SELECT u.balance FROM UserEntity u WHERE u.id = :userId")
+    Optional<BigDecimal> findBalanceById(@Param("userId") Long userId);
+
+    @Query("SELECT u.withdrawableBalance FROM UserEntity u WHERE u.id = :userId")
+    Optional<BigDecimal> findWithdrawableBalanceById(@Param("userId") Long userId);
+
+    // 🔒 Balance read under the row lock every balance update takes (ledger opening entries)
+    @Query(value = "SELECT balance FROM users WHERE id = :userId FOR UPDATE", nativeQuery = true)
+    Optional<BigDecimal> lockBalanceById(@Param("userId") Long userId);
+
+    // 🧹 Legacy rows created before the balance columns had defaults
+    @Modifying
+    @Query("UPDATE UserEntity u SET " +
+            "u.balance = COALESCE(u.balance, 0), " +
+            "u.withdrawableBalance = COALESCE(u.withdrawableBalance, 0), " +
+            "u.pendingWithdrawals = COALESCE(u.pendingWithdrawals, 0), " +
+            "u.pendingDeposits = COALESCE(u.pendingDeposits, 0), " +
+            "u.bonusBalance = COALESCE(u.bonusBalance, 0) " +
+            "WHERE u.balance IS NULL OR u.withdrawableBalance IS NULL OR u.pendingWithdrawals IS NULL " +
+            "OR u.pendingDeposits IS NULL OR u.bonusBalance IS NULL")
+    int backfillNullBalances();
+
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package FootballFantasy.fantasy.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Fires a handler for keys whose deadline passed (withdraw reservations, session join
+ * deadlines), instead of polling the database on a fixed rate.
+ *
+ * Deadlines wait in a DelayQueue served by one daemon thread that sleeps until the
+ * next one is due. Keys due together are handed over as one batch, so a handler can
+ * release them in a single transaction. Scheduling a key again replaces its deadline;
+ * cancelled entries are skipped when they come due. A batch whose handler throws is
+ * retried after {@code retryDelay}.
+ *
+ * Deadlines live in memory only: owners reschedule them from the database at startup.
+ */
+public final class DeadlineTimer<K> implements AutoCloseable {
+
+    private final String name;
+    private final int maxBatch;
+    private final Duration retryDelay;
+    private final Consumer<List<K>> onExpired;
+
+    private final DelayQueue<Entry<K>> queue = new DelayQueue<>();
+    // key -> its live entry; older entries of the key are stale
+    private final Map<K, Entry<K>> entries = new ConcurrentHashMap<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public DeadlineTimer(String name, int maxBatch, Duration retryDelay, Consumer<List<K>> onExpired) {
+        this.name = name;
+        this.maxBatch = maxBatch;
+        this.retryDelay = retryDelay;
+        this.onExpired = onExpired;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Fires {@code key} at {@code deadline} (right away when already past).
+     */
+    public void schedule(K key, LocalDateTime deadline) {
+        long delayNanos = Duration.between(LocalDateTime.now(), deadline).toNanos();
+        schedule(key, System.nanoTime() + Math.max(delayNanos, 0));
+    }
+
+    public void cancel(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+        queue.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void schedule(K key, long dueNanos) {
+        Entry<K> entry = new Entry<>(key, dueNanos);
+        entries.put(key, entry);
+        queue.put(entry);
+    }
+
+    private void run() {
+        while (running) {
+            List<Entry<K>> due = new ArrayList<>();
+            try {
+                due.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(due, maxBatch - 1);
+
+            List<K> batch = new ArrayList<>(due.size());
+            for (Entry<K> entry : due) {
+                if (entries.remove(entry.key, entry)) {
+                    batch.add(entry.key);
+                }
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            try {
+                onExpired.accept(batch);
+            } catch (Exception e) {
+                System.out.println("❌ " + name + ": handling " + batch.size() + " expired key(s) failed, retrying: " + e.getMessage());
+                long retryAt = System.nanoTime() + retryDelay.toNanos();
+                for (K key : batch) {
+                    // Unless rescheduled or cancelled meanwhile
+                    if (!entries.containsKey(key)) {
+                        schedule(key, retryAt);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Entry<K> implements Delayed {
+        private final K key;
+        private final long dueNanos;
+
+        Entry(K key, long dueNanos) {
+            this.key = key;
+            this.dueNanos = dueNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((Entry<?>) other).dueNanos);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package FootballFantasy.fantasy.Schedulers.GameweekSchedulers;
+
+import FootballFantasy.fantasy.Events.SessionCreatedEvent;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.CompetitionSessionRepository;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.CompetitionSessionRepository.SessionDeadlineView;
+import FootballFantasy.fantasy.Schedulers.DeadlineTimer;
+import FootballFantasy.fantasy.Services.GameweekService.CompetitionSessionService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Closes sessions at their join deadline: sessions left with fewer than two players
+ * are refunded and cancelled (see {@link CompetitionSessionService#closeExpiredSession}).
+ *
+ * Deadlines are indexed when a session is created and rebuilt from the open sessions at
+ * startup, so nothing polls the sessions table. Each deadline fires
+ * {@code sessions.deadline.grace-seconds} late, leaving joins that passed the deadline
+ * check just before it time to commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionDeadlineProcessor {
+
+    private static final int MAX_BATCH = 100;
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final CompetitionSessionRepository competitionSessionRepository;
+    private final CompetitionSessionService competitionSessionService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sessions.deadline.grace-seconds:5}")
+    private long graceSeconds;
+
+    private DeadlineTimer<Long> deadlines;
+
+    @PostConstruct
+    void init() {
+        deadlines = new DeadlineTimer<>("session-deadlines", MAX_BATCH, RETRY_DELAY, this::closeSessions);
+        Gauge.builder("sessions.deadline.pending", deadlines, DeadlineTimer::size)
+                .description("Open sessions waiting for their join deadline")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        deadlines.close();
+    }
+
+    // Only sessions that were actually committed get indexed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionCreated(SessionCreatedEvent event) {
+        schedule(event.getSessionId(), event.getJoinDeadline());
+    }
+
+    /**
+     * Indexes the deadlines of all open sessions; the ones already past close right away.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<SessionDeadlineView> open = competitionSessionRepository.findOpenSessionDeadlines();
+        open.forEach(s -> schedule(s.getSessionId(), s.getJoinDeadline()));
+        System.out.println("⏰ Session deadline index rebuilt: " + open.size() + " open session(s)");
+    }
+
+    private void schedule(Long sessionId, LocalDateTime joinDeadline) {
+        if (sessionId != null && joinDeadline != null) {
+            deadlines.schedule(sessionId, joinDeadline.plusSeconds(graceSeconds));
+        }
+    }
+
+    // One transaction per session, so a failing session never holds back the others
+    private void closeSessions(List<Long> sessionIds) {
+        for (Long sessionId : sessionIds) {
+            try {
+                // Not due yet (deadline moved, or fired early after a clock change): back in the index
+                competitionSessionService.closeExpiredSession(sessionId)
+                        .ifPresent(joinDeadline -> schedule(sessionId, joinDeadline));
+            } catch (Exception e) {
+                System.out.println("❌ Closing expired session " + sessionId + " failed, retrying: " + e.getMessage());
+                deadlines.schedule(sessionId, LocalDateTime.now().plus(RETRY_DELAY));
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package FootballFantasy.fantasy.Schedulers.GameweekSchedulers;
+
+import FootballFantasy.fantasy.Entities.GameweekEntities.CompetitionSession;
+import FootballFantasy.fantasy.Entities.GameweekEntities.GameWeek;
+import FootballFantasy.fantasy.Entities.GameweekEntities.SessionTemplate;
+import FootballFantasy.fantasy.Events.SessionPoolLowEvent;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.GameWeekRepository;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.SessionTemplateRepository;
+import FootballFantasy.fantasy.Services.GameweekService.CompetitionSessionService;
+import FootballFantasy.fantasy.Services.GameweekService.PublicSessionMatchmaker;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps a pool of open public sessions ready for every active public template and
+ * validated gameweek still accepting joins, so joiners take a seat instead of creating a
+ * session inside their own transaction. Until a pool was filled here (or with
+ * {@code sessions.pool.enabled=false}) joiners finding no seat open a session inline.
+ *
+ * Pools are topped up to {@code sessions.pool.target-open} on every tick, and right away
+ * when a join leaves a pool at or below {@code sessions.pool.low-watermark}.
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionPoolProvisioner {
+
+    private final GameWeekRepository gameWeekRepository;
+    private final SessionTemplateRepository sessionTemplateRepository;
+    private final CompetitionSessionService competitionSessionService;
+    private final PublicSessionMatchmaker publicSessionMatchmaker;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${sessions.pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sessions.pool.target-open:2}")
+    private int targetOpen;
+
+    // Pools currently queued for an immediate top-up
+    private final Set<String> queuedTopUps = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService topUpExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "session-pool");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PreDestroy
+    void shutdown() {
+        topUpExecutor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${sessions.pool.tick-ms:30000}", initialDelayString = "${sessions.pool.initial-delay-ms:15000}")
+    public void provisionAll() {
+        if (!enabled) {
+            return;
+        }
+
+        List<SessionTemplate> templates = sessionTemplateRepository.findByIsActiveTrue().stream()
+                .filter(t -> !Boolean.TRUE.equals(t.getIsPrivate()))
+                .toList();
+        if (templates.isEmpty()) {
+            return;
+        }
+
+        int created = 0;
+        for (GameWeek gameWeek : gameWeekRepository.findByJoinDeadlineAfterAndValidatedTrue(LocalDateTime.now())) {
+            for (SessionTemplate template : templates) {
+                if (template.getCompetition() == gameWeek.getCompetition()) {
+                    created += topUp(gameWeek.getId(), template.getId());
+                }
+            }
+        }
+        if (created > 0) {
+            System.out.println("🪑 Session pools topped up: " + created + " session(s) created");
+        }
+    }
+
+    // A join drained a pool: refill it now instead of waiting for the next tick
+    @EventListener
+    public void onPoolLow(SessionPoolLowEvent event) {
+        if (!enabled) {
+            return;
+        }
+        String key = event.getGameweekId() + ":" + event.getTemplateId();
+        if (!queuedTopUps.add(key)) {
+            return;
+        }
+        topUpExecutor.execute(() -> {
+            try {
+                topUp(event.getGameweekId(), event.getTemplateId());
+            } catch (Exception e) {
+                System.out.println("❌ Session pool top-up failed for " + key + ": " + e.getMessage());
+            } finally {
+                queuedTopUps.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Creates the sessions missing from one pool in a single transaction and offers
+     * their seats once committed. Serialized so the tick and event-driven top-ups never
+     * both fill the same pool.
+     */
+    private synchronized int topUp(Long gameweekId, Long templateId) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Integer created = tx.execute(status -> {
+            GameWeek gameWeek = gameWeekRepository.findById(gameweekId).orElse(null);
+            SessionTemplate template = sessionTemplateRepository.findById(templateId).orElse(null);
+            if (gameWeek == null || template == null || !Boolean.TRUE.equals(template.getIsActive())
+                    || !gameWeek.isValidated() || gameWeek.getJoinDeadline() == null
+                    || !gameWeek.getJoinDeadline().isAfter(LocalDateTime.now())) {
+                return 0;
+            }
+
+            int missing = targetOpen - publicSessionMatchmaker.openSessionCount(
+                    gameweekId, template.getCompetition(), template.getSessionType(), template.getBuyInAmount());
+            for (int i = 0; i < missing; i++) {
+                CompetitionSession session = competitionSessionService.createNewSessionFromTemplate(
+                        gameWeek, template, false, template.getCompetition());
+                publicSessionMatchmaker.registerOpenSession(session);
+            }
+            return Math.max(missing, 0);
+        });
+        return created != null ? created : 0;
+    }
+}
@@ -0,0 +1,136 @@
+package FootballFantasy.fantasy.Schedulers.MatchSchedulers;
+
+import FootballFantasy.fantasy.Entities.GameweekEntities.LeagueTheme;
+import FootballFantasy.fantasy.Entities.GameweekEntities.MatchStatus;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.MatchRepository;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.MatchRepository.KickoffView;
+import FootballFantasy.fantasy.Services.DataService.FixtureSnapshotService;
+import FootballFantasy.fantasy.Services.DataService.MatchUpdateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls the football API according to the kick-off calendar instead of a fixed cron:
+ * every minute for competitions with a match in play, hourly when a match is coming up
+ * within a day (or an old one is still unfinished), daily otherwise.
+ *
+ * Polls consume the per-minute API budget of {@link FixtureSnapshotService}; live
+ * competitions are served first and anything over budget waits for the next tick.
+ */
+@Component
+@RequiredArgsConstructor
+public class MatchPollingScheduler {
+
+    // A match is considered "in play" from kick-off until this long after it (extra time, delays)
+    private static final Duration IN_PLAY_WINDOW = Duration.ofHours(3);
+    private static final Duration UPCOMING_WINDOW = Duration.ofDays(1);
+    private static final Duration UNFINISHED_LOOKBACK = Duration.ofDays(2);
+
+    private final MatchRepository matchRepository;
+    private final MatchUpdateService matchUpdateService;
+    private final FixtureSnapshotService fixtureSnapshotService;
+
+    @Value("${football.polling.enabled:true}")
+    private boolean enabled;
+
+    @Value("${football.polling.live-interval-seconds:60}")
+    private long liveIntervalSeconds;
+
+    @Value("${football.polling.upcoming-interval-minutes:60}")
+    private long upcomingIntervalMinutes;
+
+    @Value("${football.polling.idle-interval-hours:24}")
+    private long idleIntervalHours;
+
+    private final Map<LeagueTheme, Instant> lastPolled = new ConcurrentHashMap<>();
+
+    enum PollMode { LIVE, UPCOMING, IDLE }
+
+    @Scheduled(fixedDelayString = "${football.polling.tick-ms:60000}", initialDelayString = "${football.polling.initial-delay-ms:30000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        Map<LeagueTheme, PollMode> modes = classifyCompetitions(LocalDateTime.now(ZoneOffset.UTC));
+
+        // Live competitions first, so the budget goes to results that settle sessions
+        List<LeagueTheme> due = modes.entrySet().stream()
+                .filter(e -> isDue(e.getKey(), e.getValue(), now))
+                .sorted(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .toList();
+
+        for (LeagueTheme league : due) {
+            if (!fixtureSnapshotService.hasBudget()) {
+                System.out.println("⏳ API budget exhausted, deferring " + league + " to next tick");
+                break;
+            }
+            lastPolled.put(league, now);
+            try {
+                int updated = matchUpdateService.pollCompetition(league);
+                System.out.println("⏱️ Polled " + league + " (" + modes.get(league) + "): " + updated + " gameweek(s) updated");
+            } catch (Exception e) {
+                System.out.println("❌ Polling failed for " + league + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // ======== Calendar ========
+
+    private Map<LeagueTheme, PollMode> classifyCompetitions(LocalDateTime nowUtc) {
+        Map<LeagueTheme, PollMode> modes = new EnumMap<>(LeagueTheme.class);
+        for (LeagueTheme league : LeagueTheme.values()) {
+            if (league.isApiAvailable()) {
+                modes.put(league, PollMode.IDLE);
+            }
+        }
+
+        List<KickoffView> kickoffs = matchRepository.findKickoffsBetween(
+                nowUtc.minus(UNFINISHED_LOOKBACK), nowUtc.plus(UPCOMING_WINDOW));
+
+        for (KickoffView kickoff : kickoffs) {
+            if (!modes.containsKey(kickoff.getCompetition())) continue;
+            PollMode mode = modeOf(kickoff, nowUtc);
+            modes.merge(kickoff.getCompetition(), mode, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+        }
+        return modes;
+    }
+
+    private PollMode modeOf(KickoffView kickoff, LocalDateTime nowUtc) {
+        if (Boolean.TRUE.equals(kickoff.getFinished()) || kickoff.getMatchDate() == null) {
+            return PollMode.IDLE;
+        }
+        boolean kickedOff = !kickoff.getMatchDate().isAfter(nowUtc);
+        boolean inPlayWindow = kickedOff && kickoff.getMatchDate().plus(IN_PLAY_WINDOW).isAfter(nowUtc);
+
+        if (kickoff.getStatus() == MatchStatus.LIVE || inPlayWindow) {
+            return PollMode.LIVE;
+        }
+        // Upcoming within a day, or kicked off long ago but still not reported finished
+        return PollMode.UPCOMING;
+    }
+
+    private boolean isDue(LeagueTheme league, PollMode mode, Instant now) {
+        Instant last = lastPolled.get(league);
+        if (last == null) {
+            return true;
+        }
+        Duration interval = switch (mode) {
+            case LIVE -> Duration.ofSeconds(liveIntervalSeconds);
+            case UPCOMING -> Duration.ofMinutes(upcomingIntervalMinutes);
+            case IDLE -> Duration.ofHours(idleIntervalHours);
+        };
+        return !last.plus(interval).isAfter(now);
+    }
+}
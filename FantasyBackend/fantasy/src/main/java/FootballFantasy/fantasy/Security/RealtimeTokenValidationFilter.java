@@ -1,8 +1,18 @@
 package FootballFantasy.fantasy.Security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -14,7 +24,13 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
+import java.util.HexFormat;
 import java.util.Map;
 
 @Component
@@ -32,8 +48,63 @@ public class RealtimeTokenValidationFilter extends OncePerRequestFilter {
     @Value("${keycloak.backend.client-secret}")
     private String backendClientSecret;
 
+    @Value("${keycloak.introspection.cache.max-size:50000}")
+    private long cacheMaxSize;
+
+    @Value("${keycloak.introspection.cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    @Value("${keycloak.introspection.cache.negative-ttl-seconds:5}")
+    private long negativeTtlSeconds;
+
+    // "introspect": ask Keycloak (cached) on every request
+    // "push": trust the locally verified JWT and check the pushed revocation set
+    @Value("${keycloak.revocation.mode:introspect}")
+    private String revocationMode;
+
     private final RestTemplate restTemplate = new RestTemplate();
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MeterRegistry meterRegistry;
+    private final SessionRevocationRegistry revocationRegistry;
+
+    // Keyed by SHA-256 of the token so raw bearer tokens never sit in the heap cache
+    private Cache<String, IntrospectionResult> introspectionCache;
+    private String introspectUrl;
+    private String basicAuthHeader;
+
+    private Counter cacheHits;
+    private Counter cacheMisses;
+    private Timer introspectionTimer;
+
+    public RealtimeTokenValidationFilter(MeterRegistry meterRegistry,
+                                         SessionRevocationRegistry revocationRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.revocationRegistry = revocationRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        introspectUrl = keycloakUrl + "/realms/" + realm + "/protocol/openid-connect/token/introspect";
+
+        String credentials = backendClientId + ":" + backendClientSecret;
+        basicAuthHeader = "Basic " + Base64.getEncoder()
+                .encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+
+        introspectionCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new IntrospectionExpiry())
+                .build();
+
+        cacheHits = Counter.builder("keycloak.introspection.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        cacheMisses = Counter.builder("keycloak.introspection.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        introspectionTimer = Timer.builder("keycloak.introspection.latency")
+                .description("Round-trip time of Keycloak token introspection calls")
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -73,16 +144,42 @@ public class RealtimeTokenValidationFilter extends OncePerRequestFilter {
     }
 
     private boolean isTokenValid(String token) {
-        try {
-            String introspectUrl = keycloakUrl + "/realms/" + realm + "/protocol/openid-connect/token/introspect";
+        if ("push".equalsIgnoreCase(revocationMode)) {
+            // The resource server filter chain runs before this filter and has already
+            // verified the JWT signature; only the session revocation is left to check.
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.getPrincipal() instanceof Jwt jwt
+                    && token.equals(jwt.getTokenValue())) {
+                String sessionId = jwt.getClaimAsString("sid");
+                if (sessionId != null) {
+                    return !revocationRegistry.isRevoked(sessionId);
+                }
+            }
+            // No verified JWT or no sid claim: fall back to introspection
+        }
+        return isTokenActive(token);
+    }
+
+    private boolean isTokenActive(String token) {
+        String key = hashToken(token);
+
+        IntrospectionResult cached = introspectionCache.getIfPresent(key);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached.active();
+        }
+
+        // Caffeine runs the loader at most once per key: concurrent requests
+        // carrying the same token wait for the in-flight introspection.
+        cacheMisses.increment();
+        return introspectionCache.get(key, k -> introspectionTimer.record(() -> introspect(token))).active();
+    }
 
+    private IntrospectionResult introspect(String token) {
+        try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-
-            // Use backend client credentials for introspection
-            String credentials = backendClientId + ":" + backendClientSecret;
-            String encodedCredentials = Base64.getEncoder().encodeToString(credentials.getBytes());
-            headers.set("Authorization", "Basic " + encodedCredentials);
+            headers.set("Authorization", basicAuthHeader);
 
             MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
             body.add("token", token);
@@ -93,13 +190,62 @@ public class RealtimeTokenValidationFilter extends OncePerRequestFilter {
 
             if (response.getStatusCode() == HttpStatus.OK) {
                 Map<String, Object> introspectionResult = objectMapper.readValue(response.getBody(), Map.class);
-                return Boolean.TRUE.equals(introspectionResult.get("active"));
+                boolean active = Boolean.TRUE.equals(introspectionResult.get("active"));
+                Instant exp = introspectionResult.get("exp") instanceof Number n
+                        ? Instant.ofEpochSecond(n.longValue())
+                        : null;
+                return new IntrospectionResult(active, exp);
             }
 
-            return false;
+            return IntrospectionResult.INACTIVE;
         } catch (Exception e) {
             logger.error("Token validation failed", e);
-            return false;
+            return IntrospectionResult.INACTIVE;
+        }
+    }
+
+    private static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record IntrospectionResult(boolean active, Instant expiresAt) {
+        static final IntrospectionResult INACTIVE = new IntrospectionResult(false, null);
+    }
+
+    /**
+     * Active tokens are kept for the configured TTL but never past their own {@code exp};
+     * inactive results (and failed calls) only get the short negative TTL.
+     */
+    private class IntrospectionExpiry implements Expiry<String, IntrospectionResult> {
+
+        @Override
+        public long expireAfterCreate(String key, IntrospectionResult value, long currentTime) {
+            if (!value.active()) {
+                return Duration.ofSeconds(negativeTtlSeconds).toNanos();
+            }
+            Duration ttl = Duration.ofSeconds(cacheTtlSeconds);
+            if (value.expiresAt() != null) {
+                Duration untilExp = Duration.between(Instant.now(), value.expiresAt());
+                if (untilExp.compareTo(ttl) < 0) {
+                    ttl = untilExp.isNegative() ? Duration.ZERO : untilExp;
+                }
+            }
+            return ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, IntrospectionResult value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, IntrospectionResult value, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
-}
\ No newline at end of file
+}
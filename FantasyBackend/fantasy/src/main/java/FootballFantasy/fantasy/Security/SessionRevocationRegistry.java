@@ -0,0 +1,53 @@
+package FootballFantasy.fantasy.Security;
+
+import FootballFantasy.fantasy.Dto.SessionRevocationEventDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * In-memory set of Keycloak user sessions that were killed by the one-session plugin.
+ * Entries only need to outlive the access tokens issued for the session, so they are
+ * dropped after {@code keycloak.revocation.retention-seconds}.
+ */
+@Component
+@Slf4j
+public class SessionRevocationRegistry {
+
+    private final Cache<String, Instant> revokedSessions;
+    private final Counter revocationsReceived;
+
+    public SessionRevocationRegistry(
+            @Value("${keycloak.revocation.retention-seconds:3600}") long retentionSeconds,
+            @Value("${keycloak.revocation.max-size:100000}") long maxSize,
+            MeterRegistry meterRegistry) {
+        this.revokedSessions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(retentionSeconds))
+                .maximumSize(maxSize)
+                .build();
+        this.revocationsReceived = Counter.builder("keycloak.revocation.events")
+                .register(meterRegistry);
+        meterRegistry.gauge("keycloak.revocation.size", revokedSessions, c -> c.estimatedSize());
+    }
+
+    public void revoke(SessionRevocationEventDTO event) {
+        if (event.sessionId() == null || event.sessionId().isBlank()) {
+            return;
+        }
+        Instant revokedAt = event.revokedAt() != null ? event.revokedAt() : Instant.now();
+        revokedSessions.put(event.sessionId(), revokedAt);
+        revocationsReceived.increment();
+        log.info("🔒 Session {} of user {} revoked", event.sessionId(), event.userId());
+    }
+
+    public boolean isRevoked(String sessionId) {
+        return sessionId != null && revokedSessions.getIfPresent(sessionId) != null;
+    }
+}
@@ -0,0 +1,208 @@
+package FootballFantasy.fantasy.Services.DataService;
+
+import FootballFantasy.fantasy.Dto.FixtureDTO;
+import FootballFantasy.fantasy.Entities.GameweekEntities.LeagueTheme;
+import FootballFantasy.fantasy.Exceptions.BusinessLogicException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the latest parsed fixture list of each competition so every update path reads
+ * from one fetch per cycle instead of calling the football API again.
+ *
+ * Refreshes are conditional (If-None-Match / If-Modified-Since): when the API answers
+ * 304 the previous snapshot is kept and only its fetch time moves forward.
+ *
+ * Every API call goes through {@link #refresh}, which spends a per-minute budget shared by
+ * the polling scheduler and the admin/manual update endpoints. Over budget, the previous
+ * snapshot is served as is.
+ */
+@Service
+public class FixtureSnapshotService {
+
+    @Value("${football.api.key}")
+    private String apiKey;
+
+    @Value("${football.api.url-template}")
+    private String apiUrlTemplate;
+
+    @Value("${football.api.season:2025}")
+    private int season;
+
+    // Snapshots younger than this are served without contacting the API
+    @Value("${football.api.snapshot.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @Value("${football.api.rate-budget-per-minute:10}")
+    private int rateBudgetPerMinute;
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final Map<LeagueTheme, FixtureSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<LeagueTheme, Object> refreshLocks = new ConcurrentHashMap<>();
+    private final Deque<Instant> recentCalls = new ArrayDeque<>();
+
+    /**
+     * Current snapshot of the competition, refreshed first if it is older than the max age.
+     */
+    public FixtureSnapshot snapshot(LeagueTheme league) {
+        FixtureSnapshot current = snapshots.get(league);
+        if (current != null && current.isYoungerThan(Duration.ofSeconds(maxAgeSeconds))) {
+            return current;
+        }
+        return refresh(league);
+    }
+
+    /**
+     * Conditionally refetches the competition feed. Concurrent callers for the same
+     * competition share a single request. When the API budget is spent the previous
+     * snapshot is returned unchanged, or API_BUDGET_EXHAUSTED is thrown if there is none.
+     */
+    public FixtureSnapshot refresh(LeagueTheme league) {
+        Object lock = refreshLocks.computeIfAbsent(league, l -> new Object());
+        synchronized (lock) {
+            FixtureSnapshot previous = snapshots.get(league);
+            // Another thread refreshed while we waited for the lock
+            if (previous != null && previous.isYoungerThan(Duration.ofSeconds(1))) {
+                return previous;
+            }
+
+            if (!tryAcquireBudget(Instant.now())) {
+                if (previous == null) {
+                    throw new BusinessLogicException(
+                            "Football API budget exhausted, no fixtures cached for " + league, "API_BUDGET_EXHAUSTED");
+                }
+                System.out.println("⏳ API budget exhausted, serving cached fixtures for " + league);
+                return previous;
+            }
+
+            FixtureSnapshot fresh = fetch(league, previous);
+            snapshots.put(league, fresh);
+            return fresh;
+        }
+    }
+
+    public void evict(LeagueTheme league) {
+        snapshots.remove(league);
+    }
+
+    /**
+     * Whether a refresh right now would reach the API (it may still lose the last call to a concurrent caller).
+     */
+    public synchronized boolean hasBudget() {
+        evictOutsideWindow(Instant.now());
+        return recentCalls.size() < rateBudgetPerMinute;
+    }
+
+    // ======== Rate budget (sliding one-minute window) ========
+
+    private synchronized boolean tryAcquireBudget(Instant now) {
+        evictOutsideWindow(now);
+        if (recentCalls.size() >= rateBudgetPerMinute) {
+            return false;
+        }
+        recentCalls.addLast(now);
+        return true;
+    }
+
+    private void evictOutsideWindow(Instant now) {
+        Instant windowStart = now.minus(Duration.ofMinutes(1));
+        while (!recentCalls.isEmpty() && recentCalls.peekFirst().isBefore(windowStart)) {
+            recentCalls.pollFirst();
+        }
+    }
+
+    // ======== API access ========
+
+    @SuppressWarnings("unchecked")
+    private FixtureSnapshot fetch(LeagueTheme league, FixtureSnapshot previous) {
+        String apiUrl = apiUrlTemplate
+                .replace("{competition}", league.getApiCode())
+                .replace("{season}", String.valueOf(season));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Auth-Token", apiKey);
+        if (previous != null) {
+            if (previous.etag() != null) {
+                headers.setIfNoneMatch(previous.etag());
+            }
+            if (previous.lastModified() > 0) {
+                headers.setIfModifiedSince(previous.lastModified());
+            }
+        }
+
+        ResponseEntity<Map> response = restTemplate.exchange(apiUrl, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && previous != null) {
+            System.out.println("📦 Fixtures unchanged for " + league + " (304)");
+            return previous.touched();
+        }
+
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            throw new RuntimeException("API call failed for " + league + " - Status: " + response.getStatusCode());
+        }
+
+        List<Map<String, Object>> matches = (List<Map<String, Object>>) response.getBody().get("matches");
+        List<FixtureDTO> fixtures = matches == null ? List.of() : matches.stream()
+                .map(FixtureDTO::fromApi)
+                .toList();
+
+        System.out.println("📥 " + fixtures.size() + " fixtures fetched for " + league);
+        return new FixtureSnapshot(league, fixtures,
+                response.getHeaders().getETag(),
+                response.getHeaders().getLastModified(),
+                Instant.now());
+    }
+
+    // ======== Snapshot model ========
+
+    public record FixtureSnapshot(
+            LeagueTheme league,
+            List<FixtureDTO> fixtures,
+            String etag,
+            long lastModified,   // epoch millis, -1 if the API did not send it
+            Instant fetchedAt
+    ) {
+
+        boolean isYoungerThan(Duration maxAge) {
+            return fetchedAt.plus(maxAge).isAfter(Instant.now());
+        }
+
+        FixtureSnapshot touched() {
+            return new FixtureSnapshot(league, fixtures, etag, lastModified, Instant.now());
+        }
+
+        public boolean isEmpty() {
+            return fixtures.isEmpty();
+        }
+
+        public List<FixtureDTO> forMatchday(int matchday) {
+            return fixtures.stream()
+                    .filter(f -> Objects.equals(f.matchday(), matchday))
+                    .toList();
+        }
+
+        public Set<Integer> matchdaysPlayedOn(LocalDate date) {
+            return matchdaysPlayedBetween(date, date);
+        }
+
+        public Set<Integer> matchdaysPlayedBetween(LocalDate from, LocalDate to) {
+            Set<Integer> matchdays = new HashSet<>();
+            for (FixtureDTO fixture : fixtures) {
+                if (fixture.utcDate() == null || fixture.matchday() == null) continue;
+                LocalDate day = fixture.utcDate().toLocalDate();
+                if (!day.isBefore(from) && !day.isAfter(to)) {
+                    matchdays.add(fixture.matchday());
+                }
+            }
+            return matchdays;
+        }
+    }
+}
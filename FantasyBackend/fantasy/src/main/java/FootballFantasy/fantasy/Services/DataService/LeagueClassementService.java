@@ -1,9 +1,14 @@
 package FootballFantasy.fantasy.Services.DataService;
 
 import FootballFantasy.fantasy.Entities.GameweekEntities.*;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.LeagueStandingRepository;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.LeagueStandingRepository.StandingView;
 import FootballFantasy.fantasy.Repositories.GameweekRepositories.MatchRepository;
-import FootballFantasy.fantasy.Repositories.GameweekRepositories.GameWeekRepository;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.StandingContributionRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -16,51 +21,137 @@ public class LeagueClassementService {
     private MatchRepository matchRepository;
 
     @Autowired
-    private GameWeekRepository gameWeekRepository;
+    private LeagueStandingRepository leagueStandingRepository;
 
     @Autowired
-    private MatchUpdateService matchUpdateService;
+    private StandingContributionRepository standingContributionRepository;
+
+    @Autowired
+    private TeamNameNormalizer teamNameNormalizer;
 
     // Get league table for a given competition up to a given gameweek
     public List<TeamStanding> getClassement(String competition, int gameweekNumber) {
-        // 1️⃣ Find all GameWeeks up to the requested week
-        List<GameWeek> pastWeeks = gameWeekRepository
-                .findByCompetitionAndWeekNumberLessThanEqual(
-                        LeagueTheme.valueOf(competition),
-                        gameweekNumber
-                );
-
-        if (pastWeeks.isEmpty()) return Collections.emptyList();
-
-        // 2️⃣ Aggregate matches from all these weeks
-        List<Match> matches = new ArrayList<>();
-        for (GameWeek gw : pastWeeks) {
-            matches.addAll(matchRepository.findByGameweeksId(gw.getId()));
+        // Single aggregate read over the materialized per-gameweek rows
+        return leagueStandingRepository
+                .findTableUpToWeek(LeagueTheme.valueOf(competition), gameweekNumber)
+                .stream()
+                .map(TeamStanding::new)
+                .collect(Collectors.toList());
+    }
+
+    // ======== Incremental maintenance ========
+
+    /**
+     * Brings the standings in line with the current result of one match: results that
+     * changed (corrected score, new gameweek link, deleted match) are reversed first,
+     * then the new result is applied. A no-op when nothing changed.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void applyMatchResult(Long matchId) {
+        if (matchId == null) return;
+
+        // Match row first: concurrent updates of this match run one after the other, even
+        // before it has any contribution to lock
+        Optional<Match> match = matchRepository.findByIdForUpdate(matchId);
+        Map<Long, StandingContribution> applied = standingContributionRepository.findByMatchId(matchId).stream()
+                .collect(Collectors.toMap(StandingContribution::getGameweekId, c -> c));
+        List<StandingContribution> desired = match
+                .map(this::contributionsOf)
+                .orElse(List.of());
+
+        for (StandingContribution target : desired) {
+            StandingContribution current = applied.remove(target.getGameweekId());
+            if (current == null) {
+                applyToRows(target, 1);
+                standingContributionRepository.save(target);
+            } else if (!current.sameResult(target)) {
+                applyToRows(current, -1);
+                applyToRows(target, 1);
+                target.setId(current.getId());
+                standingContributionRepository.save(target);
+            }
         }
 
-        // 3️⃣ Aggregate standings
-        Map<String, TeamStanding> standingsMap = new HashMap<>();
+        // Result removed (score cleared, unlinked from a gameweek, match deleted)
+        for (StandingContribution stale : applied.values()) {
+            applyToRows(stale, -1);
+            standingContributionRepository.delete(stale);
+        }
+    }
 
-        for (Match m : matches) {
-            if (m.getHomeScore() == null || m.getAwayScore() == null) continue; // skip unfinished
+    /**
+     * Recomputes the whole table from stored match results.
+     */
+    @Transactional
+    public void rebuildStandings() {
+        standingContributionRepository.deleteAllRows();
+        leagueStandingRepository.deleteAllRows();
+
+        Map<String, LeagueStanding> rows = new HashMap<>();
+        List<StandingContribution> contributions = new ArrayList<>();
+        for (Match match : matchRepository.findAllWithScoreAndGameweeks()) {
+            for (StandingContribution c : contributionsOf(match)) {
+                row(rows, c.getCompetition(), c.getWeekNumber(), c.getHomeTeam()).addResult(c.getHomeScore(), c.getAwayScore(), 1);
+                row(rows, c.getCompetition(), c.getWeekNumber(), c.getAwayTeam()).addResult(c.getAwayScore(), c.getHomeScore(), 1);
+                contributions.add(c);
+            }
+        }
 
-            String homeTeam = matchUpdateService.normalizeTeamName(m.getHomeTeam());
-            String awayTeam = matchUpdateService.normalizeTeamName(m.getAwayTeam());
+        leagueStandingRepository.saveAll(rows.values());
+        standingContributionRepository.saveAll(contributions);
+        System.out.println("📊 Standings rebuilt: " + rows.size() + " rows from " + contributions.size() + " results");
+    }
+
+    // First start after the standings table was introduced
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void buildStandingsIfMissing() {
+        if (standingContributionRepository.count() == 0) {
+            rebuildStandings();
+        }
+    }
 
-            standingsMap.putIfAbsent(homeTeam, new TeamStanding(homeTeam));
-            standingsMap.putIfAbsent(awayTeam, new TeamStanding(awayTeam));
+    private List<StandingContribution> contributionsOf(Match match) {
+        if (match.getHomeScore() == null || match.getAwayScore() == null) {
+            return List.of(); // skip unfinished
+        }
+        String homeTeam = teamNameNormalizer.normalize(match.getHomeTeam());
+        String awayTeam = teamNameNormalizer.normalize(match.getAwayTeam());
 
-            standingsMap.get(homeTeam).addMatch(m.getHomeScore(), m.getAwayScore());
-            standingsMap.get(awayTeam).addMatch(m.getAwayScore(), m.getHomeScore());
+        List<StandingContribution> contributions = new ArrayList<>();
+        for (GameWeek gw : match.getGameweeks()) {
+            contributions.add(new StandingContribution(null, match.getId(), gw.getId(), gw.getCompetition(),
+                    gw.getWeekNumber(), homeTeam, awayTeam, match.getHomeScore(), match.getAwayScore()));
         }
+        return contributions;
+    }
 
-        return standingsMap.values().stream()
-                .sorted(
-                        Comparator.comparing(TeamStanding::getPoints).reversed()
-                                .thenComparing(Comparator.comparing(TeamStanding::getGoalDifference).reversed())
-                                .thenComparing(Comparator.comparing(TeamStanding::getGoalsFor).reversed())
-                )
-                .collect(Collectors.toList());
+    private void applyToRows(StandingContribution c, int sign) {
+        LeagueStanding home = lockedRow(c.getCompetition(), c.getWeekNumber(), c.getHomeTeam());
+        home.addResult(c.getHomeScore(), c.getAwayScore(), sign);
+        leagueStandingRepository.save(home);
+
+        LeagueStanding away = lockedRow(c.getCompetition(), c.getWeekNumber(), c.getAwayTeam());
+        away.addResult(c.getAwayScore(), c.getHomeScore(), sign);
+        leagueStandingRepository.save(away);
+    }
+
+    private LeagueStanding lockedRow(LeagueTheme competition, int weekNumber, String teamName) {
+        return leagueStandingRepository.findForUpdate(competition, weekNumber, teamName)
+                .orElseGet(() -> newRow(competition, weekNumber, teamName));
+    }
+
+    private LeagueStanding row(Map<String, LeagueStanding> rows, LeagueTheme competition, int weekNumber, String teamName) {
+        return rows.computeIfAbsent(competition + "|" + weekNumber + "|" + teamName,
+                key -> newRow(competition, weekNumber, teamName));
+    }
+
+    private LeagueStanding newRow(LeagueTheme competition, int weekNumber, String teamName) {
+        LeagueStanding row = new LeagueStanding();
+        row.setCompetition(competition);
+        row.setWeekNumber(weekNumber);
+        row.setTeamName(teamName);
+        return row;
     }
 
     // DTO for standings
@@ -75,13 +166,14 @@ public class LeagueClassementService {
 
         public TeamStanding(String teamName) { this.teamName = teamName; }
 
-        public void addMatch(int scored, int conceded) {
-            played++;
-            goalsFor += scored;
-            goalsAgainst += conceded;
-            if (scored > conceded) won++;
-            else if (scored == conceded) draw++;
-            else lost++;
+        TeamStanding(StandingView view) {
+            this.teamName = view.getTeamName();
+            this.played = view.getPlayed().intValue();
+            this.won = view.getWon().intValue();
+            this.draw = view.getDraw().intValue();
+            this.lost = view.getLost().intValue();
+            this.goalsFor = view.getGoalsFor().intValue();
+            this.goalsAgainst = view.getGoalsAgainst().intValue();
         }
 
         public int getPoints() { return won * 3 + draw; }
@@ -1,24 +1,28 @@
 package FootballFantasy.fantasy.Services.DataService;
 
+import FootballFantasy.fantasy.Dto.FixtureDTO;
 import FootballFantasy.fantasy.Entities.GameweekEntities.*;
+import FootballFantasy.fantasy.Events.MatchCompletedEvent;
+import FootballFantasy.fantasy.Events.MatchRescheduledEvent;
 import FootballFantasy.fantasy.Repositories.GameweekRepositories.GameWeekRepository;
 import FootballFantasy.fantasy.Repositories.GameweekRepositories.MatchRepository;
 import FootballFantasy.fantasy.Services.GameweekService.CompetitionSessionService;
+import FootballFantasy.fantasy.Services.GameweekService.GameweekSettlementService;
+import FootballFantasy.fantasy.Services.DataService.FixtureSnapshotService.FixtureSnapshot;
 import FootballFantasy.fantasy.Services.GameweekService.PredictionService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.text.Normalizer;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,18 +40,45 @@ public class MatchUpdateService {
     @Autowired
     private CompetitionSessionService competitionSessionService;
 
-    @Value("${football.api.key}")
-    private String apiKey;
+    @Autowired
+    private GameweekSettlementService gameweekSettlementService;
+
+    @Autowired
+    private FixtureSnapshotService fixtureSnapshotService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TeamNameNormalizer teamNameNormalizer;
 
-    @Value("${football.api.url-template}")
-    private String apiUrlTemplate;
+    // football-data match id -> content hash of the last committed poll
+    private final Map<Long, Integer> appliedFixtureHashes = new ConcurrentHashMap<>();
 
-    // ✅ Automatic update every 2 hours
-    @Scheduled(cron = "0 0 */2 * * *")
-    public void updateMatchesAutomatically() {
-        System.out.println("⏰ AUTOMATIC UPDATE: Updating today's matches...");
-        updateTodaysMatches();
-        System.out.println("⏰ AUTOMATIC UPDATE: Completed");
+    // ✅ Automatic updates are driven by MatchPollingScheduler (kick-off calendar + API rate budget)
+
+    /**
+     * Polls one competition: a single conditional fetch, then an update of every gameweek
+     * with matches since yesterday (so late-night matches finishing after midnight are caught).
+     * Returns the number of gameweeks updated.
+     */
+    @Transactional
+    public int pollCompetition(LeagueTheme league) {
+        FixtureSnapshot snapshot = fixtureSnapshotService.refresh(league);
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        Set<Integer> recentMatchdays = snapshot.matchdaysPlayedBetween(today.minusDays(1), today);
+
+        int updated = 0;
+        for (Integer weekNumber : recentMatchdays) {
+            try {
+                updateMatchesForGameweek(league, weekNumber, snapshot);
+                updated++;
+            } catch (Exception e) {
+                System.out.println("❌ Error updating " + league + " week " + weekNumber + ": " + e.getMessage());
+            }
+        }
+        return updated;
     }
 
     // ✅ Simplified method for today's matches - removes complex timing checks
@@ -66,8 +97,11 @@ public class MatchUpdateService {
                     continue;
                 }
 
+                // One (conditional) fetch per league per cycle, shared by every gameweek below
+                FixtureSnapshot snapshot = fixtureSnapshotService.refresh(league);
+
                 // Find which gameweeks have matches today for this league
-                Set<Integer> gameweeksWithTodaysMatches = findGameweeksWithMatchesToday(league, today);
+                Set<Integer> gameweeksWithTodaysMatches = snapshot.matchdaysPlayedOn(today);
 
                 if (gameweeksWithTodaysMatches.isEmpty()) {
                     System.out.println("📅 No matches today for " + league);
@@ -80,7 +114,7 @@ public class MatchUpdateService {
                 for (Integer weekNumber : gameweeksWithTodaysMatches) {
                     try {
                         System.out.println("🔄 Updating " + league + " gameweek " + weekNumber);
-                        updateMatchesForGameweek(league.name(), weekNumber);
+                        updateMatchesForGameweek(league, weekNumber, snapshot);
                         totalUpdated++;
                     } catch (Exception e) {
                         System.out.println("❌ Error updating " + league + " week " + weekNumber + ": " + e.getMessage());
@@ -95,55 +129,6 @@ public class MatchUpdateService {
         System.out.println("📊 TODAY's matches update complete - Updated " + totalUpdated + " gameweeks");
     }
 
-    // ✅ Helper method to find which gameweeks have matches today
-    private Set<Integer> findGameweeksWithMatchesToday(LeagueTheme league, LocalDate targetDate) {
-        try {
-            // Fetch all matches from API (same as your existing method)
-            String apiUrl = apiUrlTemplate
-                    .replace("{competition}", league.getApiCode())
-                    .replace("{season}", "2025");
-
-            RestTemplate restTemplate = new RestTemplate();
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("X-Auth-Token", apiKey);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Map> response = restTemplate.exchange(apiUrl, HttpMethod.GET, entity, Map.class);
-
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-                System.out.println("⚠️ API call failed for " + league);
-                return new HashSet<>();
-            }
-
-            List<Map<String, Object>> matches = (List<Map<String, Object>>) response.getBody().get("matches");
-            if (matches == null || matches.isEmpty()) {
-                return new HashSet<>();
-            }
-
-            // Find gameweeks that have matches today
-            Set<Integer> gameweeksWithTodaysMatches = new HashSet<>();
-
-            for (Map<String, Object> match : matches) {
-                String dateStr = (String) match.get("utcDate");
-                Integer matchday = (Integer) match.get("matchday");
-
-                if (dateStr == null || matchday == null) continue;
-
-                LocalDate matchDate = OffsetDateTime.parse(dateStr).toLocalDate();
-
-                if (matchDate.equals(targetDate)) {
-                    gameweeksWithTodaysMatches.add(matchday);
-                }
-            }
-
-            return gameweeksWithTodaysMatches;
-
-        } catch (Exception e) {
-            System.out.println("❌ Error finding today's gameweeks for " + league + ": " + e.getMessage());
-            return new HashSet<>();
-        }
-    }
-
     // ✅ New streamlined method that processes matches for a specific gameweek
     @Transactional
     public void updateMatchesForGameweek(String competition, int weekNumber) {
@@ -156,33 +141,24 @@ public class MatchUpdateService {
                 throw new IllegalArgumentException("Invalid competition: " + competition);
             }
 
-            String apiUrl = apiUrlTemplate
-                    .replace("{competition}", league.getApiCode())
-                    .replace("{season}", "2025");
+            updateMatchesForGameweek(league, weekNumber, fixtureSnapshotService.snapshot(league));
 
-            System.out.println("🔍 API URL: " + apiUrl);
-
-            RestTemplate restTemplate = new RestTemplate();
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("X-Auth-Token", apiKey);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Map> response = restTemplate.exchange(apiUrl, HttpMethod.GET, entity, Map.class);
-
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-                throw new RuntimeException("API call failed for " + league + " with status: " + response.getStatusCode());
-            }
+        } catch (Exception e) {
+            System.out.println("❌ Error updating " + competition + " week " + weekNumber + ": " + e.getMessage());
+            e.printStackTrace();
+            throw new RuntimeException("Failed to update matches for " + competition + " week " + weekNumber, e);
+        }
+    }
 
-            List<Map<String, Object>> matches = (List<Map<String, Object>>) response.getBody().get("matches");
-            if (matches == null || matches.isEmpty()) {
+    private void updateMatchesForGameweek(LeagueTheme league, int weekNumber, FixtureSnapshot snapshot) {
+        try {
+            if (snapshot.isEmpty()) {
                 System.out.println("⚠️ No matches found in API response");
                 return;
             }
 
             // Filter only matches from the requested week
-            List<Map<String, Object>> filteredMatches = matches.stream()
-                    .filter(m -> Objects.equals((Integer) m.get("matchday"), weekNumber))
-                    .toList();
+            List<FixtureDTO> filteredMatches = snapshot.forMatchday(weekNumber);
 
             System.out.println("➡️ " + filteredMatches.size() + " matches found for " + league + " week " + weekNumber);
 
@@ -191,18 +167,17 @@ public class MatchUpdateService {
                 return;
             }
 
-            Set<GameWeek> affectedGameWeeks = new HashSet<>();
+            List<FixtureDTO> toProcess = new ArrayList<>();
 
-            for (Map<String, Object> matchData : filteredMatches) {
+            for (FixtureDTO matchData : filteredMatches) {
                 try {
-                    String status = (String) matchData.get("status");
-                    String utcDateStr = (String) matchData.get("utcDate");
+                    String status = matchData.status();
 
-                    if (utcDateStr == null) {
+                    if (matchData.utcDate() == null) {
                         continue;
                     }
 
-                    Instant matchDate = Instant.parse(utcDateStr);
+                    Instant matchDate = matchData.utcDate().toInstant();
                     boolean isFuture = matchDate.isAfter(Instant.now());
                     boolean isFinished = "FINISHED".equals(status);
                     boolean isLive = "IN_PLAY".equals(status) || "PAUSED".equals(status);
@@ -238,13 +213,9 @@ public class MatchUpdateService {
                     }
 
                     if (shouldProcess) {
-                        System.out.println("✅ Processing match (" + reason + "): " +
-                                ((Map<String, Object>) matchData.get("homeTeam")).get("name") + " vs " +
-                                ((Map<String, Object>) matchData.get("awayTeam")).get("name"));
-                        processMatchDataUnified(matchData, league, affectedGameWeeks);
+                        toProcess.add(matchData);
                     } else {
-                        System.out.println("⏭️ Skipping match (" + reason + "): " +
-                                ((Map<String, Object>) matchData.get("homeTeam")).get("name"));
+                        System.out.println("⏭️ Skipping match (" + reason + "): " + matchData.homeTeam());
                     }
 
                 } catch (Exception e) {
@@ -252,6 +223,9 @@ public class MatchUpdateService {
                 }
             }
 
+            // Only fixtures whose status, score or date changed are written
+            Set<GameWeek> affectedGameWeeks = upsertFixtures(league, toProcess, false);
+
             // Update GameWeek timings & statuses
             for (GameWeek gw : affectedGameWeeks) {
                 updateGameWeekTimings(gw);
@@ -261,170 +235,9 @@ public class MatchUpdateService {
             System.out.println("✅ Successfully updated " + affectedGameWeeks.size() + " gameweek(s)");
 
         } catch (Exception e) {
-            System.out.println("❌ Error updating " + competition + " week " + weekNumber + ": " + e.getMessage());
+            System.out.println("❌ Error updating " + league + " week " + weekNumber + ": " + e.getMessage());
             e.printStackTrace();
-            throw new RuntimeException("Failed to update matches for " + competition + " week " + weekNumber, e);
-        }
-    }
-
-    // ✅ Unified method that handles all match types appropriately
-    @Transactional
-    protected void processMatchDataUnified(Map<String, Object> matchData, LeagueTheme league, Set<GameWeek> affectedGameWeeks) {
-        try {
-            Map<String, Object> homeTeamMap = (Map<String, Object>) matchData.get("homeTeam");
-            Map<String, Object> awayTeamMap = (Map<String, Object>) matchData.get("awayTeam");
-
-            if (homeTeamMap == null || awayTeamMap == null) {
-                System.out.println("⚠️ Missing team data in match");
-                return;
-            }
-
-            String homeTeamName = normalizeTeamName((String) homeTeamMap.get("name"));
-            String awayTeamName = normalizeTeamName((String) awayTeamMap.get("name"));
-            String apiStatus = (String) matchData.get("status");
-
-            String dateStr = (String) matchData.get("utcDate");
-            if (dateStr == null) {
-                System.out.println("⚠️ No date found for match: " + homeTeamName + " vs " + awayTeamName);
-                return;
-            }
-
-            LocalDateTime matchDateUtc = OffsetDateTime.parse(dateStr).toLocalDateTime();
-            Integer matchday = (Integer) matchData.get("matchday");
-
-            if (matchday == null) {
-                System.out.println("⚠️ No matchday found for " + homeTeamName + " vs " + awayTeamName);
-                return;
-            }
-
-            // Find or create GameWeek
-            GameWeek gameWeek = gameweekRepository.findByWeekNumberAndCompetition(matchday, league)
-                    .orElse(null);
-
-            if (gameWeek == null) {
-                System.out.println("🆕 Creating new GameWeek for " + league + " week " + matchday);
-                gameWeek = new GameWeek();
-                gameWeek.setWeekNumber(matchday);
-                gameWeek.setCompetition(league);
-                gameWeek.setStatus(GameweekStatus.UPCOMING);
-                gameWeek.setStartDate(matchDateUtc.minusDays(3));
-                gameWeek.setEndDate(matchDateUtc.plusDays(3));
-                gameWeek.setJoinDeadline(matchDateUtc.minusHours(2));
-                gameWeek = gameweekRepository.save(gameWeek);
-            }
-
-            // Find existing match
-            Match dbMatch = matchRepository.findWithGameweeks(
-                    homeTeamName, awayTeamName,
-                    matchDateUtc.minusHours(2), matchDateUtc.plusHours(2)
-            );
-
-            // Respect inactive flag - don't update inactive matches
-            if (dbMatch != null && !dbMatch.isActive()) {
-                System.out.println("⏭️ Skipping inactive match: " + homeTeamName + " vs " + awayTeamName);
-                return;
-            }
-
-            // Store previous status to detect changes
-            boolean wasFinishedBefore = dbMatch != null && dbMatch.isFinished();
-
-            if (dbMatch == null) {
-                System.out.println("🆕 Creating new match: " + homeTeamName + " vs " + awayTeamName);
-                dbMatch = new Match();
-                dbMatch.setHomeTeam(homeTeamName);
-                dbMatch.setAwayTeam(awayTeamName);
-                dbMatch.setGameweeks(new ArrayList<>());
-                dbMatch.setActive(true);
-            } else {
-                System.out.println("🔄 Updating existing match: " + homeTeamName + " vs " + awayTeamName);
-            }
-
-            // Always update basic match info
-            dbMatch.setMatchDate(matchDateUtc);
-            dbMatch.setPredictionDeadline(matchDateUtc.minusMinutes(30));
-
-            // Parse score data
-            Integer homeGoals = null;
-            Integer awayGoals = null;
-            Map<String, Object> scoreMap = (Map<String, Object>) matchData.get("score");
-            if (scoreMap != null) {
-                Map<String, Object> fullTime = (Map<String, Object>) scoreMap.get("fullTime");
-                if (fullTime != null) {
-                    homeGoals = fullTime.get("home") != null ? (Integer) fullTime.get("home") : null;
-                    awayGoals = fullTime.get("away") != null ? (Integer) fullTime.get("away") : null;
-                }
-            }
-
-            // Update match based on status
-            boolean justFinished = false;
-            switch (apiStatus) {
-                case "FINISHED" -> {
-                    // Always update scores for finished matches
-                    if (homeGoals != null && awayGoals != null) {
-                        dbMatch.setHomeScore(homeGoals);
-                        dbMatch.setAwayScore(awayGoals);
-                    } else {
-                        System.out.println("⚠️ Finished match missing scores: " + homeTeamName + " vs " + awayTeamName);
-                    }
-                    dbMatch.setFinished(true);
-                    dbMatch.setStatus(MatchStatus.COMPLETED);
-                    justFinished = !wasFinishedBefore;
-                }
-                case "IN_PLAY", "PAUSED" -> {
-                    // Update live scores
-                    if (homeGoals != null && awayGoals != null) {
-                        dbMatch.setHomeScore(homeGoals);
-                        dbMatch.setAwayScore(awayGoals);
-                    }
-                    dbMatch.setFinished(false);
-                    dbMatch.setStatus(MatchStatus.LIVE);
-                }
-                case "SCHEDULED", "TIMED" -> {
-                    // For scheduled matches, clear scores and set as scheduled
-                    dbMatch.setHomeScore(null);
-                    dbMatch.setAwayScore(null);
-                    dbMatch.setFinished(false);
-                    dbMatch.setStatus(MatchStatus.SCHEDULED);
-                }
-                case "POSTPONED" -> {
-                    // Handle postponed matches
-                    dbMatch.setHomeScore(null);
-                    dbMatch.setAwayScore(null);
-                    dbMatch.setFinished(false);
-                    dbMatch.setStatus(MatchStatus.SCHEDULED); // or create POSTPONED status if needed
-                    System.out.println("📅 Match postponed: " + homeTeamName + " vs " + awayTeamName);
-                }
-                default -> {
-                    System.out.println("⚠️ Unknown match status: " + apiStatus + " for " + homeTeamName + " vs " + awayTeamName);
-                    // Default to scheduled
-                    dbMatch.setHomeScore(null);
-                    dbMatch.setAwayScore(null);
-                    dbMatch.setFinished(false);
-                    dbMatch.setStatus(MatchStatus.SCHEDULED);
-                }
-            }
-
-            // Link to GameWeek
-            if (!dbMatch.getGameweeks().contains(gameWeek)) {
-                dbMatch.getGameweeks().add(gameWeek);
-            }
-
-            // Save the match
-            dbMatch = matchRepository.save(dbMatch);
-            System.out.println("💾 Saved match: " + homeTeamName + " vs " + awayTeamName +
-                    " (Status: " + dbMatch.getStatus() + ", Scores: " + dbMatch.getHomeScore() + "-" + dbMatch.getAwayScore() + ")");
-
-            // IMMEDIATELY SCORE PREDICTIONS IF MATCH JUST FINISHED
-            if (justFinished && dbMatch.getHomeScore() != null && dbMatch.getAwayScore() != null) {
-                System.out.println("⚡ Match just finished! Scoring predictions immediately...");
-                predictionService.scorePredictionsForMatch(dbMatch.getId());
-            }
-
-            affectedGameWeeks.add(gameWeek);
-
-        } catch (Exception e) {
-            System.out.println("❌ Error processing match data: " + e.getMessage());
-            throw e;
+            throw new RuntimeException("Failed to update matches for " + league + " week " + weekNumber, e);
         }
     }
 
@@ -445,7 +258,7 @@ public class MatchUpdateService {
                 System.out.println("➡️ Starting update for competition: " + league.name() + " (FINISHED only)");
                 long startTime = System.currentTimeMillis();
 
-                fetchAndUpdateMatches(league, 2025, GameweekStatus.FINISHED);
+                fetchAndUpdateMatches(league, GameweekStatus.FINISHED);
 
                 long endTime = System.currentTimeMillis();
                 System.out.println("✅ Successfully updated FINISHED matches for "
@@ -471,7 +284,7 @@ public class MatchUpdateService {
             LeagueTheme league = LeagueTheme.valueOf(competition);
             long startTime = System.currentTimeMillis();
 
-            fetchAndUpdateMatches(league, 2025, GameweekStatus.FINISHED);
+            fetchAndUpdateMatches(league, GameweekStatus.FINISHED);
 
             long endTime = System.currentTimeMillis();
             System.out.println("✅ Manual update completed for " + competition
@@ -488,27 +301,10 @@ public class MatchUpdateService {
     }
 
     // ✅ Dynamic fetch method that updates all matches and calculates gameweek status
-    private void fetchAndUpdateMatchesDynamic(LeagueTheme league, int season) {
+    private void fetchAndUpdateMatchesDynamic(LeagueTheme league) {
         try {
-            String apiUrl = apiUrlTemplate
-                    .replace("{competition}", league.getApiCode())
-                    .replace("{season}", String.valueOf(season));
-
-            System.out.println("🔗 API URL: " + apiUrl);
-
-            RestTemplate restTemplate = new RestTemplate();
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("X-Auth-Token", apiKey);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Map> response = restTemplate.exchange(apiUrl, HttpMethod.GET, entity, Map.class);
-
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-                throw new RuntimeException("API call failed for " + league + " - Status: " + response.getStatusCode());
-            }
-
-            List<Map<String, Object>> matches = (List<Map<String, Object>>) response.getBody().get("matches");
-            if (matches == null || matches.isEmpty()) {
+            List<FixtureDTO> matches = fixtureSnapshotService.snapshot(league).fixtures();
+            if (matches.isEmpty()) {
                 System.out.println("⚠️ No matches found for " + league);
                 return;
             }
@@ -516,32 +312,27 @@ public class MatchUpdateService {
             System.out.println("📥 " + matches.size() + " matches received from " + league);
 
             // Filter matches to relevant weeks
-            List<Map<String, Object>> filteredMatches = filterMatchesByRelevantWeeks(matches, league);
+            List<FixtureDTO> filteredMatches = filterMatchesByRelevantWeeks(matches, league);
 
             // Group matches by gameweek
-            Map<Integer, List<Map<String, Object>>> matchesByGameweek =
-                    filteredMatches.stream().collect(Collectors.groupingBy(m -> (Integer) m.get("matchday")));
+            Map<Integer, List<FixtureDTO>> matchesByGameweek =
+                    filteredMatches.stream().collect(Collectors.groupingBy(FixtureDTO::matchday));
 
-            Set<GameWeek> affectedGameWeeks = new HashSet<>();
-            int processedCount = 0;
+            List<FixtureDTO> toProcess = new ArrayList<>();
 
-            for (Map.Entry<Integer, List<Map<String, Object>>> entry : matchesByGameweek.entrySet()) {
+            for (Map.Entry<Integer, List<FixtureDTO>> entry : matchesByGameweek.entrySet()) {
                 Integer gameweekNumber = entry.getKey();
-                List<Map<String, Object>> matchesForWeek = entry.getValue();
+                List<FixtureDTO> matchesForWeek = entry.getValue();
 
                 System.out.println("🎯 Processing Gameweek " + gameweekNumber + " (ALL MATCHES)");
 
-                for (Map<String, Object> matchData : matchesForWeek) {
-                    try {
-                        processMatchData(matchData, league, affectedGameWeeks);
-                        processedCount++;
-                    } catch (Exception e) {
-                        System.out.println("⚠️ Error processing match data: " + e.getMessage());
-                    }
-                }
+                toProcess.addAll(matchesForWeek);
             }
 
-            System.out.println("📝 Processed " + processedCount + " matches for " + league);
+            // Only fixtures whose status, score or date changed are written
+            Set<GameWeek> affectedGameWeeks = upsertFixtures(league, toProcess, true);
+
+            System.out.println("📝 Processed " + toProcess.size() + " matches for " + league);
 
             // Update gameweek timings and calculate status dynamically
             for (GameWeek gw : affectedGameWeeks) {
@@ -564,7 +355,7 @@ public class MatchUpdateService {
     }
 
     // ✅ Filter matches to only include current, past, and next 3 weeks
-    private List<Map<String, Object>> filterMatchesByRelevantWeeks(List<Map<String, Object>> matches, LeagueTheme league) {
+    private List<FixtureDTO> filterMatchesByRelevantWeeks(List<FixtureDTO> matches, LeagueTheme league) {
         // Get current gameweek for this league
         Integer currentWeek = getCurrentGameweek(league);
 
@@ -591,34 +382,30 @@ public class MatchUpdateService {
         System.out.println("🎯 Updating weeks: " + relevantWeeks.stream().sorted().toList());
 
         LocalDateTime now = LocalDateTime.now();
-        List<Map<String, Object>> validMatches = new ArrayList<>();
+        List<FixtureDTO> validMatches = new ArrayList<>();
         int ignoredAdvancedMatches = 0;
         int ignoredPostponedMatches = 0;
 
-        for (Map<String, Object> match : matches) {
-            Integer matchday = (Integer) match.get("matchday");
+        for (FixtureDTO match : matches) {
+            Integer matchday = match.matchday();
             if (matchday == null || !relevantWeeks.contains(matchday)) {
                 continue; // Skip matches outside our week range
             }
 
-            String dateStr = (String) match.get("utcDate");
-            if (dateStr == null) continue;
+            if (match.utcDate() == null) continue;
 
-            LocalDateTime matchDate = OffsetDateTime.parse(dateStr).toLocalDateTime();
+            LocalDateTime matchDate = match.matchDateUtc();
 
             // ✅ Check if match is played at wrong time for prediction game
             if (isMatchPlayedAtWrongTime(matchday, matchDate, currentWeek, now)) {
-                Map<String, Object> homeTeam = (Map<String, Object>) match.get("homeTeam");
-                Map<String, Object> awayTeam = (Map<String, Object>) match.get("awayTeam");
-
                 if (matchday > currentWeek + 3) {
                     System.out.println("🚫 IGNORED: Future match played too early - GW" + matchday +
-                            " " + homeTeam.get("name") + " vs " + awayTeam.get("name") +
+                            " " + match.homeTeam() + " vs " + match.awayTeam() +
                             " (playing on " + matchDate.toLocalDate() + " but we're only at GW" + currentWeek + ")");
                     ignoredAdvancedMatches++;
                 } else {
                     System.out.println("🚫 IGNORED: Past match played too late - GW" + matchday +
-                            " " + homeTeam.get("name") + " vs " + awayTeam.get("name") +
+                            " " + match.homeTeam() + " vs " + match.awayTeam() +
                             " (should have been before GW" + currentWeek + " but playing on " + matchDate.toLocalDate() + ")");
                     ignoredPostponedMatches++;
                 }
@@ -710,27 +497,10 @@ public class MatchUpdateService {
         return 1;
     }
 
-    private void fetchAndUpdateMatches(LeagueTheme league, int season, GameweekStatus status) {
+    private void fetchAndUpdateMatches(LeagueTheme league, GameweekStatus status) {
         try {
-            String apiUrl = apiUrlTemplate
-                    .replace("{competition}", league.getApiCode())
-                    .replace("{season}", String.valueOf(season));
-
-            System.out.println("🔗 API URL: " + apiUrl);
-
-            RestTemplate restTemplate = new RestTemplate();
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("X-Auth-Token", apiKey);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Map> response = restTemplate.exchange(apiUrl, HttpMethod.GET, entity, Map.class);
-
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-                throw new RuntimeException("API call failed for " + league + " - Status: " + response.getStatusCode());
-            }
-
-            List<Map<String, Object>> matches = (List<Map<String, Object>>) response.getBody().get("matches");
-            if (matches == null || matches.isEmpty()) {
+            List<FixtureDTO> matches = fixtureSnapshotService.snapshot(league).fixtures();
+            if (matches.isEmpty()) {
                 System.out.println("⚠️ No matches found for " + league);
                 return;
             }
@@ -738,22 +508,21 @@ public class MatchUpdateService {
             System.out.println("📥 " + matches.size() + " matches received from " + league);
 
             // Filter matches to relevant weeks
-            List<Map<String, Object>> filteredMatches = filterMatchesByRelevantWeeks(matches, league);
+            List<FixtureDTO> filteredMatches = filterMatchesByRelevantWeeks(matches, league);
 
             // Group matches by gameweek
-            Map<Integer, List<Map<String, Object>>> matchesByGameweek =
-                    filteredMatches.stream().collect(Collectors.groupingBy(m -> (Integer) m.get("matchday")));
+            Map<Integer, List<FixtureDTO>> matchesByGameweek =
+                    filteredMatches.stream().collect(Collectors.groupingBy(FixtureDTO::matchday));
 
-            Set<GameWeek> affectedGameWeeks = new HashSet<>();
-            int processedCount = 0;
+            List<FixtureDTO> toProcess = new ArrayList<>();
 
-            for (Map.Entry<Integer, List<Map<String, Object>>> entry : matchesByGameweek.entrySet()) {
+            for (Map.Entry<Integer, List<FixtureDTO>> entry : matchesByGameweek.entrySet()) {
                 Integer gameweekNumber = entry.getKey();
-                List<Map<String, Object>> matchesForWeek = entry.getValue();
+                List<FixtureDTO> matchesForWeek = entry.getValue();
 
                 // Only process gameweeks matching the requested status
                 boolean isFinished = matchesForWeek.stream()
-                        .allMatch(m -> "FINISHED".equalsIgnoreCase((String) m.get("status")));
+                        .allMatch(m -> "FINISHED".equalsIgnoreCase(m.status()));
 
                 if (status == GameweekStatus.FINISHED && !isFinished) {
                     System.out.println("⏭️ Skipping Gameweek " + gameweekNumber + " because it's not finished yet.");
@@ -764,17 +533,13 @@ public class MatchUpdateService {
 
                 System.out.println("🎯 Processing Gameweek " + gameweekNumber + " with status " + status);
 
-                for (Map<String, Object> matchData : matchesForWeek) {
-                    try {
-                        processMatchData(matchData, league, affectedGameWeeks);
-                        processedCount++;
-                    } catch (Exception e) {
-                        System.out.println("⚠️ Error processing match data: " + e.getMessage());
-                    }
-                }
+                toProcess.addAll(matchesForWeek);
             }
 
-            System.out.println("📝 Processed " + processedCount + " matches for " + league + " with status " + status);
+            // Only fixtures whose status, score or date changed are written
+            Set<GameWeek> affectedGameWeeks = upsertFixtures(league, toProcess, true);
+
+            System.out.println("📝 Processed " + toProcess.size() + " matches for " + league + " with status " + status);
 
             // Update gameweek timings + status
             for (GameWeek gw : affectedGameWeeks) {
@@ -795,126 +560,231 @@ public class MatchUpdateService {
             throw new RuntimeException("Failed to fetch and update matches for " + league, e);
         }
     }
-    // ✅ Process match data (full version with timing validations)
-    @Transactional
-    protected void processMatchData(Map<String, Object> matchData, LeagueTheme league, Set<GameWeek> affectedGameWeeks) {
-        try {
-            Map<String, Object> homeTeamMap = (Map<String, Object>) matchData.get("homeTeam");
-            Map<String, Object> awayTeamMap = (Map<String, Object>) matchData.get("awayTeam");
-
-            if (homeTeamMap == null || awayTeamMap == null) {
-                System.out.println("⚠️ Missing team data in match");
-                return;
-            }
+    // ======== Diff-based match upsert ========
+
+    /**
+     * Applies a poll to the database, writing only matches whose status, score, date or
+     * gameweek link changed. Fixtures identical to the last committed poll are skipped
+     * without touching the database, except for manual updates ({@code reactivateInactive}):
+     * a match deactivated since then still has its old hash and must be reactivated. Changed rows are saved together (one JDBC batch),
+     * and MatchCompletedEvent / MatchRescheduledEvent are published for them.
+     *
+     * Returns the gameweeks that had at least one changed match.
+     */
+    private Set<GameWeek> upsertFixtures(LeagueTheme league, List<FixtureDTO> fixtures, boolean reactivateInactive) {
+        List<FixtureDTO> candidates = fixtures.stream()
+                .filter(f -> f.hasTeams() && f.utcDate() != null && f.matchday() != null)
+                .filter(f -> reactivateInactive || f.id() == null
+                        || !Objects.equals(appliedFixtureHashes.get(f.id()), f.contentHash()))
+                .toList();
+
+        if (candidates.isEmpty()) {
+            System.out.println("💤 No fixture changes for " + league);
+            return new HashSet<>();
+        }
 
-            String homeTeamName = normalizeTeamName((String) homeTeamMap.get("name"));
-            String awayTeamName = normalizeTeamName((String) awayTeamMap.get("name"));
-            String apiStatus = (String) matchData.get("status");
+        // Existing rows in one query, keyed by football-data id
+        Set<Long> externalIds = candidates.stream()
+                .map(FixtureDTO::id)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Match> byExternalId = externalIds.isEmpty() ? new HashMap<>() :
+                matchRepository.findWithGameweeksByExternalIdIn(externalIds).stream()
+                        .collect(Collectors.toMap(Match::getExternalId, m -> m));
+
+        Map<Integer, GameWeek> gameWeeksByNumber = new HashMap<>();
+        Set<GameWeek> changedGameWeeks = new HashSet<>();
+        List<Match> toSave = new ArrayList<>();
+        List<Match> justFinished = new ArrayList<>();
+        List<Match> rescheduled = new ArrayList<>();
+        Map<Long, Integer> appliedHashes = new HashMap<>();
+
+        for (FixtureDTO fixture : candidates) {
+            try {
+                String homeTeamName = normalizeTeamName(fixture.homeTeam());
+                String awayTeamName = normalizeTeamName(fixture.awayTeam());
+                LocalDateTime matchDateUtc = fixture.matchDateUtc();
+
+                GameWeek gameWeek = gameWeeksByNumber.computeIfAbsent(fixture.matchday(),
+                        week -> findOrCreateGameWeek(league, week, matchDateUtc));
+
+                Match dbMatch = fixture.id() != null ? byExternalId.get(fixture.id()) : null;
+                if (dbMatch == null) {
+                    // Rows stored before external ids were tracked
+                    dbMatch = matchRepository.findWithGameweeks(
+                            homeTeamName, awayTeamName,
+                            matchDateUtc.minusHours(2), matchDateUtc.plusHours(2));
+                }
 
-            String dateStr = (String) matchData.get("utcDate");
-            if (dateStr == null) {
-                System.out.println("⚠️ No date found for match: " + homeTeamName + " vs " + awayTeamName);
-                return;
-            }
+                boolean changed = false;
+                if (dbMatch == null) {
+                    System.out.println("🆕 Creating new match: " + homeTeamName + " vs " + awayTeamName);
+                    dbMatch = new Match();
+                    dbMatch.setHomeTeam(homeTeamName);
+                    dbMatch.setAwayTeam(awayTeamName);
+                    dbMatch.setGameweeks(new ArrayList<>());
+                    dbMatch.setActive(true);
+                    changed = true;
+                } else if (!dbMatch.isActive()) {
+                    if (!reactivateInactive) {
+                        // Respect inactive flag - don't update inactive matches
+                        System.out.println("⏭️ Skipping inactive match: " + homeTeamName + " vs " + awayTeamName);
+                        continue;
+                    }
+                    dbMatch.setActive(true);
+                    System.out.println("✅ Match reactivated: " + homeTeamName + " vs " + awayTeamName);
+                    changed = true;
+                }
 
-            LocalDateTime matchDateUtc = OffsetDateTime.parse(dateStr).toLocalDateTime();
-            Integer matchday = (Integer) matchData.get("matchday");
+                if (fixture.id() != null && !fixture.id().equals(dbMatch.getExternalId())) {
+                    dbMatch.setExternalId(fixture.id());
+                    changed = true;
+                }
 
-            if (matchday == null) {
-                System.out.println("⚠️ No matchday found for " + homeTeamName + " vs " + awayTeamName);
-                return;
-            }
+                boolean isNew = dbMatch.getId() == null;
+                boolean wasFinishedBefore = dbMatch.isFinished();
+                boolean dateChanged = !Objects.equals(dbMatch.getMatchDate(), matchDateUtc);
+                changed |= applyFixture(dbMatch, fixture, matchDateUtc);
 
-            // Find or create GameWeek
-            GameWeek gameWeek = gameweekRepository.findByWeekNumberAndCompetition(matchday, league)
-                    .orElse(null);
+                // Link to GameWeek
+                if (!dbMatch.getGameweeks().contains(gameWeek)) {
+                    dbMatch.getGameweeks().add(gameWeek);
+                    changed = true;
+                }
 
-            if (gameWeek == null) {
-                System.out.println("🆕 Creating new GameWeek for " + league + " week " + matchday);
-                gameWeek = new GameWeek();
-                gameWeek.setWeekNumber(matchday);
-                gameWeek.setCompetition(league);
-                gameWeek.setStatus(GameweekStatus.UPCOMING);
-                gameWeek.setStartDate(matchDateUtc.minusDays(3));
-                gameWeek.setEndDate(matchDateUtc.plusDays(3));
-                gameWeek.setJoinDeadline(matchDateUtc.minusHours(2));
-                gameWeek = gameweekRepository.save(gameWeek);
-            }
+                if (fixture.id() != null) {
+                    appliedHashes.put(fixture.id(), fixture.contentHash());
+                }
+                if (!changed) {
+                    continue;
+                }
 
-            // Parse score
-            Integer homeGoals = null;
-            Integer awayGoals = null;
-            Map<String, Object> scoreMap = (Map<String, Object>) matchData.get("score");
-            if (scoreMap != null) {
-                Map<String, Object> fullTime = (Map<String, Object>) scoreMap.get("fullTime");
-                if (fullTime != null) {
-                    homeGoals = fullTime.get("home") != null ? (Integer) fullTime.get("home") : null;
-                    awayGoals = fullTime.get("away") != null ? (Integer) fullTime.get("away") : null;
+                toSave.add(dbMatch);
+                changedGameWeeks.add(gameWeek);
+                if (dbMatch.isFinished() && !wasFinishedBefore) {
+                    justFinished.add(dbMatch);
                 }
+                if (dateChanged && !isNew) {
+                    System.out.println("📅 Match rescheduled: " + homeTeamName + " vs " + awayTeamName + " -> " + matchDateUtc);
+                    rescheduled.add(dbMatch);
+                }
+            } catch (Exception e) {
+                System.out.println("⚠️ Error processing match data: " + e.getMessage());
             }
+        }
 
-            // Find existing match or create new one
-            Match dbMatch = matchRepository.findWithGameweeks(
-                    homeTeamName, awayTeamName,
-                    matchDateUtc.minusHours(2), matchDateUtc.plusHours(2)
-            );
-
-            if (dbMatch == null) {
-                System.out.println("🆕 Creating new match: " + homeTeamName + " vs " + awayTeamName);
-                dbMatch = new Match();
-                dbMatch.setHomeTeam(homeTeamName);
-                dbMatch.setAwayTeam(awayTeamName);
-                dbMatch.setGameweeks(new ArrayList<>());
-                dbMatch.setActive(true);
-            } else {
-                System.out.println("🔄 Updating existing match: " + homeTeamName + " vs " + awayTeamName);
-                if (!dbMatch.isActive()) {
-                    dbMatch.setActive(true);
-                    System.out.println("✅ Match reactivated");
-                }
+        if (!toSave.isEmpty()) {
+            matchRepository.saveAll(toSave);
+            System.out.println("💾 " + league + ": " + toSave.size() + " changed match(es) saved, "
+                    + (candidates.size() - toSave.size()) + " unchanged");
+        }
+
+        // IMMEDIATELY SCORE PREDICTIONS FOR MATCHES THAT JUST FINISHED
+        for (Match match : justFinished) {
+            if (match.getHomeScore() != null && match.getAwayScore() != null) {
+                System.out.println("⚡ Match just finished! Scoring predictions immediately...");
+                predictionService.scorePredictionsForMatch(match.getId());
             }
+            eventPublisher.publishEvent(new MatchCompletedEvent(this, match.getId()));
+        }
+        if (!justFinished.isEmpty()) {
+            // Scoring cleared the persistence context: hand back managed gameweeks so the caller's timing/status changes are flushed
+            List<Long> gameweekIds = changedGameWeeks.stream().map(GameWeek::getId).toList();
+            changedGameWeeks = new HashSet<>(gameweekRepository.findAllById(gameweekIds));
+        }
+        for (Match match : rescheduled) {
+            eventPublisher.publishEvent(new MatchRescheduledEvent(this, match.getId()));
+        }
 
-            // Update match data
-            dbMatch.setMatchDate(matchDateUtc);
-            dbMatch.setPredictionDeadline(matchDateUtc.minusMinutes(30));
-            dbMatch.setHomeScore(homeGoals);
-            dbMatch.setAwayScore(awayGoals);
-
-            // Map API status to internal status
-            switch (apiStatus) {
-                case "FINISHED" -> {
-                    dbMatch.setFinished(true);
-                    dbMatch.setStatus(MatchStatus.COMPLETED);
-                }
-                case "IN_PLAY", "PAUSED" -> {
-                    dbMatch.setFinished(false);
-                    dbMatch.setStatus(MatchStatus.LIVE);
-                }
-                case "SCHEDULED", "TIMED", "POSTPONED" -> {
-                    dbMatch.setFinished(false);
-                    dbMatch.setStatus(MatchStatus.SCHEDULED);
+        rememberAppliedHashes(appliedHashes);
+        return changedGameWeeks;
+    }
+
+    /**
+     * Copies date, status and score of the fixture onto the match. Returns true if anything changed.
+     */
+    private boolean applyFixture(Match dbMatch, FixtureDTO fixture, LocalDateTime matchDateUtc) {
+        Integer homeScore = dbMatch.getHomeScore();
+        Integer awayScore = dbMatch.getAwayScore();
+        boolean hasScore = fixture.homeScore() != null && fixture.awayScore() != null;
+        boolean finished;
+        MatchStatus status;
+
+        switch (fixture.status()) {
+            case "FINISHED" -> {
+                if (hasScore) {
+                    homeScore = fixture.homeScore();
+                    awayScore = fixture.awayScore();
+                } else {
+                    System.out.println("⚠️ Finished match missing scores: " + dbMatch.getHomeTeam() + " vs " + dbMatch.getAwayTeam());
                 }
-                default -> {
-                    System.out.println("⚠️ Unknown match status: " + apiStatus);
-                    dbMatch.setFinished(false);
-                    dbMatch.setStatus(MatchStatus.SCHEDULED);
+                finished = true;
+                status = MatchStatus.COMPLETED;
+            }
+            case "IN_PLAY", "PAUSED" -> {
+                // Update live scores
+                if (hasScore) {
+                    homeScore = fixture.homeScore();
+                    awayScore = fixture.awayScore();
                 }
+                finished = false;
+                status = MatchStatus.LIVE;
             }
-
-            // Link to GameWeek
-            if (!dbMatch.getGameweeks().contains(gameWeek)) {
-                dbMatch.getGameweeks().add(gameWeek);
+            default -> {
+                // SCHEDULED, TIMED, POSTPONED and unknown statuses: no score yet
+                homeScore = null;
+                awayScore = null;
+                finished = false;
+                status = MatchStatus.SCHEDULED;
             }
+        }
+
+        boolean changed = !Objects.equals(dbMatch.getMatchDate(), matchDateUtc)
+                || !Objects.equals(dbMatch.getHomeScore(), homeScore)
+                || !Objects.equals(dbMatch.getAwayScore(), awayScore)
+                || dbMatch.isFinished() != finished
+                || dbMatch.getStatus() != status;
 
-            // Save the match
-            dbMatch = matchRepository.save(dbMatch);
-            System.out.println("💾 Saved match: " + homeTeamName + " vs " + awayTeamName + " (Status: " + dbMatch.getStatus() + ")");
+        if (changed) {
+            dbMatch.setMatchDate(matchDateUtc);
+            dbMatch.setPredictionDeadline(matchDateUtc.minusMinutes(30));
+            dbMatch.setHomeScore(homeScore);
+            dbMatch.setAwayScore(awayScore);
+            dbMatch.setFinished(finished);
+            dbMatch.setStatus(status);
+        }
+        return changed;
+    }
 
-            affectedGameWeeks.add(gameWeek);
+    private GameWeek findOrCreateGameWeek(LeagueTheme league, int weekNumber, LocalDateTime matchDateUtc) {
+        return gameweekRepository.findByWeekNumberAndCompetition(weekNumber, league)
+                .orElseGet(() -> {
+                    System.out.println("🆕 Creating new GameWeek for " + league + " week " + weekNumber);
+                    GameWeek gameWeek = new GameWeek();
+                    gameWeek.setWeekNumber(weekNumber);
+                    gameWeek.setCompetition(league);
+                    gameWeek.setStatus(GameweekStatus.UPCOMING);
+                    gameWeek.setStartDate(matchDateUtc.minusDays(3));
+                    gameWeek.setEndDate(matchDateUtc.plusDays(3));
+                    gameWeek.setJoinDeadline(matchDateUtc.minusHours(2));
+                    return gameweekRepository.save(gameWeek);
+                });
+    }
 
-        } catch (Exception e) {
-            System.out.println("❌ Error processing match data: " + e.getMessage());
-            throw e;
+    // Hashes become visible only once the writes they describe are committed
+    private void rememberAppliedHashes(Map<Long, Integer> hashes) {
+        if (hashes.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    appliedFixtureHashes.putAll(hashes);
+                }
+            });
+        } else {
+            appliedFixtureHashes.putAll(hashes);
         }
     }
 
@@ -1033,28 +903,8 @@ public class MatchUpdateService {
         try {
             System.out.println("🏆 Starting winner calculation for finished GameWeek " + gameWeek.getWeekNumber());
 
-            // Step 1: Score all predictions for matches in this gameweek
-            List<Match> matches = matchRepository.findByGameweeksContaining(gameWeek);
-            for (Match match : matches) {
-                if (match.isActive() && match.isFinished()) {
-                    predictionService.scorePredictionsForMatch(match.getId());
-                    System.out.println("✅ Scored predictions for match: " +
-                            match.getHomeTeam() + " vs " + match.getAwayTeam());
-                }
-            }
-
-            // Step 2: Calculate accuracy for all participations in this gameweek
-            List<SessionParticipation> participations =
-                    predictionService.getSessionParticipationsByGameWeek(gameWeek.getId());
-
-            for (SessionParticipation participation : participations) {
-                predictionService.calculatePredictionAccuracy(participation.getId());
-            }
-
-            // Step 3: Determine winners for all sessions in this gameweek
-            competitionSessionService.determineWinnersForCompletedGameWeek(gameWeek.getId());
-
-            System.out.println("🎉 Winner calculation completed for GameWeek " + gameWeek.getWeekNumber());
+            // Scoring + per-session settlement run in parallel partitions once this transaction commits
+            gameweekSettlementService.settleGameweekAfterCommit(gameWeek.getId());
 
         } catch (Exception e) {
             System.out.println("❌ Error calculating winners for GameWeek " + gameWeek.getWeekNumber() +
@@ -1081,148 +931,6 @@ public class MatchUpdateService {
     }
 
     String normalizeTeamName(String name) {
-        if (name == null) return null;
-
-        String normalized = Normalizer.normalize(name, Normalizer.Form.NFD)
-                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
-                .toLowerCase()
-                .trim();
-
-        normalized = normalized
-                .replaceAll("\\b(fc|afc|rcd|cf)\\b", "")
-                .replaceAll("\\bde futbol\\b", "")
-                .replace("&", "and")
-                .replaceAll("\\s+", " ")
-                .trim();
-
-        Map<String, String> teamMappings = Map.ofEntries(
-                Map.entry("girona", "Girona"),
-                Map.entry("rayo vallecano", "Rayo Vallecano"),
-                Map.entry("villarreal", "Villarreal"),
-                Map.entry("real oviedo", "Real Oviedo"),
-                Map.entry("mallorca", "Mallorca"),
-                Map.entry("barcelona", "Barcelona"),
-                Map.entry("valencia", "Valencia"),
-                Map.entry("real sociedad", "Real Sociedad"),
-                Map.entry("celta vigo", "Celta Vigo"),
-                Map.entry("getafe", "Getafe"),
-                Map.entry("ath. bilbao", "Ath. Bilbao"),
-                Map.entry("seville", "Seville"),
-                Map.entry("espanyol", "Espanyol"),
-                Map.entry("atletico madrid", "Atletico Madrid"),
-                Map.entry("elche", "Elche"),
-                Map.entry("real betis", "Real Betis"),
-                Map.entry("real madrid", "Real Madrid"),
-                Map.entry("osasuna", "Osasuna"),
-                Map.entry("deportivo alaves", "Deportivo Alavés"),
-                Map.entry("alaves", "Deportivo Alavés"),
-                Map.entry("levante ud", "Levante"),
-                Map.entry("espanyol de barcelona", "Espanyol"),
-                Map.entry("club atletico de madrid", "Atletico Madrid"),
-                Map.entry("rc celta de vigo", "Celta Vigo"),
-                Map.entry("celta de vigo", "Celta Vigo"),
-                Map.entry("athletic club", "Ath. Bilbao"),
-                Map.entry("athletic bilbao", "Ath. Bilbao"),
-                Map.entry("sevilla", "Seville"),
-                Map.entry("real betis balompie", "Real Betis"),
-                Map.entry("ca osasuna", "Osasuna"),
-                //premier league
-                Map.entry("arsenal", "Arsenal"),
-                Map.entry("aston villa", "Aston Villa"),
-                Map.entry("brentford", "Brentford"),
-                Map.entry("brighton and hove albion", "Brighton and Hove Albion"),
-                Map.entry("burnley", "Burnley"),
-                Map.entry("chelsea", "Chelsea"),
-                Map.entry("crystal palace", "Crystal Palace"),
-                Map.entry("everton", "Everton"),
-                Map.entry("fulham", "Fulham"),
-                Map.entry("liverpool", "Liverpool"),
-                Map.entry("leeds united", "Leeds United"),
-                Map.entry("manchester city", "Manchester City"),
-                Map.entry("manchester united", "Manchester United"),
-                Map.entry("newcastle united", "Newcastle United"),
-                Map.entry("nottingham forest", "Nottingham Forest"),
-                Map.entry("sunderland", "Sunderland"),
-                Map.entry("tottenham hotspur", "Tottenham Hotspur"),
-                Map.entry("west ham united", "West Ham United"),
-                Map.entry("wolverhampton wanderers", "Wolverhampton Wanderers"),
-                Map.entry("bournemouth", "Bournemouth"),
-
-                //ligue 1
-                Map.entry("angers", "Angers"),
-                Map.entry("auxerre", "Auxerre"),
-                Map.entry("brest", "Brest"),
-                Map.entry("le havre", "Le Havre"),
-                Map.entry("lens", "Lens"),
-                Map.entry("lille", "Lille"),
-                Map.entry("lorient", "Lorient"),
-                Map.entry("olympique lyonnais", "Olympique de Lyon"),
-                Map.entry("olympique de marseille", "Olympique de Marseille"),
-                Map.entry("metz", "Metz"),
-                Map.entry("monaco", "Monaco"),
-                Map.entry("nantes", "Nantes"),
-                Map.entry("nice", "Nice"),
-                Map.entry("paris fc", "Paris FC"),
-                Map.entry("paris saint-germain", "Paris Saint-Germain"),
-                Map.entry("stade rennais 1901", "Rennes"),
-                Map.entry("strasbourg", "Strasbourg"),
-                Map.entry("toulouse", "Toulouse"),
-
-
-                //serie A
-                Map.entry("ac milan", "AC Milan"),
-                Map.entry("atalanta", "Atalanta"),
-                Map.entry("bologna", "Bologna"),
-                Map.entry("cagliari", "Cagliari"),
-                Map.entry("como", "Como"),
-                Map.entry("cremonese", "Cremonese"),
-                Map.entry("fiorentina", "Fiorentina"),
-                Map.entry("genoa", "Genoa"),
-                Map.entry("inter", "Inter"),
-                Map.entry("juventus", "Juventus"),
-                Map.entry("lazio", "Lazio"),
-                Map.entry("lecce", "Lecce"),
-                Map.entry("napoli", "Napoli"),
-                Map.entry("parma", "Parma"),
-                Map.entry("pisa", "Pisa"),
-                Map.entry("roma", "Roma"),
-                Map.entry("sassuolo", "Sassuolo"),
-                Map.entry("torino", "Torino"),
-                Map.entry("udinese", "Udinese"),
-                Map.entry("hellas verona", "Hellas Verona"),
-
-                Map.entry("augsburg", "Augsburg"),
-                Map.entry("bayer 04 leverkusen", "Bayer Leverkusen"),
-                Map.entry("bayern munchen", "Bayern Munich"),
-                Map.entry("borussia dortmund", "Borussia Dortmund"),
-                Map.entry("borussia borussia monchengladbach", "Borussia Mönchengladbach"),
-                Map.entry("eintracht frankfurt", "Eintracht Frankfurt"),
-                Map.entry("freiburg", "Freiburg"),
-                Map.entry("heidenheim", "Heidenheim"),
-                Map.entry("hoffenheim", "Hoffenheim"),
-                Map.entry("koln", "Koln"),
-                Map.entry("mainz", "Mainz"),
-                Map.entry("rb leipzig", "RB Leipzig"),
-                Map.entry("stuttgart", "Stuttgart"),
-                Map.entry("union berlin", "Union Berlin"),
-                Map.entry("werder bremen", "Werder Bremen"),
-                Map.entry("wolfsburg", "Wolfsburg"),
-                Map.entry("hamburg", "Hamburg"),
-                Map.entry("st. pauli 1910", "St Pauli"),
-
-                Map.entry("psv", "PSV Eindhoven")
-        );
-
-        if (teamMappings.containsKey(normalized)) {
-            return teamMappings.get(normalized);
-        }
-
-        for (Map.Entry<String, String> entry : teamMappings.entrySet()) {
-            if (normalized.contains(entry.getKey()) || entry.getKey().contains(normalized)) {
-                return entry.getValue();
-            }
-        }
-
-        return normalized;
+        return teamNameNormalizer.normalize(name);
     }
 }
\ No newline at end of file
@@ -10,8 +10,10 @@ public class TeamIconService {
     private final Map<String, String> teamIcons = new HashMap<>();
     private final Map<String, String> leagueIcons = new HashMap<>();
     private final Map<String, String> teamToLeague = new HashMap<>();
+    private final TeamNameNormalizer teamNameNormalizer;
 
-    public TeamIconService() {
+    public TeamIconService(TeamNameNormalizer teamNameNormalizer) {
+        this.teamNameNormalizer = teamNameNormalizer;
         initializeLeagueIcons();
         initializePremierLeagueTeams();
         initializeLaLigaTeams();
@@ -174,7 +176,7 @@ public class TeamIconService {
     }
 
     public String getTeamIcon(String teamName) {
-        return teamIcons.getOrDefault(teamName, "/assets/images/teams/default.png");
+        return teamIcons.getOrDefault(canonicalName(teamName), "/assets/images/teams/default.png");
     }
 
     public String getLeagueIcon(String leagueName) {
@@ -183,7 +185,15 @@ public class TeamIconService {
 
     // Auto-detect league from team name if not provided
     public String getLeagueFromTeam(String teamName) {
-        return teamToLeague.getOrDefault(teamName, "Unknown League");
+        return teamToLeague.getOrDefault(canonicalName(teamName), "Unknown League");
+    }
+
+    // Exact name first, then the shared normalizer (API spellings, accents, "FC" suffixes...)
+    private String canonicalName(String teamName) {
+        if (teamName == null || teamIcons.containsKey(teamName)) {
+            return teamName;
+        }
+        return teamNameNormalizer.normalize(teamName);
     }
 
     // Get all supported leagues
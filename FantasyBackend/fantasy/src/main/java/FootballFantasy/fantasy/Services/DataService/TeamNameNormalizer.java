@@ -0,0 +1,236 @@
+package FootballFantasy.fantasy.Services.DataService;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Maps API / stored team names to the canonical names used across the app
+ * (matches, standings, icons).
+ *
+ * All aliases are accent-folded once at startup into an exact-match index, and resolved
+ * inputs are memoized, so a repeated lookup is a single hash hit. Only the first lookup
+ * of a name that is not an exact alias scans the folded aliases
+ * (see TeamNameNormalizerBenchmarkTest for why that scan is not indexed).
+ */
+@Component
+public class TeamNameNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern CLUB_SUFFIXES = Pattern.compile("\\b(fc|afc|rcd|cf)\\b");
+    private static final Pattern DE_FUTBOL = Pattern.compile("\\bde futbol\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, String> ALIASES = buildAliases();
+
+    // folded alias -> canonical name
+    private final Map<String, String> exactIndex = new HashMap<>();
+    // folded aliases in a flat array: ~100 short contains() checks beat any index here
+    private final String[] foldedAliases;
+
+    private final Cache<String, String> resolved = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    public TeamNameNormalizer() {
+        ALIASES.forEach(this::index);
+        foldedAliases = ALIASES.keySet().stream()
+                .map(TeamNameNormalizer::fold)
+                .filter(alias -> !alias.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Canonical team name, or the folded input when no alias matches.
+     */
+    public String normalize(String name) {
+        if (name == null) return null;
+        return resolved.get(name, this::resolve);
+    }
+
+    // ======== Resolution ========
+
+    String resolve(String name) {
+        String folded = fold(name);
+
+        String exact = exactIndex.get(folded);
+        if (exact != null) {
+            return exact;
+        }
+
+        String alias = bestFuzzyAlias(folded);
+        return alias != null ? exactIndex.get(alias) : folded;
+    }
+
+    /**
+     * Same rule as the former linear scan (the input contains an alias, or an alias
+     * contains the input), over the pre-folded aliases. Aliases contained in the input
+     * win, longest first; then aliases containing the input, shortest first; equal
+     * lengths go to the alphabetically first alias.
+     */
+    private String bestFuzzyAlias(String folded) {
+        if (folded.isEmpty()) return null;
+
+        String contained = null;
+        String containing = null;
+        for (String alias : foldedAliases) {
+            if (folded.contains(alias)) {
+                if (contained == null || alias.length() > contained.length()
+                        || (alias.length() == contained.length() && alias.compareTo(contained) < 0)) {
+                    contained = alias;
+                }
+            } else if (contained == null && alias.contains(folded)) {
+                if (containing == null || alias.length() < containing.length()
+                        || (alias.length() == containing.length() && alias.compareTo(containing) < 0)) {
+                    containing = alias;
+                }
+            }
+        }
+        return contained != null ? contained : containing;
+    }
+
+    static String fold(String name) {
+        String folded = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase()
+                .trim();
+        folded = CLUB_SUFFIXES.matcher(folded).replaceAll("");
+        folded = DE_FUTBOL.matcher(folded).replaceAll("");
+        folded = folded.replace("&", "and");
+        return WHITESPACE.matcher(folded).replaceAll(" ").trim();
+    }
+
+    // ======== Index construction ========
+
+    private void index(String alias, String canonical) {
+        exactIndex.putIfAbsent(fold(alias), canonical);
+        // Canonical names resolve to themselves
+        exactIndex.putIfAbsent(fold(canonical), canonical);
+    }
+
+    private static Map<String, String> buildAliases() {
+        Map<String, String> aliases = new LinkedHashMap<>();
+        //la liga
+        aliases.put("girona", "Girona");
+        aliases.put("rayo vallecano", "Rayo Vallecano");
+        aliases.put("villarreal", "Villarreal");
+        aliases.put("real oviedo", "Real Oviedo");
+        aliases.put("mallorca", "Mallorca");
+        aliases.put("barcelona", "Barcelona");
+        aliases.put("valencia", "Valencia");
+        aliases.put("real sociedad", "Real Sociedad");
+        aliases.put("celta vigo", "Celta Vigo");
+        aliases.put("getafe", "Getafe");
+        aliases.put("ath. bilbao", "Ath. Bilbao");
+        aliases.put("seville", "Seville");
+        aliases.put("espanyol", "Espanyol");
+        aliases.put("atletico madrid", "Atletico Madrid");
+        aliases.put("elche", "Elche");
+        aliases.put("real betis", "Real Betis");
+        aliases.put("real madrid", "Real Madrid");
+        aliases.put("osasuna", "Osasuna");
+        aliases.put("deportivo alaves", "Deportivo Alavés");
+        aliases.put("alaves", "Deportivo Alavés");
+        aliases.put("levante ud", "Levante");
+        aliases.put("espanyol de barcelona", "Espanyol");
+        aliases.put("club atletico de madrid", "Atletico Madrid");
+        aliases.put("rc celta de vigo", "Celta Vigo");
+        aliases.put("celta de vigo", "Celta Vigo");
+        aliases.put("athletic club", "Ath. Bilbao");
+        aliases.put("athletic bilbao", "Ath. Bilbao");
+        aliases.put("sevilla", "Seville");
+        aliases.put("real betis balompie", "Real Betis");
+        aliases.put("ca osasuna", "Osasuna");
+
+        //premier league
+        aliases.put("arsenal", "Arsenal");
+        aliases.put("aston villa", "Aston Villa");
+        aliases.put("brentford", "Brentford");
+        aliases.put("brighton and hove albion", "Brighton and Hove Albion");
+        aliases.put("burnley", "Burnley");
+        aliases.put("chelsea", "Chelsea");
+        aliases.put("crystal palace", "Crystal Palace");
+        aliases.put("everton", "Everton");
+        aliases.put("fulham", "Fulham");
+        aliases.put("liverpool", "Liverpool");
+        aliases.put("leeds united", "Leeds United");
+        aliases.put("manchester city", "Manchester City");
+        aliases.put("manchester united", "Manchester United");
+        aliases.put("newcastle united", "Newcastle United");
+        aliases.put("nottingham forest", "Nottingham Forest");
+        aliases.put("sunderland", "Sunderland");
+        aliases.put("tottenham hotspur", "Tottenham Hotspur");
+        aliases.put("west ham united", "West Ham United");
+        aliases.put("wolverhampton wanderers", "Wolverhampton Wanderers");
+        aliases.put("bournemouth", "Bournemouth");
+
+        //ligue 1
+        aliases.put("angers", "Angers");
+        aliases.put("auxerre", "Auxerre");
+        aliases.put("brest", "Brest");
+        aliases.put("le havre", "Le Havre");
+        aliases.put("lens", "Lens");
+        aliases.put("lille", "Lille");
+        aliases.put("lorient", "Lorient");
+        aliases.put("olympique lyonnais", "Olympique de Lyon");
+        aliases.put("olympique de marseille", "Olympique de Marseille");
+        aliases.put("metz", "Metz");
+        aliases.put("monaco", "Monaco");
+        aliases.put("nantes", "Nantes");
+        aliases.put("nice", "Nice");
+        aliases.put("paris fc", "Paris FC");
+        aliases.put("paris saint-germain", "Paris Saint-Germain");
+        aliases.put("stade rennais 1901", "Rennes");
+        aliases.put("strasbourg", "Strasbourg");
+        aliases.put("toulouse", "Toulouse");
+
+        //serie A
+        aliases.put("ac milan", "AC Milan");
+        aliases.put("atalanta", "Atalanta");
+        aliases.put("bologna", "Bologna");
+        aliases.put("cagliari", "Cagliari");
+        aliases.put("como", "Como");
+        aliases.put("cremonese", "Cremonese");
+        aliases.put("fiorentina", "Fiorentina");
+        aliases.put("genoa", "Genoa");
+        aliases.put("inter", "Inter");
+        aliases.put("juventus", "Juventus");
+        aliases.put("lazio", "Lazio");
+        aliases.put("lecce", "Lecce");
+        aliases.put("napoli", "Napoli");
+        aliases.put("parma", "Parma");
+        aliases.put("pisa", "Pisa");
+        aliases.put("roma", "Roma");
+        aliases.put("sassuolo", "Sassuolo");
+        aliases.put("torino", "Torino");
+        aliases.put("udinese", "Udinese");
+        aliases.put("hellas verona", "Hellas Verona");
+
+        //bundesliga
+        aliases.put("augsburg", "Augsburg");
+        aliases.put("bayer 04 leverkusen", "Bayer Leverkusen");
+        aliases.put("bayern munchen", "Bayern Munich");
+        aliases.put("borussia dortmund", "Borussia Dortmund");
+        aliases.put("borussia borussia monchengladbach", "Borussia Mönchengladbach");
+        aliases.put("eintracht frankfurt", "Eintracht Frankfurt");
+        aliases.put("freiburg", "Freiburg");
+        aliases.put("heidenheim", "Heidenheim");
+        aliases.put("hoffenheim", "Hoffenheim");
+        aliases.put("koln", "Koln");
+        aliases.put("mainz", "Mainz");
+        aliases.put("rb leipzig", "RB Leipzig");
+        aliases.put("stuttgart", "Stuttgart");
+        aliases.put("union berlin", "Union Berlin");
+        aliases.put("werder bremen", "Werder Bremen");
+        aliases.put("wolfsburg", "Wolfsburg");
+        aliases.put("hamburg", "Hamburg");
+        aliases.put("st. pauli 1910", "St Pauli");
+
+        aliases.put("psv", "PSV Eindhoven");
+        return Collections.unmodifiableMap(aliases);
+    }
+}
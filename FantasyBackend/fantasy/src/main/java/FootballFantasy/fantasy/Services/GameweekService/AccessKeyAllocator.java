@@ -0,0 +1,166 @@
+package FootballFantasy.fantasy.Services.GameweekService;
+
+import FootballFantasy.fantasy.Entities.GameweekEntities.KeySequence;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.KeySequenceRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+
+/**
+ * Allocates private session access keys that are unique by construction, so creating a
+ * private session needs no lookup and never retries on collisions.
+ *
+ * Every key encodes one value of a shared sequence. Nodes reserve blocks of the
+ * sequence from {@link KeySequence} (one locked row update per block) and hand out the
+ * values of their block from memory.
+ *
+ * Key format, 8 characters in Crockford base32 (no I, L, O, U):
+ * - 1 letter that is not a hex digit, so keys never clash with the older UUID-based
+ *   (hex) keys,
+ * - 6 base32 characters,
+ * - 1 check character (Crockford's mod 37 check symbols, so it may also be one of
+ *   {@code * ~ $ = U}) catching a mistyped character or two swapped neighbours.
+ * Sequence values are scrambled by a bijection before encoding, so consecutive
+ * sessions get unrelated-looking keys.
+ */
+@Service
+public class AccessKeyAllocator {
+
+    private static final String SEQUENCE_NAME = "private_access_key";
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final char[] LEAD_ALPHABET = "GHJKMNPQRSTVWXYZ".toCharArray();
+    // The 32 symbols followed by Crockford's 5 extra check symbols
+    private static final char[] CHECK_ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ*~$=U".toCharArray();
+    private static final int BODY_LENGTH = 6;
+    // 4 bits of lead letter + 6 * 5 bits of body
+    private static final int VALUE_BITS = 34;
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+
+    @Autowired
+    private KeySequenceRepository keySequenceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${sessions.access-key.block-size:1000}")
+    private int blockSize;
+
+    private TransactionTemplate reserveTransaction;
+
+    // Current block [next, limit)
+    private long next;
+    private long limit;
+
+    @PostConstruct
+    void init() {
+        reserveTransaction = new TransactionTemplate(transactionManager);
+        reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Next unused access key.
+     */
+    public String nextKey() {
+        return encode(nextValue());
+    }
+
+    /**
+     * Whether a key has the allocator's format. User-chosen keys of this shape are
+     * refused, since they could later be handed out by the allocator. Case is ignored,
+     * like in the case-insensitive unique index on access keys.
+     */
+    public static boolean isAllocatorKey(String key) {
+        if (key == null || key.length() != BODY_LENGTH + 2) {
+            return false;
+        }
+        key = key.toUpperCase(Locale.ROOT);
+        if (indexOf(LEAD_ALPHABET, key.charAt(0)) < 0) {
+            return false;
+        }
+        for (int i = 1; i <= BODY_LENGTH; i++) {
+            if (indexOf(ALPHABET, key.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return checkChar(key.substring(0, BODY_LENGTH + 1)) == key.charAt(BODY_LENGTH + 1);
+    }
+
+    // ======== Sequence blocks ========
+
+    private synchronized long nextValue() {
+        if (next >= limit) {
+            next = reserveBlock();
+            limit = next + blockSize;
+        }
+        return next++;
+    }
+
+    private long reserveBlock() {
+        try {
+            return reserveTransaction.execute(status -> reserveBlockLocked());
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the sequence row first; it exists now
+            return reserveTransaction.execute(status -> reserveBlockLocked());
+        }
+    }
+
+    private long reserveBlockLocked() {
+        KeySequence sequence = keySequenceRepository.findForUpdate(SEQUENCE_NAME)
+                .orElseGet(() -> new KeySequence(SEQUENCE_NAME, 0L));
+        long start = sequence.getNextValue();
+        if (start + blockSize > VALUE_MASK) {
+            throw new IllegalStateException("Access key space exhausted");
+        }
+        sequence.setNextValue(start + blockSize);
+        keySequenceRepository.saveAndFlush(sequence);
+        return start;
+    }
+
+    // ======== Encoding ========
+
+    static String encode(long sequenceValue) {
+        long value = scramble(sequenceValue);
+        StringBuilder key = new StringBuilder(BODY_LENGTH + 2);
+        key.append(LEAD_ALPHABET[(int) (value >>> (BODY_LENGTH * 5))]);
+        for (int i = BODY_LENGTH - 1; i >= 0; i--) {
+            key.append(ALPHABET[(int) ((value >>> (i * 5)) & 31)]);
+        }
+        key.append(checkChar(key));
+        return key.toString();
+    }
+
+    // Bijection on 34-bit values: odd multipliers and xor-shifts are invertible modulo 2^34
+    private static long scramble(long value) {
+        long x = (value ^ 0x2B5A7C3E1L) & VALUE_MASK;
+        x = (x * 0x2545F491L) & VALUE_MASK;
+        x ^= x >>> 17;
+        x = (x * 0x9E3779B1L) & VALUE_MASK;
+        x ^= x >>> 13;
+        return x;
+    }
+
+    // Position-weighted sum modulo 37: symbol indexes (0-31) and weights (1-7) are all
+    // below the prime, so a single wrong character or swapped neighbours always change it
+    private static char checkChar(CharSequence payload) {
+        int sum = 0;
+        for (int i = 0; i < payload.length(); i++) {
+            sum += (i + 1) * indexOf(ALPHABET, payload.charAt(i));
+        }
+        return CHECK_ALPHABET[sum % CHECK_ALPHABET.length];
+    }
+
+    private static int indexOf(char[] alphabet, char c) {
+        for (int i = 0; i < alphabet.length; i++) {
+            if (alphabet[i] == c) return i;
+        }
+        return -1;
+    }
+}
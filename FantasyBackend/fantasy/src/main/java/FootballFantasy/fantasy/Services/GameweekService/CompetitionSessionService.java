@@ -1,22 +1,28 @@
 package FootballFantasy.fantasy.Services.GameweekService;
 
 import FootballFantasy.fantasy.Entities.GameweekEntities.*;
+import FootballFantasy.fantasy.Entities.PaiementEntities.LedgerEntryType;
 import FootballFantasy.fantasy.Entities.UserEntities.UserEntity;
+import FootballFantasy.fantasy.Events.SessionCreatedEvent;
+import FootballFantasy.fantasy.Events.SessionPoolLowEvent;
 import FootballFantasy.fantasy.Exceptions.BusinessLogicException;
 import FootballFantasy.fantasy.Repositories.GameweekRepositories.*;
 import FootballFantasy.fantasy.Repositories.UserRepositories.UserRepository;
+import FootballFantasy.fantasy.Services.PaiementService.BalanceService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 public class CompetitionSessionService {
@@ -39,9 +45,39 @@ public class CompetitionSessionService {
     @Autowired
     private PredictionService predictionService;
 
+    @Autowired
+    private PublicSessionMatchmaker publicSessionMatchmaker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AccessKeyAllocator accessKeyAllocator;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Value("${sessions.pool.low-watermark:1}")
+    private int poolLowWatermark;
+
+    @Value("${sessions.pool.enabled:true}")
+    private boolean poolEnabled;
+
     // Platform fee percentage (10%)
     private static final BigDecimal PLATFORM_FEE_PERCENTAGE = new BigDecimal("0.10");
 
+    private static final Comparator<SessionParticipation> RANKING_ORDER = Comparator
+            .comparingDouble((SessionParticipation p) -> p.getAccuracyPercentage()).reversed()
+            .thenComparingDouble(p -> p.getTiebreakerScore() != null
+                    ? p.getTiebreakerScore()
+                    : SessionParticipation.NO_TIEBREAKER_SCORE)
+            .thenComparing(Comparator.comparingInt(SessionParticipation::getTotalCorrectPredictions).reversed())
+            .thenComparing(SessionParticipation::getJoinedAt);
+
+    /**
+     * Resolves the session to join. For public sessions a seat is already claimed from
+     * the matchmaker when this returns (released again if the transaction rolls back).
+     */
     @Transactional
     public CompetitionSession joinOrCreateSession(Long gameweekId,
                                                   SessionType sessionType,
@@ -73,25 +109,19 @@ public class CompetitionSessionService {
 
             if (isCreatingPrivateSession) {
                 // 3️⃣ Determine key to use for new private session
-                String keyToUse;
+                String keyToUse = null;
 
                 if (accessKeyFromUser != null && !accessKeyFromUser.trim().isEmpty()) {
-                    // Check if key already exists anywhere for same competition
-                    Optional<CompetitionSession> existing = competitionSessionRepository
-                            .findPrivateSessionByAccessKeyAnyGameweek(accessKeyFromUser.trim(), competition);
-
-                    if (existing.isPresent()) {
-                        // Key exists → generate new unique key
-                        System.out.println("⚠️ Frontend key already exists, generating new backend key");
-                        keyToUse = ensureUniqueAccessKeyForCompetition(competition);
+                    String desired = accessKeyFromUser.trim();
+                    // Allocator-shaped keys are reserved; otherwise check the key is free anywhere for same competition
+                    if (AccessKeyAllocator.isAllocatorKey(desired) || desired.length() > 8 || competitionSessionRepository
+                            .findPrivateSessionByAccessKeyAnyGameweek(desired, competition).isPresent()) {
+                        System.out.println("⚠️ Frontend key unavailable, using an allocated key");
                     } else {
-                        // Safe to use frontend key
-                        keyToUse = accessKeyFromUser.trim();
+                        keyToUse = desired;
                     }
-                } else {
-                    // No frontend key → generate backend key
-                    keyToUse = ensureUniqueAccessKeyForCompetition(competition);
                 }
+                // No usable frontend key → allocated key (unique by construction)
 
                 // 4️⃣ Create the private session
                 session = createNewSessionFromTemplate(gameWeek, template, true, competition, keyToUse);
@@ -108,38 +138,58 @@ public class CompetitionSessionService {
             }
 
         } else {
-            // 6️⃣ Public session: try to join existing, otherwise create new
-            session = competitionSessionRepository
-                    .findAvailableSessionWithLock(gameweekId, competition, sessionType, buyInAmount)
-                    .orElseGet(() -> createNewSessionFromTemplate(gameWeek, template, false, competition));
+            // 6️⃣ Public session: take a free seat from the pre-provisioned pool
+            Optional<CompetitionSession> claimed = claimPublicSeat(gameweekId, competition, sessionType, buyInAmount);
+            if (claimed.isEmpty()
+                    || publicSessionMatchmaker.openSessionCount(gameweekId, competition, sessionType, buyInAmount) <= poolLowWatermark) {
+                eventPublisher.publishEvent(new SessionPoolLowEvent(this, gameweekId, template.getId()));
+            }
+            if (claimed.isPresent()) {
+                session = claimed.get();
+            } else if (!poolEnabled || !publicSessionMatchmaker.isProvisioned(gameweekId, competition, sessionType, buyInAmount)) {
+                // No provisioner behind this pool (disabled, or not run for it yet): open one inline
+                session = createNewSessionFromTemplate(gameWeek, template, false, competition);
+                publicSessionMatchmaker.registerClaimedSession(session);
+            } else {
+                throw new BusinessLogicException(
+                        "No open session available right now, please retry in a few seconds",
+                        "SESSION_POOL_EMPTY"
+                );
+            }
         }
 
         return session;
     }
 
-    private String generateUniqueAccessKey() {
-        // Basic token; prefer ensureUniqueAccessKeyForCompetition when competition is known
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 8).toUpperCase();
-    }
-
-    private String generateAccessKeyToken() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 8).toUpperCase();
-    }
-
-    private String ensureUniqueAccessKeyForCompetition(LeagueTheme competition) {
-        // Try a few candidates to avoid SQL unique constraint violations
-        for (int i = 0; i < 5; i++) {
-            String candidate = generateAccessKeyToken();
-            Optional<CompetitionSession> existing = competitionSessionRepository
-                    .findPrivateSessionByAccessKeyAnyGameweek(candidate, competition);
-            if (existing.isEmpty()) {
-                return candidate;
+    // Sessions closed since they were pooled are dropped from the matchmaker and skipped
+    private Optional<CompetitionSession> claimPublicSeat(Long gameweekId, LeagueTheme competition,
+                                                         SessionType sessionType, BigDecimal buyInAmount) {
+        while (true) {
+            Optional<Long> sessionId = publicSessionMatchmaker.claimSeat(gameweekId, competition, sessionType, buyInAmount);
+            if (sessionId.isEmpty()) {
+                return Optional.empty();
+            }
+            Optional<CompetitionSession> session;
+            try {
+                session = competitionSessionRepository.findById(sessionId.get());
+            } catch (RuntimeException e) {
+                publicSessionMatchmaker.abandonSeat(sessionId.get());
+                throw e;
+            }
+            if (session.isPresent() && isJoinablePublicSession(session.get())) {
+                // Only a seat of a joinable session is ever counted into the stored counter
+                publicSessionMatchmaker.confirmSeat(sessionId.get());
+                return session;
             }
+            publicSessionMatchmaker.evict(sessionId.get());
         }
-        // As a last resort, return a token; DB constraint will still protect
-        return generateAccessKeyToken();
     }
 
+    private boolean isJoinablePublicSession(CompetitionSession session) {
+        boolean open = session.getStatus() == CompetitionSessionStatus.OPEN
+                || session.getStatus() == CompetitionSessionStatus.FULL;
+        return open && LocalDateTime.now().isBefore(session.getJoinDeadline());
+    }
 
     /**
      * 🏗️ Create actual session (saved to DB)
@@ -178,104 +228,94 @@ public class CompetitionSessionService {
         session.setTotalPrizePool(BigDecimal.ZERO);
 
         if (isPrivate) {
-            String accessKey;
-            if (desiredAccessKey != null && !desiredAccessKey.isBlank()) {
-                accessKey = desiredAccessKey.trim();
-                // Ensure uniqueness across competition
-                Optional<CompetitionSession> existing = competitionSessionRepository
-                        .findPrivateSessionByAccessKeyAnyGameweek(accessKey, competition);
-                if (existing.isPresent()) {
-                    System.out.println("⚠️ Desired access key already exists for competition. Generating unique key.");
-                    accessKey = ensureUniqueAccessKeyForCompetition(competition);
-                }
-            } else {
-                accessKey = ensureUniqueAccessKeyForCompetition(competition);
-            }
-
-            // Enforce max 8 chars
-            if (accessKey.length() > 8) {
-                accessKey = accessKey.substring(0, 8).toUpperCase();
-            }
-
-            session.setAccessKey(accessKey);
+            // Keys from the allocator never collide; a caller-chosen key was checked by the caller
+            session.setAccessKey(desiredAccessKey != null && !desiredAccessKey.isBlank()
+                    ? desiredAccessKey.trim()
+                    : accessKeyAllocator.nextKey());
         }
 
+        CompetitionSession saved;
         try {
-            return competitionSessionRepository.save(session);
+            saved = competitionSessionRepository.save(session);
         } catch (DataIntegrityViolationException ex) {
-            // Handle rare race or key used in another competition/gameweek (global unique index)
-            if (isPrivate && session.getAccessKey() != null) {
-                System.out.println("⚠️ Unique constraint hit for access key '" + session.getAccessKey() + "'. Retrying with a new key.");
-                // Retry once with a fresh unique key
-                String newKey = ensureUniqueAccessKeyForCompetition(session.getCompetition());
-                session.setAccessKey(newKey);
-                try {
-                    return competitionSessionRepository.save(session);
-                } catch (DataIntegrityViolationException ex2) {
-                    throw new BusinessLogicException(
-                            "Access key is already taken. Please try again.",
-                            "ACCESS_KEY_CONFLICT"
-                    );
-                }
+            // A caller-chosen key taken concurrently (global unique index)
+            if (isPrivate && desiredAccessKey != null && !desiredAccessKey.isBlank()) {
+                System.out.println("⚠️ Unique constraint hit for access key '" + session.getAccessKey() + "'. Retrying with an allocated key.");
+                session.setAccessKey(accessKeyAllocator.nextKey());
+                saved = competitionSessionRepository.save(session);
+            } else {
+                throw ex;
             }
-            throw ex;
         }
-    }
 
-    // 🏆 Determine Winner and Assign Ranks with Balance Update
-    @Transactional
-    public void determineWinner(Long sessionId) {
-        CompetitionSession session = competitionSessionRepository.findById(sessionId)
-                .orElseThrow(() -> new RuntimeException("Competition session not found"));
+        // ⏰ Index the join deadline so the session is closed right when it passes
+        eventPublisher.publishEvent(new SessionCreatedEvent(this, saved.getId(), saved.getJoinDeadline()));
+        return saved;
+    }
 
-        List<SessionParticipation> participations = session.getParticipations();
+    // ======== Settlement phases (each one is safe to re-run until the next one committed) ========
 
-        if (participations.isEmpty()) {
-            throw new RuntimeException("No participants found in this session");
+    /**
+     * Locks the session for a settlement phase. Null when it was already closed by another
+     * path (deadline refund, manual cancel, earlier payout), which must not pay it again.
+     */
+    private CompetitionSession lockForSettlement(Long sessionId) {
+        CompetitionSession session = competitionSessionRepository.findByIdForUpdate(sessionId)
+                .orElseThrow(() -> new RuntimeException("Competition session not found"));
+        if (session.getStatus() == CompetitionSessionStatus.CANCELLED
+                || session.getStatus() == CompetitionSessionStatus.FINISHED) {
+            System.out.println("⏭️ Session " + sessionId + " already " + session.getStatus() + ", skipping settlement phase");
+            return null;
         }
+        return session;
+    }
 
-        // 🚨 SPECIAL CASE: One-vs-One with only 1 participant = REFUND
-        if (session.getSessionType() == SessionType.ONE_VS_ONE && participations.size() == 1) {
-            handleOneVsOneRefund(session, participations.get(0));
+    /**
+     * Phase 1 – recompute accuracy / tiebreaker score of every participant.
+     */
+    @Transactional
+    public void scoreSession(Long sessionId) {
+        CompetitionSession session = lockForSettlement(sessionId);
+        if (session == null) {
             return;
         }
 
-        // 🚨 SPECIAL CASE: Any session with only 1 participant = REFUND
-        if (participations.size() == 1) {
-            handleSingleParticipantRefund(session, participations.get(0));
+        for (SessionParticipation participation : session.getParticipations()) {
+            predictionService.calculatePredictionAccuracy(participation.getId());
+        }
+    }
+
+    /**
+     * Phase 2 – assign rankings and the winner's prize. No money moves here.
+     */
+    @Transactional
+    public void rankSession(Long sessionId) {
+        CompetitionSession session = lockForSettlement(sessionId);
+        if (session == null) {
             return;
         }
 
-        // 1. Calculate accuracy for all participants first
-        for (SessionParticipation participation : participations) {
-            predictionService.calculatePredictionAccuracy(participation.getId());
+        // Sessions with 0 or 1 participant are cancelled / refunded in the payout phase
+        List<SessionParticipation> participations = new ArrayList<>(session.getParticipations());
+        if (participations.size() < 2) {
+            return;
         }
 
-        // 2. Enhanced sorting with tiebreaker
-        participations.sort(Comparator
-                .comparingDouble(SessionParticipation::getAccuracyPercentage).reversed()
-                .thenComparingDouble(p -> predictionService.getTiebreakerScore(p.getId()))
-                .thenComparingInt(SessionParticipation::getTotalCorrectPredictions).reversed()
-                .thenComparing(SessionParticipation::getJoinedAt));
+        // In-memory ranking on precomputed keys (no query per comparison):
+        // best accuracy, then lowest tiebreaker distance, then most correct, then earliest join
+        participations.sort(RANKING_ORDER);
 
-        // 3. Calculate prize amounts (with platform fee)
-        BigDecimal totalPrizePool = session.getTotalPrizePool();
-        BigDecimal platformFee = totalPrizePool.multiply(PLATFORM_FEE_PERCENTAGE).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal winnerPrize = totalPrizePool.subtract(platformFee);
+        // Calculate prize amounts (with platform fee)
+        BigDecimal winnerPrize = getSessionPrizeBreakdown(session).getWinnerPrize();
 
-        // 4. Assign ranks and update winner's balance
         int ranking = 1;
-        SessionParticipation winner = null;
-
         for (SessionParticipation p : participations) {
             p.setRanking(ranking);
             if (ranking == 1) {
                 // Winner gets prize minus platform fee
                 p.setPrizeWon(winnerPrize);
                 p.setIsWinner(true);
-                winner = p;
                 session.setWinner(p.getUser());
-                session.setStatus(CompetitionSessionStatus.FINISHED);
             } else {
                 // Others get nothing
                 p.setPrizeWon(BigDecimal.ZERO);
@@ -284,25 +324,56 @@ public class CompetitionSessionService {
             ranking++;
         }
 
-        // 5. Update winner's balance in their account
-        if (winner != null) {
-            UserEntity winnerUser = winner.getUser();
-            BigDecimal currentBalance = winnerUser.getBalance();
-            BigDecimal newBalance = currentBalance.add(winnerPrize);
-            winnerUser.setBalance(newBalance);
+        sessionParticipationRepository.saveAll(participations);
+        competitionSessionRepository.save(session);
+    }
+
+    /**
+     * Phase 3 – move the money and close the session. Must run exactly once per session
+     * (GameweekSettlementService commits its journal entry in the same transaction).
+     */
+    @Transactional
+    public void paySession(Long sessionId) {
+        CompetitionSession session = lockForSettlement(sessionId);
+        if (session == null) {
+            return;
+        }
+
+        List<SessionParticipation> participations = session.getParticipations();
 
-            // Save the updated user balance
-            userRepository.save(winnerUser);
+        if (participations.isEmpty()) {
+            cancelEmptySession(sessionId);
+            return;
+        }
 
-            System.out.println("✅ Winner " + winnerUser.getId() + " received prize: " + winnerPrize +
-                    " (Platform fee: " + platformFee + ")");
-            System.out.println("💰 Winner's balance updated from " + currentBalance + " to " + newBalance);
+        // 🚨 SPECIAL CASE: One-vs-One with only 1 participant = REFUND
+        if (session.getSessionType() == SessionType.ONE_VS_ONE && participations.size() == 1) {
+            handleOneVsOneRefund(session, participations.get(0));
+            return;
         }
 
-        // 6. Persist all changes
-        sessionParticipationRepository.saveAll(participations);
+        // 🚨 SPECIAL CASE: Any session with only 1 participant = REFUND
+        if (participations.size() == 1) {
+            handleSingleParticipantRefund(session, participations.get(0));
+            return;
+        }
+
+        SessionParticipation winner = participations.stream()
+                .filter(p -> Boolean.TRUE.equals(p.getIsWinner()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Session " + sessionId + " has not been ranked"));
+
+        // Update winner's balance in their account (atomic, sessions may settle in parallel)
+        UserEntity winnerUser = winner.getUser();
+        balanceService.credit(winnerUser.getId(), winner.getPrizeWon(), LedgerEntryType.PRIZE, session.getId());
+
+        session.setStatus(CompetitionSessionStatus.FINISHED);
         competitionSessionRepository.save(session);
+
+        System.out.println("✅ Winner " + winnerUser.getId() + " received prize: " + winner.getPrizeWon() +
+                " (Platform fee: " + getSessionPrizeBreakdown(session).getPlatformFee() + ")");
     }
+
     // 🔄 Handle One-vs-One Refund (NO platform fee - full refund)
     @Transactional
     public void handleOneVsOneRefund(CompetitionSession session, SessionParticipation onlyParticipant) {
@@ -321,16 +392,11 @@ public class CompetitionSessionService {
 
         // Refund user's balance (full amount, no platform fee)
         UserEntity user = onlyParticipant.getUser();
-        BigDecimal currentBalance = user.getBalance();
-        BigDecimal newBalance = currentBalance.add(refundAmount);
-        user.setBalance(newBalance);
-
-        userRepository.save(user);
+        balanceService.credit(user.getId(), refundAmount, LedgerEntryType.REFUND, session.getId());
         sessionParticipationRepository.save(onlyParticipant);
         competitionSessionRepository.save(session);
 
         System.out.println("✅ Refund issued: " + refundAmount + " to user " + user.getId());
-        System.out.println("💰 User's balance updated from " + currentBalance + " to " + newBalance);
     }
 
     // 🔄 Handle Any Single Participant Refund
@@ -351,64 +417,14 @@ public class CompetitionSessionService {
 
         // Refund user's balance
         UserEntity user = onlyParticipant.getUser();
-        BigDecimal currentBalance = user.getBalance();
-        BigDecimal newBalance = currentBalance.add(refundAmount);
-        user.setBalance(newBalance);
-
-        userRepository.save(user);
+        balanceService.credit(user.getId(), refundAmount, LedgerEntryType.REFUND, session.getId());
         sessionParticipationRepository.save(onlyParticipant);
         competitionSessionRepository.save(session);
 
         System.out.println("✅ Single participant refund: " + refundAmount + " to user " + user.getId());
-        System.out.println("💰 User's balance updated from " + currentBalance + " to " + newBalance);
     }
 
 
-    // Automatic winner determination after matches are finished
-    @Transactional
-    public void determineWinnersForCompletedGameWeek(Long gameWeekId) {
-        List<CompetitionSession> sessions = competitionSessionRepository.findByGameweekId(gameWeekId);
-
-        for (CompetitionSession session : sessions) {
-            if (session.getStatus() != CompetitionSessionStatus.FINISHED) {
-                try {
-                    determineWinner(session.getId()); // Use the main method
-                    System.out.println("✅ Winner determined for session " + session.getId());
-                } catch (Exception e) {
-                    System.err.println("❌ Error determining winner for session " + session.getId() + ": " + e.getMessage());
-                    e.printStackTrace(); // Add stack trace for debugging
-                }
-            }
-        }
-    }
-
-    /**
-     * 🔐 Admin-triggered fallback to manually determine winners for a GameWeek.
-     */
-    @Transactional
-    public void manuallyTriggerWinnerDetermination(Long gameWeekId) {
-        List<CompetitionSession> sessions = competitionSessionRepository.findByGameweekId(gameWeekId);
-
-        if (sessions.isEmpty()) {
-            throw new RuntimeException("No competition sessions found for GameWeek ID: " + gameWeekId);
-        }
-
-        int processedSessions = 0;
-        for (CompetitionSession session : sessions) {
-            if (session.getStatus() != CompetitionSessionStatus.FINISHED) {
-                try {
-                    determineWinner(session.getId());
-                    processedSessions++;
-                    System.out.println("✅ Manually determined winner for session " + session.getId());
-                } catch (Exception e) {
-                    System.err.println("❌ Error manually determining winner for session " + session.getId() + ": " + e.getMessage());
-                }
-            }
-        }
-
-        System.out.println("🎯 Manual winner determination completed. Processed " + processedSessions + " sessions.");
-    }
-
     /**
      * Get session prize breakdown for transparency
      */
@@ -416,6 +432,10 @@ public class CompetitionSessionService {
         CompetitionSession session = competitionSessionRepository.findById(sessionId)
                 .orElseThrow(() -> new RuntimeException("Competition session not found"));
 
+        return getSessionPrizeBreakdown(session);
+    }
+
+    private SessionPrizeBreakdown getSessionPrizeBreakdown(CompetitionSession session) {
         BigDecimal totalPrizePool = session.getTotalPrizePool();
         BigDecimal platformFee = totalPrizePool.multiply(PLATFORM_FEE_PERCENTAGE).setScale(2, RoundingMode.HALF_UP);
         BigDecimal winnerPrize = totalPrizePool.subtract(platformFee);
@@ -447,10 +467,48 @@ public class CompetitionSessionService {
         public BigDecimal getPlatformFee() { return platformFee; }
         public BigDecimal getWinnerPrize() { return winnerPrize; }
     }
-    public List<CompetitionSession> findExpiredOpenSessions(LocalDateTime now) {
-        return competitionSessionRepository.findByStatusAndJoinDeadlineBefore(
-                CompetitionSessionStatus.OPEN, now);
+
+    /**
+     * Closes a session whose join deadline passed without enough players: every
+     * participant gets the buy-in back and the session is cancelled, in one transaction.
+     * Sessions that filled up or already closed are left alone. Returns the join deadline
+     * when it has not passed yet (the deadline moved, or the timer fired early after a
+     * clock adjustment), so the caller can schedule the session again.
+     */
+    @Transactional
+    public Optional<LocalDateTime> closeExpiredSession(Long sessionId) {
+        // Same row lock as joins: joins still in flight commit first and are counted below
+        CompetitionSession session = competitionSessionRepository.findByIdForUpdate(sessionId).orElse(null);
+        if (session == null || session.getStatus() != CompetitionSessionStatus.OPEN || session.getJoinDeadline() == null) {
+            return Optional.empty();
+        }
+        if (LocalDateTime.now().isBefore(session.getJoinDeadline())) {
+            return Optional.of(session.getJoinDeadline());
+        }
+
+        // Nobody can join any more
+        publicSessionMatchmaker.evict(sessionId);
+
+        List<SessionParticipation> participations = sessionParticipationRepository.findBySessionIdOrderByAccuracyPercentageDesc(sessionId);
+        if (participations.size() >= 2) {
+            return Optional.empty();
+        }
+
+        for (SessionParticipation p : participations) {
+            balanceService.credit(p.getUser().getId(), p.getAmountPaid(), LedgerEntryType.REFUND, sessionId);
+            p.setPrizeWon(p.getAmountPaid());
+            p.setStatus(ParticipationStatus.REFUNDED);
+        }
+        sessionParticipationRepository.saveAll(participations);
+
+        session.setStatus(CompetitionSessionStatus.CANCELLED);
+        competitionSessionRepository.save(session);
+
+        System.out.println("💰 Session " + sessionId + " expired with " + participations.size() +
+                " participant(s): refunded and cancelled");
+        return Optional.empty();
     }
+
     @Transactional
     public void cancelEmptySession(Long sessionId) {
         CompetitionSession session = competitionSessionRepository.findById(sessionId)
@@ -473,8 +531,7 @@ public class CompetitionSessionService {
 
             // Refund user balance
             UserEntity user = p.getUser();
-            user.setBalance(user.getBalance().add(refundAmount));
-            userRepository.save(user);
+            balanceService.credit(user.getId(), refundAmount, LedgerEntryType.REFUND, sessionId);
 
             // Update participation
             p.setPrizeWon(refundAmount);
@@ -513,8 +570,7 @@ public class CompetitionSessionService {
         for (SessionParticipation p : session.getParticipations()) {
             BigDecimal refundAmount = p.getAmountPaid();
             UserEntity user = p.getUser();
-            user.setBalance(user.getBalance().add(refundAmount));
-            userRepository.save(user);
+            balanceService.credit(user.getId(), refundAmount, LedgerEntryType.REFUND, sessionId);
 
             p.setPrizeWon(refundAmount);
             sessionParticipationRepository.save(p);
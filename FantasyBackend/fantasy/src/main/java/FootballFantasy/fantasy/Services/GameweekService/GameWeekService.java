@@ -9,7 +9,6 @@ import FootballFantasy.fantasy.Services.DataService.TeamIconService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -31,7 +30,7 @@ public class GameWeekService {
     private ApplicationEventPublisher applicationEventPublisher;
 
     @Autowired
-    private CompetitionSessionService competitionSessionService;
+    private GameweekSettlementService gameweekSettlementService;
 
     @Autowired
     private TeamIconService teamIconService;
@@ -421,10 +420,10 @@ public class GameWeekService {
     private void triggerPostGameWeekFinishedActions(GameWeek gameWeek) {
         System.out.println("🏆 GameWeek " + gameWeek.getId() + " finished. Triggering AUTOMATIC post-processing...");
 
-        // ✅ SINGLE CALL: This handles everything (accuracy calculation + winner determination + prize distribution)
-        competitionSessionService.determineWinnersForCompletedGameWeek(gameWeek.getId());
+        // ✅ SINGLE CALL: scoring + winner determination + prize distribution, per session in parallel
+        gameweekSettlementService.settleGameweekAfterCommit(gameWeek.getId());
 
-        System.out.println("✅ AUTOMATIC post-processing for gameweek " + gameWeek.getId() + " completed.");
+        System.out.println("✅ AUTOMATIC post-processing for gameweek " + gameWeek.getId() + " scheduled.");
     }
 
     /**
@@ -741,51 +740,6 @@ public class GameWeekService {
         }
     }
 
-    // ✅ NEW: Scheduled task to handle expired sessions (runs every 5 minutes)
-    @Scheduled(fixedRate = 300000) // 5 minutes
-    @Transactional
-    public void processExpiredSessions() {
-        System.out.println("🔍 Checking for expired sessions that need refunds...");
-
-        LocalDateTime now = LocalDateTime.now();
-
-        // Find sessions that are OPEN but past their join deadline
-        // Note: You'll need to add this method to CompetitionSessionRepository
-        try {
-            List<CompetitionSession> expiredSessions = competitionSessionService
-                    .findExpiredOpenSessions(now);
-
-            for (CompetitionSession session : expiredSessions) {
-                try {
-                    System.out.println("⏰ Processing expired session: " + session.getId());
-
-                    // If it's a one-vs-one with only 1 participant, refund them
-                    if (session.getSessionType() == SessionType.ONE_VS_ONE &&
-                            session.getCurrentParticipants() == 1) {
-
-                        competitionSessionService.determineWinner(session.getId()); // This will trigger refund logic
-                        System.out.println("✅ Refund processed for expired one-vs-one session: " + session.getId());
-
-                    } else if (session.getCurrentParticipants() == 1) {
-                        // Any session with only 1 participant gets refunded
-                        competitionSessionService.determineWinner(session.getId());
-                        System.out.println("✅ Refund processed for expired single-participant session: " + session.getId());
-
-                    } else if (session.getCurrentParticipants() == 0) {
-                        // Mark as cancelled if no participants
-                        competitionSessionService.cancelEmptySession(session.getId());
-                        System.out.println("❌ Cancelled expired session with no participants: " + session.getId());
-                    }
-
-                } catch (Exception e) {
-                    System.err.println("❌ Error processing expired session " + session.getId() + ": " + e.getMessage());
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("❌ Error in processExpiredSessions: " + e.getMessage());
-        }
-    }
-
     public boolean updateStatusIfRescheduled(Long gameweekId) {
         System.out.println("🔁 GameWeekService.updateStatusIfRescheduled called for gameweek ID: " + gameweekId);
 
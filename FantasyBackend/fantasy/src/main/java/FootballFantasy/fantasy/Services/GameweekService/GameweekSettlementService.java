@@ -0,0 +1,407 @@
+package FootballFantasy.fantasy.Services.GameweekService;
+
+import FootballFantasy.fantasy.Entities.GameweekEntities.*;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.CompetitionSessionRepository;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.MatchRepository;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.SessionSettlementRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Settles a finished gameweek: scores its matches, then settles every session as an
+ * independent partition on a bounded worker pool.
+ *
+ * Each session is settled through journaled phases (scored, ranked, paid). Every phase
+ * runs in its own transaction that locks the session's {@link SessionSettlement} entry
+ * and records the phase on commit, so a retried or resumed run continues from the last
+ * committed phase and never pays twice. Sessions left half-settled by a crash are
+ * resumed at startup.
+ */
+@Service
+public class GameweekSettlementService {
+
+    @Autowired
+    private CompetitionSessionRepository competitionSessionRepository;
+
+    @Autowired
+    private SessionSettlementRepository sessionSettlementRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private PredictionService predictionService;
+
+    @Autowired
+    private CompetitionSessionService competitionSessionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${settlement.workers:0}")
+    private int workers;
+
+    @Value("${settlement.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${settlement.retry-backoff-ms:500}")
+    private long retryBackoffMs;
+
+    @Value("${settlement.recovery.enabled:true}")
+    private boolean recoveryEnabled;
+
+    private ExecutorService executor;
+    // Runs whole gameweek settlements handed over by status transitions, one at a time
+    private ExecutorService coordinator;
+    private TransactionTemplate partitionTransaction;
+    private final Map<Long, SettlementProgress> progressByGameweek = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(poolSize, r -> {
+            Thread t = new Thread(r, "settlement-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        coordinator = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "settlement-coordinator");
+            t.setDaemon(true);
+            return t;
+        });
+        partitionTransaction = new TransactionTemplate(transactionManager);
+        partitionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdown();
+        executor.shutdown();
+    }
+
+    // ======== Gameweek settlement ========
+
+    /**
+     * Entry point for status transitions: when called inside a transaction (e.g. the one
+     * that just marked the gameweek FINISHED) settlement starts only once it committed,
+     * so the partitions see its data and never wait on its locks. The settlement runs on
+     * the coordinator thread; the caller (polling, schedulers) returns right away.
+     */
+    public void settleGameweekAfterCommit(Long gameweekId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submitSettlement(gameweekId);
+                }
+            });
+        } else {
+            submitSettlement(gameweekId);
+        }
+    }
+
+    // Not on the partition pool: the coordinator blocks until its partitions are done
+    private void submitSettlement(Long gameweekId) {
+        coordinator.execute(() -> {
+            try {
+                settleGameweek(gameweekId);
+            } catch (Exception e) {
+                System.err.println("❌ Settlement of GameWeek " + gameweekId + " failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Scores the gameweek's finished matches and settles all its unsettled sessions in
+     * parallel. Blocks until every partition is settled, skipped or failed.
+     */
+    public SettlementProgress settleGameweek(Long gameweekId) {
+        System.out.println("🏆 Starting settlement for GameWeek " + gameweekId);
+
+        // Step 1: set-based scoring, one short transaction per match
+        List<Long> finishedMatchIds = partitionTransaction.execute(status ->
+                matchRepository.findByGameweeksIdAndActiveTrue(gameweekId).stream()
+                        .filter(Match::isFinished)
+                        .map(Match::getId)
+                        .toList());
+        for (Long matchId : finishedMatchIds) {
+            partitionTransaction.executeWithoutResult(status -> predictionService.scorePredictionsForMatch(matchId));
+        }
+
+        // Step 2: one partition per session still waiting for its result
+        List<Long> sessionIds = partitionTransaction.execute(status ->
+                competitionSessionRepository.findByGameweekId(gameweekId).stream()
+                        .filter(s -> s.getStatus() != CompetitionSessionStatus.FINISHED
+                                && s.getStatus() != CompetitionSessionStatus.CANCELLED)
+                        .map(CompetitionSession::getId)
+                        .toList());
+
+        return settleSessions(gameweekId, sessionIds);
+    }
+
+    /**
+     * Settles a single session (admin fallback). Returns false if it was already settled.
+     */
+    public boolean settleSession(Long sessionId) {
+        Long gameweekId = partitionTransaction.execute(status -> {
+            CompetitionSession session = competitionSessionRepository.findById(sessionId)
+                    .orElseThrow(() -> new RuntimeException("Competition session not found"));
+            return session.getGameweek() != null ? session.getGameweek().getId() : null;
+        });
+
+        SettlementProgress progress = new SettlementProgress(gameweekId, 1);
+        settleWithRetry(sessionId, gameweekId, progress);
+        if (progress.getFailed() > 0) {
+            throw new RuntimeException("Settlement failed for session " + sessionId);
+        }
+        return progress.getSettled() > 0;
+    }
+
+    public SettlementProgress getProgress(Long gameweekId) {
+        return progressByGameweek.get(gameweekId);
+    }
+
+    // ======== Crash recovery ========
+
+    /**
+     * Resumes settlements interrupted by a crash or restart: journal entries still
+     * PENDING, plus sessions of FINISHED gameweeks that never got a journal entry.
+     * Runs on its own thread so startup is not blocked.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedSettlements() {
+        if (!recoveryEnabled) {
+            return;
+        }
+        Thread recovery = new Thread(this::resumeInterruptedSettlements, "settlement-recovery");
+        recovery.setDaemon(true);
+        recovery.start();
+    }
+
+    void resumeInterruptedSettlements() {
+        try {
+            Map<Long, List<Long>> sessionsByGameweek = partitionTransaction.execute(status -> {
+                Set<Long> sessionIds = new LinkedHashSet<>(
+                        sessionSettlementRepository.findSessionIdsByStatus(SettlementStatus.PENDING));
+                sessionIds.addAll(competitionSessionRepository.findUnsettledSessionIdsOfFinishedGameweeks());
+
+                return competitionSessionRepository.findAllById(sessionIds).stream()
+                        .filter(s -> s.getStatus() != CompetitionSessionStatus.FINISHED
+                                && s.getStatus() != CompetitionSessionStatus.CANCELLED)
+                        .filter(s -> s.getGameweek() != null)
+                        .collect(Collectors.groupingBy(s -> s.getGameweek().getId(),
+                                Collectors.mapping(CompetitionSession::getId, Collectors.toList())));
+            });
+
+            int failedCount = sessionSettlementRepository.findSessionIdsByStatus(SettlementStatus.FAILED).size();
+            if (failedCount > 0) {
+                System.err.println("⚠️ " + failedCount + " session settlement(s) are FAILED and need a manual trigger");
+            }
+            if (sessionsByGameweek == null || sessionsByGameweek.isEmpty()) {
+                return;
+            }
+
+            System.out.println("🩺 Resuming interrupted settlements for gameweeks " + sessionsByGameweek.keySet());
+            sessionsByGameweek.forEach(this::settleSessions);
+        } catch (Exception e) {
+            System.err.println("❌ Settlement recovery failed: " + e.getMessage());
+        }
+    }
+
+    // ======== Partition execution ========
+
+    private SettlementProgress settleSessions(Long gameweekId, List<Long> sessionIds) {
+        SettlementProgress progress = new SettlementProgress(gameweekId, sessionIds.size());
+        progressByGameweek.put(gameweekId, progress);
+
+        List<CompletableFuture<Void>> partitions = sessionIds.stream()
+                .map(sessionId -> CompletableFuture.runAsync(
+                        () -> settleWithRetry(sessionId, gameweekId, progress), executor))
+                .toList();
+        CompletableFuture.allOf(partitions.toArray(new CompletableFuture[0])).join();
+
+        progress.finish();
+        System.out.println("🎉 Settlement for GameWeek " + gameweekId + " done: " + progress.summary());
+        return progress;
+    }
+
+    private void settleWithRetry(Long sessionId, Long gameweekId, SettlementProgress progress) {
+        ensureMarker(sessionId, gameweekId);
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                // Each attempt resumes after the last committed phase
+                if (runPhases(sessionId)) {
+                    progress.settled();
+                } else {
+                    progress.skipped();
+                }
+                return;
+            } catch (Exception e) {
+                boolean lastAttempt = attempt == maxAttempts;
+                System.err.println("❌ Settlement attempt " + attempt + "/" + maxAttempts +
+                        " failed for session " + sessionId + ": " + e.getMessage());
+                recordFailure(sessionId, e, lastAttempt);
+                if (lastAttempt) {
+                    progress.failed();
+                    return;
+                }
+                sleepQuietly(retryBackoffMs * attempt);
+            }
+        }
+    }
+
+    /**
+     * Runs the remaining phases of a session. Returns true if this call paid the session,
+     * false if it had already been paid.
+     */
+    private boolean runPhases(Long sessionId) {
+        boolean paid = false;
+        for (SettlementPhase phase : List.of(SettlementPhase.SCORED, SettlementPhase.RANKED, SettlementPhase.PAID)) {
+            Boolean ran = partitionTransaction.execute(status -> runPhase(sessionId, phase));
+            paid = phase == SettlementPhase.PAID && Boolean.TRUE.equals(ran);
+        }
+        return paid;
+    }
+
+    private boolean runPhase(Long sessionId, SettlementPhase phase) {
+        SessionSettlement marker = sessionSettlementRepository.findBySessionIdForUpdate(sessionId)
+                .orElseThrow(() -> new IllegalStateException("Missing settlement marker for session " + sessionId));
+
+        if (marker.getStatus() == SettlementStatus.SETTLED || !marker.getPhase().isBefore(phase)) {
+            return false; // committed by a previous or concurrent run
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        switch (phase) {
+            case SCORED -> {
+                competitionSessionService.scoreSession(sessionId);
+                marker.setScoredAt(now);
+            }
+            case RANKED -> {
+                competitionSessionService.rankSession(sessionId);
+                marker.setRankedAt(now);
+            }
+            case PAID -> {
+                competitionSessionService.paySession(sessionId);
+                marker.setPaidAt(now);
+                marker.setStatus(SettlementStatus.SETTLED);
+                marker.setAttempts(marker.getAttempts() + 1);
+                marker.setLastError(null);
+            }
+            default -> throw new IllegalArgumentException("Not a runnable phase: " + phase);
+        }
+
+        marker.setPhase(phase);
+        marker.setUpdatedAt(now);
+        sessionSettlementRepository.save(marker);
+        return true;
+    }
+
+    private void ensureMarker(Long sessionId, Long gameweekId) {
+        try {
+            partitionTransaction.executeWithoutResult(status -> {
+                if (sessionSettlementRepository.findBySessionId(sessionId).isPresent()) {
+                    return;
+                }
+                SessionSettlement marker = new SessionSettlement();
+                marker.setSessionId(sessionId);
+                marker.setGameweekId(gameweekId);
+                marker.setStatus(SettlementStatus.PENDING);
+                marker.setUpdatedAt(LocalDateTime.now());
+                sessionSettlementRepository.save(marker);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another run - fine
+        }
+    }
+
+    private void recordFailure(Long sessionId, Exception error, boolean lastAttempt) {
+        try {
+            partitionTransaction.executeWithoutResult(status ->
+                    sessionSettlementRepository.findBySessionId(sessionId).ifPresent(marker -> {
+                        if (marker.getStatus() == SettlementStatus.SETTLED) return;
+                        marker.setAttempts(marker.getAttempts() + 1);
+                        marker.setLastError(truncate(error.getMessage()));
+                        marker.setStatus(lastAttempt ? SettlementStatus.FAILED : SettlementStatus.PENDING);
+                        marker.setUpdatedAt(LocalDateTime.now());
+                        sessionSettlementRepository.save(marker);
+                    }));
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not record settlement failure for session " + sessionId + ": " + e.getMessage());
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null) return null;
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ======== Progress reporting ========
+    public static class SettlementProgress {
+        private final Long gameweekId;
+        private final int totalSessions;
+        private final AtomicInteger settled = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile LocalDateTime finishedAt;
+
+        public SettlementProgress(Long gameweekId, int totalSessions) {
+            this.gameweekId = gameweekId;
+            this.totalSessions = totalSessions;
+        }
+
+        void settled() { settled.incrementAndGet(); logProgress(); }
+        void skipped() { skipped.incrementAndGet(); logProgress(); }
+        void failed() { failed.incrementAndGet(); logProgress(); }
+        void finish() { finishedAt = LocalDateTime.now(); }
+
+        private void logProgress() {
+            System.out.println("📊 Settlement GameWeek " + gameweekId + ": " + getCompleted() + "/" + totalSessions);
+        }
+
+        String summary() {
+            return getSettled() + " settled, " + getSkipped() + " already settled, " + getFailed() + " failed";
+        }
+
+        public Long getGameweekId() { return gameweekId; }
+        public int getTotalSessions() { return totalSessions; }
+        public int getSettled() { return settled.get(); }
+        public int getSkipped() { return skipped.get(); }
+        public int getFailed() { return failed.get(); }
+        public int getCompleted() { return getSettled() + getSkipped() + getFailed(); }
+        public boolean isFinished() { return finishedAt != null; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+    }
+}
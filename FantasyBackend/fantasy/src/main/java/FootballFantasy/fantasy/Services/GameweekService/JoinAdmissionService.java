@@ -0,0 +1,271 @@
+package FootballFantasy.fantasy.Services.GameweekService;
+
+import FootballFantasy.fantasy.Exceptions.AdmissionRejectedException;
+import FootballFantasy.fantasy.Exceptions.BusinessLogicException;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.GameWeekRepository;
+import FootballFantasy.fantasy.Services.UserService.UserIdentityCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Admission control in front of the join / prediction submission transactions, which
+ * each hold a database connection for the whole join + debit + insert.
+ *
+ * Every user has a token bucket (burst + steady refill). Every gameweek has a fixed
+ * number of execution slots and a bounded queue of requests waiting for one; when the
+ * queue is full, or a request waited too long, it is rejected with a retry-after hint
+ * instead of piling up on the connection pool. Keep slots-per-gameweek times the number
+ * of gameweeks open at once below the Hikari pool size.
+ *
+ * Queued requests block their servlet thread, so the waiters of all gates together are
+ * capped by {@code admission.max-waiters}; keep it well below
+ * {@code server.tomcat.threads.max} so a rush on one gameweek never starves the other
+ * endpoints. Above the cap requests are rejected right away.
+ *
+ * Gates are created on the first request for a gameweek and dropped, with their gauge,
+ * by a periodic sweep once the gameweek's join deadline passed (or it no longer exists).
+ *
+ * Metrics: admission.queue.depth (gauge per gameweek), admission.wait (timer),
+ * admission.rejected (counter by reason).
+ */
+@Service
+public class JoinAdmissionService {
+
+    private final UserIdentityCache userIdentityCache;
+    private final GameWeekRepository gameWeekRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final int slotsPerGameweek;
+    private final int queueCapacity;
+    private final int maxWaiters;
+    private final long maxWaitMs;
+    private final int userBurst;
+    private final double userRefillPerSecond;
+
+    private final Map<Long, GameweekGate> gates = new ConcurrentHashMap<>();
+    // Requests blocked waiting for a slot, across all gameweeks
+    private final AtomicInteger totalWaiting = new AtomicInteger();
+    private final Cache<Long, TokenBucket> userBuckets;
+
+    private final Timer waitTimer;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+    private final Counter rejectedRateLimited;
+
+    public JoinAdmissionService(UserIdentityCache userIdentityCache,
+                                GameWeekRepository gameWeekRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${admission.slots-per-gameweek:4}") int slotsPerGameweek,
+                                @Value("${admission.queue-capacity:50}") int queueCapacity,
+                                @Value("${admission.max-waiters:50}") int maxWaiters,
+                                @Value("${admission.max-wait-ms:5000}") long maxWaitMs,
+                                @Value("${admission.user.burst:5}") int userBurst,
+                                @Value("${admission.user.refill-per-second:0.5}") double userRefillPerSecond) {
+        this.userIdentityCache = userIdentityCache;
+        this.gameWeekRepository = gameWeekRepository;
+        this.meterRegistry = meterRegistry;
+        this.slotsPerGameweek = slotsPerGameweek;
+        this.queueCapacity = queueCapacity;
+        this.maxWaiters = maxWaiters;
+        this.maxWaitMs = maxWaitMs;
+        this.userBurst = userBurst;
+        this.userRefillPerSecond = userRefillPerSecond;
+
+        // A bucket untouched long enough is full again, so it can simply be dropped
+        long idleSeconds = (long) Math.ceil(userBurst / userRefillPerSecond) + 1;
+        this.userBuckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofSeconds(idleSeconds))
+                .build();
+
+        this.waitTimer = Timer.builder("admission.wait")
+                .description("Time spent queued before a join slot was granted")
+                .register(meterRegistry);
+        Gauge.builder("admission.waiting", totalWaiting, AtomicInteger::get)
+                .description("Request threads blocked waiting for a join slot")
+                .register(meterRegistry);
+        this.rejectedQueueFull = rejectedCounter("queue_full");
+        this.rejectedTimeout = rejectedCounter("timeout");
+        this.rejectedRateLimited = rejectedCounter("rate_limited");
+    }
+
+    /**
+     * Runs {@code work} once the user passed the rate limit and a slot of the gameweek
+     * is free. Call outside of any transaction so queued requests hold no connection.
+     */
+    public <T> T admit(Long gameweekId, Long userId, Supplier<T> work) {
+        if (gameweekId == null || userId == null) {
+            return work.get();
+        }
+
+        // 1️⃣ Per-user rate limit
+        TokenBucket bucket = userBuckets.get(userId, id -> new TokenBucket(userBurst, userRefillPerSecond));
+        long retryAfterMs = bucket.tryConsume();
+        if (retryAfterMs > 0) {
+            rejectedRateLimited.increment();
+            throw new AdmissionRejectedException("Too many submissions, please slow down",
+                    "RATE_LIMITED", toRetryAfterSeconds(retryAfterMs));
+        }
+
+        // 2️⃣ Per-gameweek bounded queue, within the global cap on blocked request threads
+        GameweekGate gate = gates.computeIfAbsent(gameweekId, this::newGate);
+        if (gate.waiting.incrementAndGet() > queueCapacity) {
+            gate.waiting.decrementAndGet();
+            rejectedQueueFull.increment();
+            throw new AdmissionRejectedException("Too many requests for this gameweek right now, please retry",
+                    "ADMISSION_QUEUE_FULL", gate.estimatedRetryAfterSeconds());
+        }
+        if (totalWaiting.incrementAndGet() > maxWaiters) {
+            totalWaiting.decrementAndGet();
+            gate.waiting.decrementAndGet();
+            rejectedQueueFull.increment();
+            throw new AdmissionRejectedException("Too many requests right now, please retry",
+                    "ADMISSION_QUEUE_FULL", gate.estimatedRetryAfterSeconds());
+        }
+
+        long queuedAt = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = gate.slots.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessLogicException("Request interrupted while queued", "ADMISSION_INTERRUPTED");
+        } finally {
+            totalWaiting.decrementAndGet();
+            gate.waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejectedTimeout.increment();
+            throw new AdmissionRejectedException("Too many requests for this gameweek right now, please retry",
+                    "ADMISSION_TIMEOUT", gate.estimatedRetryAfterSeconds());
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            gate.recordServiceTime(System.nanoTime() - startedAt);
+            gate.slots.release();
+        }
+    }
+
+    public <T> T admitByKeycloakId(Long gameweekId, String keycloakId, Supplier<T> work) {
+        return admit(gameweekId, userIdentityCache.findUserId(keycloakId).orElse(null), work);
+    }
+
+    // ======== Gate cleanup ========
+
+    /**
+     * Drops the gates (and queue depth gauges) of gameweeks past their join deadline, or
+     * settled and gone. Requests still holding a dropped gate finish on it; a late request
+     * gets a fresh gate, dropped again by the next sweep.
+     */
+    @Scheduled(fixedDelayString = "${admission.gate-sweep-ms:60000}", initialDelayString = "${admission.gate-sweep-ms:60000}")
+    public void dropClosedGates() {
+        if (gates.isEmpty()) {
+            return;
+        }
+        Set<Long> closed = new HashSet<>(gates.keySet());
+        List<Long> open = gameWeekRepository.findIdsWithJoinDeadlineAfter(closed, LocalDateTime.now());
+        open.forEach(closed::remove);
+
+        for (Long gameweekId : closed) {
+            GameweekGate gate = gates.remove(gameweekId);
+            if (gate != null) {
+                meterRegistry.remove(gate.depthGauge);
+            }
+        }
+        if (!closed.isEmpty()) {
+            System.out.println("🚦 Dropped admission gates of " + closed.size() + " closed gameweek(s)");
+        }
+    }
+
+    // ======== Helpers ========
+
+    private GameweekGate newGate(Long gameweekId) {
+        GameweekGate gate = new GameweekGate(slotsPerGameweek);
+        gate.depthGauge = Gauge.builder("admission.queue.depth", gate.waiting, AtomicInteger::get)
+                .description("Requests waiting for a join slot")
+                .tag("gameweek", String.valueOf(gameweekId))
+                .register(meterRegistry);
+        return gate;
+    }
+
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder("admission.rejected")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static long toRetryAfterSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    private static final class GameweekGate {
+        private final Semaphore slots;
+        private final int slotCount;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private Gauge depthGauge;
+        // Exponential moving average of the time a request holds a slot
+        private volatile double avgServiceNanos = TimeUnit.MILLISECONDS.toNanos(200);
+
+        GameweekGate(int slotCount) {
+            this.slots = new Semaphore(slotCount, true);
+            this.slotCount = slotCount;
+        }
+
+        void recordServiceTime(long nanos) {
+            avgServiceNanos = avgServiceNanos * 0.9 + nanos * 0.1;
+        }
+
+        // Time for the current queue to drain through the slots
+        long estimatedRetryAfterSeconds() {
+            double drainNanos = avgServiceNanos * Math.max(1, waiting.get()) / slotCount;
+            return toRetryAfterSeconds((long) (drainNanos / 1_000_000));
+        }
+    }
+
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1_000_000_000d;
+            this.tokens = capacity;
+        }
+
+        // 0 when a token was taken, otherwise milliseconds until the next one
+        synchronized long tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerNano / 1_000_000);
+        }
+    }
+}
@@ -140,11 +140,17 @@ public class PredictionService {
             throw new RuntimeException("Submitted predictions must cover all matches");
         }
 
+        // Matches were loaded above; no per-prediction lookup
+        Map<Long, Match> matchesById = allMatches.stream()
+                .collect(Collectors.toMap(Match::getId, m -> m, (a, b) -> a));
+
         // Create predictions
         List<Prediction> predictions = submissionDTO.getPredictions().stream()
                 .map(dto -> {
-                    Match match = matchRepository.findById(dto.getMatchId())
-                            .orElseThrow(() -> new RuntimeException("Match not found"));
+                    Match match = matchesById.get(dto.getMatchId());
+                    if (match == null) {
+                        throw new RuntimeException("Match not found");
+                    }
 
                     boolean isTiebreaker = tieBreakerIds.contains(match.getId());
 
@@ -170,7 +176,7 @@ public class PredictionService {
                             .build();
                 }).collect(Collectors.toList());
 
-        // 🔥 THIS IS THE MISSING PIECE - SAVE TO DATABASE!
+        // 🔥 Pooled ids: inserted as JDBC batches at flush, together with the participation
         return predictionRepository.saveAll(predictions);
     }
 
@@ -191,6 +197,8 @@ public class PredictionService {
 
         int totalPredictions = completedPredictions.size();
         int totalCorrect = 0;
+        double tiebreakerDistanceSum = 0.0;
+        int tiebreakerCount = 0;
 
         for (Prediction prediction : completedPredictions) {
             boolean isCorrect = isPredictionCorrect(prediction);
@@ -206,6 +214,10 @@ public class PredictionService {
                         prediction.getMatch().getAwayScore()
                 );
             }
+            if (Boolean.TRUE.equals(prediction.getIsTiebreaker()) && prediction.getScoreDistance() != null) {
+                tiebreakerDistanceSum += prediction.getScoreDistance();
+                tiebreakerCount++;
+            }
 
             System.out.println("📌 Match: " + prediction.getMatch().getHomeTeam() + " vs " + prediction.getMatch().getAwayTeam() +
                     ", Predicted: " + prediction.getPredictedResult() +
@@ -219,6 +231,9 @@ public class PredictionService {
         double accuracy = totalPredictions == 0 ? 0.0 : (totalCorrect * 100.0) / totalPredictions;
         participation.setAccuracyPercentage(accuracy);
         participation.setHasCompletedAllPredictions(totalPredictions > 0);
+        participation.setTiebreakerScore(tiebreakerCount > 0
+                ? tiebreakerDistanceSum / tiebreakerCount
+                : SessionParticipation.NO_TIEBREAKER_SCORE);
 
         sessionParticipationRepository.save(participation);
         predictionRepository.saveAll(completedPredictions);
@@ -250,25 +265,6 @@ public class PredictionService {
         return prediction.getPredictedResult() == actualResult;
     }
 
-    // 📈 Update participation accuracy statistics
-    private void updateParticipationAccuracy(SessionParticipation participation,
-                                             List<Prediction> completedPredictions) {
-        int totalPredictions = completedPredictions.size();
-        int correctPredictions = (int) completedPredictions.stream()
-                .filter(p -> Boolean.TRUE.equals(p.getIsCorrect()))
-                .count();
-
-        participation.setTotalPredictions(totalPredictions);
-        participation.setTotalCorrectPredictions(correctPredictions);
-
-        if (totalPredictions > 0) {
-            double accuracy = (double) correctPredictions / totalPredictions * 100.0;
-            participation.setAccuracyPercentage(accuracy);
-        } else {
-            participation.setAccuracyPercentage(0.0);
-        }
-    }
-
     // 🔍 Get user's predictions for a session
     public List<Prediction> getUserPredictionsForSession(Long participationId) {
         SessionParticipation participation = sessionParticipationRepository.findById(participationId)
@@ -323,7 +319,7 @@ public class PredictionService {
     }
     public double getTiebreakerScore(Long participationId) {
         Double score = predictionRepository.getTiebreakerScore(participationId);
-        return score != null ? score : 999999.0; // High penalty if no tiebreaker predictions
+        return score != null ? score : SessionParticipation.NO_TIEBREAKER_SCORE; // High penalty if no tiebreaker predictions
     }
 
     public List<SessionParticipation> getSessionParticipationsByGameWeek(Long gameweekId) {
@@ -340,36 +336,36 @@ public class PredictionService {
 
         // Step 2: Let CompetitionSessionService handle winner determination and prize distribution
         // Remove the duplicate winner logic from here
-        System.out.println("✅ Gameweek " + gameweekId + " predictions finalized. Use CompetitionSessionService.determineWinnersForCompletedGameWeek() for winner determination.");
+        System.out.println("✅ Gameweek " + gameweekId + " predictions finalized. Winners are settled by GameweekSettlementService.");
     }
 
+    /**
+     * Scores every prediction of a finished match with set-based UPDATEs and refreshes
+     * the aggregates of the affected participations in one grouped statement.
+     * Cost is a handful of statements per match, independent of the number of predictions.
+     */
     @Transactional
     public void scorePredictionsForMatch(Long matchId) {
         Match match = matchRepository.findById(matchId)
                 .orElseThrow(() -> new RuntimeException("Match not found"));
         if (match.getStatus() != MatchStatus.COMPLETED) return;
+        if (match.getHomeScore() == null || match.getAwayScore() == null) return;
 
-        List<Prediction> predictions = predictionRepository.findByMatchId(matchId);
-        Set<SessionParticipation> affectedParticipations = new HashSet<>();
+        PredictionResult actualResult = actualResultOf(match.getHomeScore(), match.getAwayScore());
 
-        for (Prediction p : predictions) {
-            boolean isCorrect = isPredictionCorrect(p); // existing helper
-            p.setIsCorrect(isCorrect);
+        int scored = predictionRepository.bulkScoreResults(matchId, actualResult);
+        predictionRepository.bulkScoreTiebreakerDistances(matchId, match.getHomeScore(), match.getAwayScore());
+        predictionRepository.bulkPenalizeTiebreakersWithoutScore(matchId);
+        int participations = predictionRepository.bulkUpdateParticipationAggregatesForMatch(matchId);
 
-            if (Boolean.TRUE.equals(p.getIsTiebreaker()) && p.hasScorePrediction()) {
-                p.calculateScoreDistance(match.getHomeScore(), match.getAwayScore());
-            }
-            affectedParticipations.add(p.getParticipation());
-        }
-        predictionRepository.saveAll(predictions);
+        System.out.println("✅ Scored " + scored + " predictions for match " + matchId +
+                " (" + participations + " participations updated)");
+    }
 
-        // Recalculate participation stats
-        for (SessionParticipation part : affectedParticipations) {
-            List<Prediction> completed = predictionRepository
-                    .findCompletedPredictionsByParticipation(part.getId());
-            updateParticipationAccuracy(part, completed);
-        }
-        sessionParticipationRepository.saveAll(affectedParticipations);
+    private PredictionResult actualResultOf(int homeScore, int awayScore) {
+        if (homeScore > awayScore) return PredictionResult.HOME_WIN;
+        if (homeScore < awayScore) return PredictionResult.AWAY_WIN;
+        return PredictionResult.DRAW;
     }
 
 
@@ -0,0 +1,376 @@
+package FootballFantasy.fantasy.Services.GameweekService;
+
+import FootballFantasy.fantasy.Entities.GameweekEntities.CompetitionSession;
+import FootballFantasy.fantasy.Entities.GameweekEntities.LeagueTheme;
+import FootballFantasy.fantasy.Entities.GameweekEntities.SessionType;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.CompetitionSessionRepository;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.CompetitionSessionRepository.SeatCountView;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hands out seats in public sessions from in-memory counters instead of locking the
+ * session row of a (gameweek, competition, type, buy-in) bucket for every join.
+ *
+ * A seat is claimed with a CAS on the session's free-seat counter and given back if the
+ * joining transaction rolls back. Committed joins are queued as per-session deltas and
+ * written to competition_session in micro-batches, so concurrent joiners never wait on
+ * each other. Participations stay the source of truth: at startup the stored counters
+ * are corrected from them and the buckets are reloaded lazily from the database.
+ *
+ * Counters are per instance; the seat pool assumes a single application node, like the
+ * schedulers.
+ */
+@Service
+public class PublicSessionMatchmaker {
+
+    @Autowired
+    private CompetitionSessionRepository competitionSessionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<Long, Bucket> bucketBySession = new ConcurrentHashMap<>();
+    // sessionId -> seats taken (or given back) since the last flush
+    private final Map<Long, Integer> pendingSeats = new ConcurrentHashMap<>();
+    // Buckets the pool provisioner has filled at least once
+    private final Set<BucketKey> provisioned = ConcurrentHashMap.newKeySet();
+    private final Object flushLock = new Object();
+
+    private TransactionTemplate flushTransaction;
+
+    @PostConstruct
+    void init() {
+        flushTransaction = new TransactionTemplate(transactionManager);
+        flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // ======== Seat allocation ========
+
+    /**
+     * Claims a seat in the oldest public session of the bucket that still has one.
+     * Empty when every known session is full; sessions are added by the pool provisioner
+     * through {@link #registerOpenSession}.
+     *
+     * Nothing is tied to the transaction yet: the caller checks the session and then
+     * either {@link #confirmSeat confirms} the claim or {@link #evict evicts} the session.
+     */
+    public Optional<Long> claimSeat(Long gameweekId, LeagueTheme competition,
+                                    SessionType sessionType, BigDecimal buyInAmount) {
+        Bucket bucket = seededBucket(BucketKey.of(gameweekId, competition, sessionType, buyInAmount));
+
+        for (Long sessionId : bucket.openSessions) {
+            if (bucket.tryTake(sessionId)) {
+                return Optional.of(sessionId);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Ties a seat claimed by {@link #claimSeat(Long, LeagueTheme, SessionType, BigDecimal)}
+     * to the joining transaction: queued for the next flush on commit, given back on rollback.
+     */
+    public void confirmSeat(Long sessionId) {
+        onCompletion(sessionId, true);
+    }
+
+    /**
+     * Gives back a claimed seat that will not be confirmed.
+     */
+    public void abandonSeat(Long sessionId) {
+        giveBack(sessionId);
+    }
+
+    /**
+     * Claims a seat in one specific public session (join by session id).
+     */
+    public boolean claimSeat(CompetitionSession session) {
+        Bucket bucket = bucketBySession.get(session.getId());
+        if (bucket == null) {
+            bucket = seededBucket(BucketKey.of(session));
+        }
+        if (!bucket.tryTake(session.getId())) {
+            return false;
+        }
+        onCompletion(session.getId(), true);
+        return true;
+    }
+
+    /**
+     * Gives back the seat of a participant leaving a public session.
+     */
+    public void releaseSeat(Long sessionId) {
+        onCompletion(sessionId, false);
+    }
+
+    /**
+     * Offers all seats of a freshly provisioned public session once its transaction
+     * committed.
+     */
+    public void registerOpenSession(CompetitionSession session) {
+        register(session, 0);
+        BucketKey key = BucketKey.of(session);
+        runAfterCompletion(committed -> {
+            if (committed) {
+                provisioned.add(key);
+            }
+        });
+    }
+
+    /**
+     * Registers a public session created inline by a joiner, whose first seat is already
+     * theirs (confirmed with the joining transaction like any claimed seat).
+     */
+    public void registerClaimedSession(CompetitionSession session) {
+        register(session, 1);
+        onCompletion(session.getId(), true);
+    }
+
+    /**
+     * Whether the pool provisioner has filled this bucket since startup.
+     */
+    public boolean isProvisioned(Long gameweekId, LeagueTheme competition,
+                                 SessionType sessionType, BigDecimal buyInAmount) {
+        return provisioned.contains(BucketKey.of(gameweekId, competition, sessionType, buyInAmount));
+    }
+
+    private void register(CompetitionSession session, int seatsTaken) {
+        Long sessionId = session.getId();
+        BucketKey key = BucketKey.of(session);
+        int freeSeats = session.getMaxParticipants() - session.getCurrentParticipants() - seatsTaken;
+
+        runAfterCompletion(committed -> {
+            if (committed) {
+                Bucket bucket = seededBucket(key);
+                bucket.put(sessionId, freeSeats);
+                bucketBySession.put(sessionId, bucket);
+            }
+        });
+    }
+
+    /**
+     * Number of sessions of the bucket that still have a free seat.
+     */
+    public int openSessionCount(Long gameweekId, LeagueTheme competition,
+                                SessionType sessionType, BigDecimal buyInAmount) {
+        return seededBucket(BucketKey.of(gameweekId, competition, sessionType, buyInAmount)).openSessions.size();
+    }
+
+    /**
+     * Stops offering a session (closed, cancelled, or past its deadline).
+     */
+    public void evict(Long sessionId) {
+        Bucket bucket = bucketBySession.remove(sessionId);
+        if (bucket != null) {
+            bucket.remove(sessionId);
+        }
+    }
+
+    // Claimed seats are returned on rollback; committed changes are queued for the next flush
+    private void onCompletion(Long sessionId, boolean taken) {
+        runAfterCompletion(committed -> {
+            if (taken && !committed) {
+                giveBack(sessionId);
+            } else if (!taken && committed) {
+                giveBack(sessionId);
+                pendingSeats.merge(sessionId, -1, Integer::sum);
+            } else if (taken) {
+                pendingSeats.merge(sessionId, 1, Integer::sum);
+            }
+        });
+    }
+
+    private void giveBack(Long sessionId) {
+        Bucket bucket = bucketBySession.get(sessionId);
+        if (bucket != null) {
+            bucket.give(sessionId);
+        }
+    }
+
+    private void runAfterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    // ======== Buckets ========
+
+    private Bucket seededBucket(BucketKey key) {
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+        if (!bucket.seeded) {
+            // Not during a flush: a delta already drained but not yet committed would be lost
+            synchronized (flushLock) {
+                if (!bucket.seeded) {
+                    for (CompetitionSession session : competitionSessionRepository.findOpenPublicSessions(
+                            key.gameweekId(), key.competition(), key.sessionType(), key.buyInAmount())) {
+                        int pending = pendingSeats.getOrDefault(session.getId(), 0);
+                        bucket.put(session.getId(), session.getMaxParticipants() - session.getCurrentParticipants() - pending);
+                        bucketBySession.put(session.getId(), bucket);
+                    }
+                    bucket.seeded = true;
+                }
+            }
+        }
+        return bucket;
+    }
+
+    // ======== Persistence ========
+
+    /**
+     * Writes the seats handed out since the last flush, one UPDATE per touched session.
+     * Deltas of a failed batch are put back and retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${sessions.matchmaking.flush-ms:250}")
+    public void flushPendingSeats() {
+        if (pendingSeats.isEmpty()) {
+            return;
+        }
+        synchronized (flushLock) {
+            flushBatch();
+        }
+    }
+
+    private void flushBatch() {
+        Map<Long, Integer> batch = new HashMap<>();
+        for (Long sessionId : new ArrayList<>(pendingSeats.keySet())) {
+            Integer seats = pendingSeats.remove(sessionId);
+            if (seats != null && seats != 0) {
+                batch.put(sessionId, seats);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            flushTransaction.executeWithoutResult(status ->
+                    batch.forEach(competitionSessionRepository::applySeatDelta));
+        } catch (Exception e) {
+            System.out.println("❌ Seat flush failed for " + batch.size() + " session(s), retrying: " + e.getMessage());
+            batch.forEach((sessionId, seats) -> pendingSeats.merge(sessionId, seats, Integer::sum));
+        }
+    }
+
+    /**
+     * Corrects stored counters of joinable public sessions from their participations
+     * (seats committed but not yet flushed before a crash), then drops the in-memory
+     * pools so they reload from the corrected rows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileSeats() {
+        int corrected = flushTransaction.execute(status -> {
+            int fixed = 0;
+            for (SeatCountView counts : competitionSessionRepository.findPublicSeatCounts()) {
+                int drift = counts.getParticipantCount().intValue() - counts.getCurrentParticipants();
+                if (drift != 0) {
+                    competitionSessionRepository.applySeatDelta(counts.getSessionId(), drift);
+                    fixed++;
+                }
+            }
+            return fixed;
+        });
+
+        buckets.clear();
+        bucketBySession.clear();
+        if (corrected > 0) {
+            System.out.println("🩺 Matchmaking reconciled seat counters of " + corrected + " public session(s)");
+        }
+    }
+
+    // ======== Structures ========
+
+    record BucketKey(Long gameweekId, LeagueTheme competition, SessionType sessionType, BigDecimal buyInAmount) {
+        // 10 and 10.00 are the same buy-in
+        static BucketKey of(Long gameweekId, LeagueTheme competition, SessionType sessionType, BigDecimal buyInAmount) {
+            return new BucketKey(gameweekId, competition, sessionType, buyInAmount.stripTrailingZeros());
+        }
+
+        static BucketKey of(CompetitionSession session) {
+            return of(session.getGameweek().getId(), session.getCompetition(),
+                    session.getSessionType(), session.getBuyInAmount());
+        }
+    }
+
+    /**
+     * Free-seat counters of one bucket. Sessions with a free seat are kept in id order
+     * (oldest first) so seats fill one session before the next.
+     */
+    static final class Bucket {
+        private final Map<Long, AtomicInteger> freeSeats = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<Long> openSessions = new ConcurrentSkipListSet<>();
+        private volatile boolean seeded;
+
+        // Known sessions keep their live counter (a seeding query may already have added it)
+        void put(Long sessionId, int free) {
+            if (freeSeats.putIfAbsent(sessionId, new AtomicInteger(Math.max(free, 0))) == null && free > 0) {
+                openSessions.add(sessionId);
+            }
+        }
+
+        boolean tryTake(Long sessionId) {
+            AtomicInteger free = freeSeats.get(sessionId);
+            if (free == null) {
+                return false;
+            }
+            int current;
+            do {
+                current = free.get();
+                if (current <= 0) {
+                    markFull(sessionId, free);
+                    return false;
+                }
+            } while (!free.compareAndSet(current, current - 1));
+
+            if (current == 1) {
+                markFull(sessionId, free);
+            }
+            return true;
+        }
+
+        private void markFull(Long sessionId, AtomicInteger free) {
+            openSessions.remove(sessionId);
+            // A seat given back meanwhile must stay visible
+            if (free.get() > 0) {
+                openSessions.add(sessionId);
+            }
+        }
+
+        void give(Long sessionId) {
+            AtomicInteger free = freeSeats.get(sessionId);
+            if (free != null) {
+                free.incrementAndGet();
+                openSessions.add(sessionId);
+            }
+        }
+
+        void remove(Long sessionId) {
+            openSessions.remove(sessionId);
+            freeSeats.remove(sessionId);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package FootballFantasy.fantasy.Services.GameweekService;
 
 import FootballFantasy.fantasy.Dto.UserSessionStats;
 import FootballFantasy.fantasy.Entities.GameweekEntities.*;
+import FootballFantasy.fantasy.Entities.PaiementEntities.LedgerEntryType;
 import FootballFantasy.fantasy.Entities.UserEntities.UserEntity;
 import FootballFantasy.fantasy.Exceptions.*;
 import FootballFantasy.fantasy.Exceptions.PaiementExceptions.InsufficientBalanceException;
@@ -14,6 +15,8 @@ import FootballFantasy.fantasy.Repositories.GameweekRepositories.PredictionRepos
 import FootballFantasy.fantasy.Repositories.GameweekRepositories.SessionParticipationRepository;
 import FootballFantasy.fantasy.Repositories.UserRepositories.UserRepository;
 import jakarta.transaction.Transactional;
+import FootballFantasy.fantasy.Services.PaiementService.BalanceService;
+import FootballFantasy.fantasy.Services.UserService.UserIdentityCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
@@ -43,10 +46,19 @@ public class SessionParticipationService {
     @Autowired
     private GameWeekRepository gameWeekRepository;
 
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
     @Autowired
     @Lazy
     private CompetitionSessionService competitionSessionService;
 
+    @Autowired
+    private PublicSessionMatchmaker publicSessionMatchmaker;
+
+    @Autowired
+    private BalanceService balanceService;
+
     /**
      * Complete flow: Find/Create session and join it
      */
@@ -135,8 +147,8 @@ public class SessionParticipationService {
                         actualCompetition
                 );
 
-        // 7️⃣ Join the session as the user
-        return joinSession(session.getId(), userId);
+        // 7️⃣ Join the session as the user (public seats were claimed by the matchmaker)
+        return isPrivate ? joinSession(session.getId(), userId) : joinClaimedSeat(session, userId);
     }
     /**
      * Backward-compatible overload (without privateMode)
@@ -262,10 +274,18 @@ public class SessionParticipationService {
      */
     @Transactional
     public SessionParticipation joinSession(Long sessionId, Long userId) {
-        // Get session and user
-        CompetitionSession session = competitionSessionRepository.findById(sessionId)
+        // Get session and user (locked: private joins update the session row)
+        CompetitionSession session = competitionSessionRepository.findByIdForUpdate(sessionId)
                 .orElseThrow(() -> new BusinessLogicException("Session not found", "SESSION_NOT_FOUND"));
 
+        if (session.getAccessKey() == null) {
+            validateSessionForJoining(session);
+            if (!publicSessionMatchmaker.claimSeat(session)) {
+                throw new BusinessLogicException("Session is full", "SESSION_FULL");
+            }
+            return joinClaimedSeat(session, userId);
+        }
+
         UserEntity user = userRepository.findById(userId)
                 .orElseThrow(() -> new BusinessLogicException("User not found", "USER_NOT_FOUND"));
 
@@ -291,8 +311,8 @@ public class SessionParticipationService {
 
         // Update session stats
         updateSessionStats(session);
-        user.setBalance(user.getBalance().subtract(session.getBuyInAmount()));
-        userRepository.save(user); // ✅ Add this to save user balance
+        // ✅ Conditional debit: fails (and rolls the join back) if a concurrent debit drained the balance
+        balanceService.debit(userId, session.getBuyInAmount(), LedgerEntryType.BUY_IN, sessionId);
 
         // Save everything
         SessionParticipation savedParticipation = sessionParticipationRepository.save(participation);
@@ -304,15 +324,41 @@ public class SessionParticipationService {
         return savedParticipation;
     }
 
+    /**
+     * Join a public session whose seat was handed out by the matchmaker. The session row
+     * is not touched here: the matchmaker writes its counters in micro-batches.
+     */
+    private SessionParticipation joinClaimedSeat(CompetitionSession session, Long userId) {
+        UserEntity user = userRepository.findById(userId)
+                .orElseThrow(() -> new BusinessLogicException("User not found", "USER_NOT_FOUND"));
+
+        validateSessionForJoining(session);
+        validateUserEligibility(user);
+        validateUserHasBalance(user, session.getBuyInAmount());
+
+        if (sessionParticipationRepository.existsByUserIdAndSessionId(userId, session.getId())) {
+            throw new BusinessLogicException("You already joined this session", "ALREADY_JOINED");
+        }
+
+        SessionParticipation participation = createParticipation(session, user);
+        balanceService.debit(userId, session.getBuyInAmount(), LedgerEntryType.BUY_IN, session.getId());
+
+        SessionParticipation savedParticipation = sessionParticipationRepository.save(participation);
+
+        System.out.println("✅ User " + userId + " joined public session " + session.getId());
+
+        return savedParticipation;
+    }
+
     /**
      * Join an existing session using Keycloak ID
      */
     @Transactional
     public SessionParticipation joinSessionByKeycloakId(Long sessionId, String keycloakId) {
-        UserEntity user = userRepository.findByKeycloakId(keycloakId)
+        Long userId = userIdentityCache.findUserId(keycloakId)
                 .orElseThrow(() -> new BusinessLogicException("User not found with Keycloak ID: " + keycloakId, "USER_NOT_FOUND"));
 
-        return joinSession(sessionId, user.getId());
+        return joinSession(sessionId, userId);
     }
 
     /**
@@ -331,12 +377,16 @@ public class SessionParticipationService {
             throw new BusinessLogicException("Cannot leave session - it has already started", "SESSION_ALREADY_STARTED");
         }
 
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new BusinessLogicException("User not found", "USER_NOT_FOUND"));
-
         // Refund the user
-        user.setBalance(user.getBalance().add(session.getBuyInAmount()));
-        userRepository.save(user);
+        balanceService.credit(userId, session.getBuyInAmount(), LedgerEntryType.REFUND, sessionId);
+
+        if (session.getAccessKey() == null) {
+            // Public seat goes back to the matchmaker, which also writes the counters
+            sessionParticipationRepository.delete(participation);
+            publicSessionMatchmaker.releaseSeat(sessionId);
+            System.out.println("❌ User " + userId + " left session " + sessionId);
+            return;
+        }
 
         // Update session stats
         session.setCurrentParticipants(session.getCurrentParticipants() - 1);
@@ -360,10 +410,10 @@ public class SessionParticipationService {
      */
     @Transactional
     public void leaveSessionByKeycloakId(Long sessionId, String keycloakId) {
-        UserEntity user = userRepository.findByKeycloakId(keycloakId)
+        Long userId = userIdentityCache.findUserId(keycloakId)
                 .orElseThrow(() -> new BusinessLogicException("User not found with Keycloak ID: " + keycloakId, "USER_NOT_FOUND"));
 
-        leaveSession(sessionId, user.getId());
+        leaveSession(sessionId, userId);
     }
 
     /**
@@ -398,10 +448,10 @@ public class SessionParticipationService {
      * Get user's participation in a specific session by Keycloak ID
      */
     public Optional<SessionParticipation> getUserParticipationByKeycloakId(String keycloakId, Long sessionId) {
-        UserEntity user = userRepository.findByKeycloakId(keycloakId)
+        Long userId = userIdentityCache.findUserId(keycloakId)
                 .orElseThrow(() -> new BusinessLogicException("User not found with Keycloak ID: " + keycloakId, "USER_NOT_FOUND"));
 
-        return sessionParticipationRepository.findByUserIdAndSessionId(user.getId(), sessionId);
+        return sessionParticipationRepository.findByUserIdAndSessionId(userId, sessionId);
     }
 
     /**
@@ -415,10 +465,10 @@ public class SessionParticipationService {
      * Get user's participations for a gameweek by Keycloak ID
      */
     public List<SessionParticipation> getUserParticipationsForGameweekByKeycloakId(String keycloakId, Long gameweekId) {
-        UserEntity user = userRepository.findByKeycloakId(keycloakId)
+        Long userId = userIdentityCache.findUserId(keycloakId)
                 .orElseThrow(() -> new BusinessLogicException("User not found with Keycloak ID: " + keycloakId, "USER_NOT_FOUND"));
 
-        return sessionParticipationRepository.findByUserIdAndGameweekId(user.getId(), gameweekId);
+        return sessionParticipationRepository.findByUserIdAndGameweekId(userId, gameweekId);
     }
 
     /**
@@ -439,10 +489,10 @@ public class SessionParticipationService {
      * Get user's active participations by Keycloak ID
      */
     public List<SessionParticipation> getUserActiveParticipationsByKeycloakId(String keycloakId) {
-        UserEntity user = userRepository.findByKeycloakId(keycloakId)
+        Long userId = userIdentityCache.findUserId(keycloakId)
                 .orElseThrow(() -> new BusinessLogicException("User not found with Keycloak ID: " + keycloakId, "USER_NOT_FOUND"));
 
-        return sessionParticipationRepository.findByUserIdAndStatus(user.getId(), ParticipationStatus.ACTIVE);
+        return sessionParticipationRepository.findByUserIdAndStatus(userId, ParticipationStatus.ACTIVE);
     }
 
     /**
@@ -470,10 +520,10 @@ public class SessionParticipationService {
      */
     public boolean canUserJoinSessionByKeycloakId(String keycloakId, Long gameweekId,
                                                   SessionType sessionType, BigDecimal buyInAmount,LeagueTheme competition) {
-        UserEntity user = userRepository.findByKeycloakId(keycloakId)
+        Long userId = userIdentityCache.findUserId(keycloakId)
                 .orElseThrow(() -> new BusinessLogicException("User not found with Keycloak ID: " + keycloakId, "USER_NOT_FOUND"));
 
-        return canUserJoinSession(user.getId(), gameweekId, sessionType, buyInAmount,competition);
+        return canUserJoinSession(userId, gameweekId, sessionType, buyInAmount,competition);
     }
 
     /**
@@ -487,10 +537,10 @@ public class SessionParticipationService {
      * Calculate user's total winnings by Keycloak ID
      */
     public BigDecimal calculateUserTotalWinningsByKeycloakId(String keycloakId) {
-        UserEntity user = userRepository.findByKeycloakId(keycloakId)
+        Long userId = userIdentityCache.findUserId(keycloakId)
                 .orElseThrow(() -> new BusinessLogicException("User not found with Keycloak ID: " + keycloakId, "USER_NOT_FOUND"));
 
-        return calculateUserTotalWinnings(user.getId());
+        return calculateUserTotalWinnings(userId);
     }
 
     /**
@@ -536,16 +586,24 @@ public class SessionParticipationService {
      * Get user's session statistics by Keycloak ID
      */
     public UserSessionStats getUserSessionStatsByKeycloakId(String keycloakId) {
-        UserEntity user = userRepository.findByKeycloakId(keycloakId)
+        Long userId = userIdentityCache.findUserId(keycloakId)
                 .orElseThrow(() -> new BusinessLogicException("User not found with Keycloak ID: " + keycloakId, "USER_NOT_FOUND"));
 
-        return getUserSessionStats(user.getId());
+        return getUserSessionStats(userId);
     }
 
     // ===== PRIVATE HELPER METHODS =====
 
     private void validateSessionForJoining(CompetitionSession session) {
-        if (session.getStatus() != CompetitionSessionStatus.OPEN) {
+        // Status read under the join lock: a deadline close that committed meanwhile is seen here
+        CompetitionSessionStatus status = competitionSessionRepository.lockStatusForJoin(session.getId())
+                .map(CompetitionSessionStatus::valueOf)
+                .orElseThrow(() -> new BusinessLogicException("Session not found", "SESSION_NOT_FOUND"));
+
+        // Public counters (and FULL) are written asynchronously; the matchmaker owns their seats
+        boolean joinable = status == CompetitionSessionStatus.OPEN
+                || (session.getAccessKey() == null && status == CompetitionSessionStatus.FULL);
+        if (!joinable) {
             throw new BusinessLogicException(
                     "Session is not open for joining",
                     "SESSION_NOT_OPEN"
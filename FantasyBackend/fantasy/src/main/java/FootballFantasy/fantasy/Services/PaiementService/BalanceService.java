@@ -0,0 +1,174 @@
+package FootballFantasy.fantasy.Services.PaiementService;
+
+import FootballFantasy.fantasy.Entities.PaiementEntities.LedgerEntryType;
+import FootballFantasy.fantasy.Exceptions.BusinessLogicException;
+import FootballFantasy.fantasy.Exceptions.PaiementExceptions.InsufficientBalanceException;
+import FootballFantasy.fantasy.Repositories.UserRepositories.UserRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Single entry point for changing user balances. Each operation is one conditional
+ * UPDATE on the users row (no load-modify-save, no lock held beyond the statement) whose
+ * row count tells whether it applied, followed by the matching ledger entry.
+ *
+ * The managed UserEntity of the caller is not refreshed: read balances again through
+ * the repository when needed, and never write balance fields through the entity.
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceService {
+
+    private final UserRepository userRepository;
+    private final WalletLedgerService walletLedgerService;
+
+    // ======== Spendable balance ========
+
+    /**
+     * Takes money from the balance (buy-ins); fails when the balance does not cover it.
+     */
+    @Transactional
+    public void debit(Long userId, BigDecimal amount, LedgerEntryType type, Long referenceId) {
+        if (isZero(amount)) {
+            return;
+        }
+        if (userRepository.decrementBalance(userId, amount) == 0) {
+            throw insufficient(userId, amount, userRepository::findBalanceById);
+        }
+        walletLedgerService.debit(userId, type, amount, referenceId);
+    }
+
+    /**
+     * Adds money to the balance (prizes, buy-in refunds).
+     */
+    @Transactional
+    public void credit(Long userId, BigDecimal amount, LedgerEntryType type, Long referenceId) {
+        if (isZero(amount)) {
+            return;
+        }
+        requireUpdated(userRepository.incrementBalance(userId, amount));
+        walletLedgerService.credit(userId, type, amount, referenceId);
+    }
+
+    // ======== Withdrawable balance ========
+
+    /**
+     * Adds money to both the balance and the withdrawable balance.
+     */
+    @Transactional
+    public void creditWithdrawable(Long userId, BigDecimal amount, LedgerEntryType type, Long referenceId) {
+        if (isZero(amount)) {
+            return;
+        }
+        requireUpdated(userRepository.incrementWithdrawableBalance(userId, amount));
+        walletLedgerService.credit(userId, type, amount, referenceId);
+    }
+
+    /**
+     * Takes money from both balances; fails when the withdrawable balance does not cover it.
+     */
+    @Transactional
+    public void debitWithdrawable(Long userId, BigDecimal amount, LedgerEntryType type, Long referenceId) {
+        if (isZero(amount)) {
+            return;
+        }
+        if (userRepository.decrementWithdrawableBalance(userId, amount) == 0) {
+            throw insufficient(userId, amount, userRepository::findWithdrawableBalanceById);
+        }
+        walletLedgerService.debit(userId, type, amount, referenceId);
+    }
+
+    // ======== Withdrawals ========
+
+    /**
+     * Moves withdrawable money to pending withdrawals when a withdraw is submitted.
+     */
+    @Transactional
+    public void reserveWithdrawal(Long userId, BigDecimal amount, Long withdrawId) {
+        if (isZero(amount)) {
+            return;
+        }
+        if (userRepository.reserveWithdrawal(userId, amount) == 0) {
+            throw insufficient(userId, amount, userRepository::findWithdrawableBalanceById);
+        }
+        walletLedgerService.debit(userId, LedgerEntryType.WITHDRAW, amount, withdrawId);
+    }
+
+    /**
+     * Gives a pending withdrawal back (cancelled, or its matched deposit was rejected).
+     */
+    @Transactional
+    public void restoreWithdrawal(Long userId, BigDecimal amount, Long withdrawId) {
+        if (isZero(amount)) {
+            return;
+        }
+        requireUpdated(userRepository.restoreWithdrawal(userId, amount));
+        walletLedgerService.credit(userId, LedgerEntryType.REFUND, amount, withdrawId);
+    }
+
+    /**
+     * Clears a pending withdrawal that was paid out. The balance already moved on submission.
+     */
+    @Transactional
+    public void settleWithdrawal(Long userId, BigDecimal amount) {
+        if (isZero(amount)) {
+            return;
+        }
+        requireUpdated(userRepository.settleWithdrawal(userId, amount));
+    }
+
+    // ======== Deposits ========
+
+    /**
+     * Turns an approved pending deposit into balance.
+     */
+    @Transactional
+    public void settleDeposit(Long userId, BigDecimal amount, Long depositId) {
+        if (isZero(amount)) {
+            return;
+        }
+        requireUpdated(userRepository.settleDeposit(userId, amount));
+        walletLedgerService.credit(userId, LedgerEntryType.DEPOSIT, amount, depositId);
+    }
+
+    /**
+     * Drops a rejected pending deposit.
+     */
+    @Transactional
+    public void releasePendingDeposit(Long userId, BigDecimal amount) {
+        if (isZero(amount)) {
+            return;
+        }
+        requireUpdated(userRepository.releasePendingDeposit(userId, amount));
+    }
+
+    // ======== Helpers ========
+
+    // Free sessions move nothing; negative amounts are a caller bug
+    private static boolean isZero(BigDecimal amount) {
+        if (amount == null || amount.signum() < 0) {
+            throw new IllegalArgumentException("Amount must not be negative");
+        }
+        return amount.signum() == 0;
+    }
+
+    // Unconditional updates only miss when the user row does not exist
+    private static void requireUpdated(int rows) {
+        if (rows == 0) {
+            throw new BusinessLogicException("User not found", "USER_NOT_FOUND");
+        }
+    }
+
+    private static RuntimeException insufficient(Long userId, BigDecimal amount,
+                                                 Function<Long, Optional<BigDecimal>> currentBalance) {
+        return currentBalance.apply(userId)
+                .<RuntimeException>map(current -> new InsufficientBalanceException(
+                        String.valueOf(userId), amount.toPlainString(), current.toPlainString()))
+                .orElseGet(() -> new BusinessLogicException("User not found", "USER_NOT_FOUND"));
+    }
+}
@@ -9,6 +9,7 @@ import FootballFantasy.fantasy.Exceptions.UsersExceptions.UserNotFoundException;
 import FootballFantasy.fantasy.Repositories.PaiementRepositories.DepositTransactionRepository;
 import FootballFantasy.fantasy.Repositories.PaiementRepositories.WithdrawRequestRepository;
 import FootballFantasy.fantasy.Repositories.UserRepositories.UserRepository;
+import FootballFantasy.fantasy.Services.UserService.UserIdentityCache;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,7 +27,10 @@ public class DepositTransactionService {
 
     private final DepositTransactionRepository depositRepo;
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
     private final WithdrawRequestRepository withdrawRepo;
+    private final BalanceService balanceService;
+    private final WithdrawOrderBook withdrawOrderBook;
 
     // ===========================
 // Phase 1 – Reserve Withdraw Number
@@ -40,15 +44,6 @@ public class DepositTransactionService {
 
         if (user.isBanned()) throw new UserBannedException("Your account is temporarily banned");
 
-        // ✅ Check if user already has a reserved withdraw not yet processed
-        boolean hasActiveReservation = withdrawRepo.existsByReservedTrueAndReservedByKeycloakIdAndStatus(
-                user.getKeycloakId(),
-                TransactionStatus.RESERVED
-        );
-        if (hasActiveReservation) {
-            throw new WithdrawLimitExceededException("You already have an active reserved deposit. Complete it first.");
-        }
-
         // ✅ Count pending or in-review deposits to limit spam
         long pendingWithdraws = withdrawRepo.countByRequesterAndStatusIn(
                 user, List.of(TransactionStatus.PENDING, TransactionStatus.IN_REVIEW)
@@ -57,29 +52,20 @@ public class DepositTransactionService {
             throw new WithdrawLimitExceededException("You cannot have more than 2 deposits awaiting for admin validation.");
         }
 
-        WithdrawRequestEntity withdrawRequest = withdrawRepo
-                .findFirstByStatusAndReservedFalseAndPrefixedAmountAndPlatformOrderByCreatedAtAsc(
-                        TransactionStatus.PENDING,
-                        prefixedAmount,
-                        platform
-                )
+        // ✅ Oldest available withdraw from the order book (also enforces one active reservation per user);
+        // the reservation is written to the database in the book's next batch
+        WithdrawOrderBook.Reservation reservation = withdrawOrderBook.reserve(keycloakId, prefixedAmount, platform)
                 .orElseThrow(WithdrawNotAvailableException::new);
+        WithdrawOrderBook.Offer withdrawRequest = reservation.offer();
 
-        withdrawRequest.setReserved(true);
-        withdrawRequest.setReservedAt(LocalDateTime.now());
-        withdrawRequest.setReservedByKeycloakId(keycloakId);
-        withdrawRequest.setStatus(TransactionStatus.RESERVED);
-
-        withdrawRepo.save(withdrawRequest);
-
-        LocalDateTime expiresAt = withdrawRequest.getReservedAt().plusMinutes(15);
+        LocalDateTime expiresAt = reservation.expiresAt();
 
         return new WithdrawReservationResponseDTO(
-                withdrawRequest.getId(),
-                withdrawRequest.getWithdrawNumber(),
-                withdrawRequest.getAmount(),
-                withdrawRequest.getPlatform(),
-                withdrawRequest.getPrefixedAmount(),
+                withdrawRequest.withdrawId(),
+                withdrawRequest.withdrawNumber(),
+                withdrawRequest.amount(),
+                withdrawRequest.platform(),
+                withdrawRequest.prefixedAmount(),
                 expiresAt
         );
     }
@@ -92,13 +78,16 @@ public class DepositTransactionService {
     public DepositTransactionEntity confirmDeposit(String keycloakId,
                                                    String screenshotUrl,
                                                    Long withdrawId) {
+        // Reservation may still be queued in the order book: write it before the first read
+        withdrawOrderBook.ensurePersisted(withdrawId);
 
         UserEntity user = userRepository.findByKeycloakId(keycloakId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (user.isBanned()) throw new UserBannedException("Your account is temporarily banned");
 
-        WithdrawRequestEntity withdrawRequest = withdrawRepo.findById(withdrawId)
+        // Locked: the reservation expiry releases the same row at the same deadline
+        WithdrawRequestEntity withdrawRequest = withdrawRepo.findByIdForUpdate(withdrawId)
                 .orElseThrow(WithdrawNotFoundException::new);
 
         // ensure it was reserved and by the same user
@@ -109,7 +98,7 @@ public class DepositTransactionService {
         }
 
         // check expiry
-        LocalDateTime expiryThreshold = withdrawRequest.getReservedAt().plusMinutes(15);
+        LocalDateTime expiryThreshold = withdrawRequest.getReservedAt().plus(WithdrawOrderBook.RESERVATION_TTL);
         if (LocalDateTime.now().isAfter(expiryThreshold)) {
             withdrawRequest.setReserved(false);
             withdrawRequest.setReservedAt(null);
@@ -122,6 +111,7 @@ public class DepositTransactionService {
         // Move from RESERVED → IN_REVIEW
         withdrawRequest.setStatus(TransactionStatus.IN_REVIEW);
         withdrawRepo.save(withdrawRequest);
+        withdrawOrderBook.complete(withdrawId);
 
         // Use values from reservation only
         DepositTransactionEntity deposit = new DepositTransactionEntity();
@@ -160,16 +150,8 @@ public class DepositTransactionService {
         UserEntity depositor = deposit.getDepositor();
         BigDecimal amount = deposit.getAmount();
 
-        // ✅ Add only to balance (usable in system)
-        depositor.setBalance(depositor.getBalance().add(amount));
-
-        // ✅ Remove the amount from pendingDeposits
-        depositor.setPendingDeposits(depositor.getPendingDeposits().subtract(amount));
-        if (depositor.getPendingDeposits().compareTo(BigDecimal.ZERO) < 0) {
-            depositor.setPendingDeposits(BigDecimal.ZERO);
-        }
-
-        userRepository.save(depositor);
+        // ✅ Add only to balance (usable in system) and remove the amount from pendingDeposits
+        balanceService.settleDeposit(depositor.getId(), amount, depositId);
 
         // Handle matched withdraw request if exists
         WithdrawRequestEntity withdraw = deposit.getMatchedWithdraw();
@@ -177,14 +159,9 @@ public class DepositTransactionService {
             withdraw.setStatus(TransactionStatus.APPROVED);
             withdraw.setUpdatedAt(LocalDateTime.now());
 
-            UserEntity withdrawer = withdraw.getRequester();
             // Adjust pendingWithdrawals
-            withdrawer.setPendingWithdrawals(withdrawer.getPendingWithdrawals().subtract(withdraw.getAmount()));
-            if (withdrawer.getPendingWithdrawals().compareTo(BigDecimal.ZERO) < 0) {
-                withdrawer.setPendingWithdrawals(BigDecimal.ZERO);
-            }
+            balanceService.settleWithdrawal(withdraw.getRequester().getId(), withdraw.getAmount());
 
-            userRepository.save(withdrawer);
             withdrawRepo.save(withdraw);
         }
 
@@ -216,11 +193,7 @@ public class DepositTransactionService {
         BigDecimal amount = deposit.getAmount();
 
         // ✅ Remove from pendingDeposits (refund not to balance)
-        depositor.setPendingDeposits(depositor.getPendingDeposits().subtract(amount));
-        if (depositor.getPendingDeposits().compareTo(BigDecimal.ZERO) < 0) {
-            depositor.setPendingDeposits(BigDecimal.ZERO);
-        }
-        userRepository.save(depositor);
+        balanceService.releasePendingDeposit(depositor.getId(), amount);
 
         WithdrawRequestEntity withdraw = deposit.getMatchedWithdraw();
         if (withdraw != null && withdraw.getStatus() == TransactionStatus.IN_REVIEW) {
@@ -230,19 +203,10 @@ public class DepositTransactionService {
             withdraw.setReservedByKeycloakId(null);
             withdraw.setStatus(TransactionStatus.PENDING);
             withdraw.setUpdatedAt(LocalDateTime.now());
+            withdrawOrderBook.offer(withdraw);
 
-            UserEntity withdrawer = withdraw.getRequester();
-            // Adjust pendingWithdrawals
-            withdrawer.setPendingWithdrawals(withdrawer.getPendingWithdrawals().subtract(withdraw.getAmount()));
-            if (withdrawer.getPendingWithdrawals().compareTo(BigDecimal.ZERO) < 0) {
-                withdrawer.setPendingWithdrawals(BigDecimal.ZERO);
-            }
-
-            // Refund withdraw to balance & withdrawable
-            withdrawer.setBalance(withdrawer.getBalance().add(withdraw.getAmount()));
-            withdrawer.setWithdrawableBalance(withdrawer.getWithdrawableBalance().add(withdraw.getAmount()));
-
-            userRepository.save(withdrawer);
+            // Adjust pendingWithdrawals and refund withdraw to balance & withdrawable
+            balanceService.restoreWithdrawal(withdraw.getRequester().getId(), withdraw.getAmount(), withdraw.getId());
             withdrawRepo.save(withdraw);
         }
 
@@ -254,8 +218,9 @@ public class DepositTransactionService {
     // ===========================
     public List<DepositTransactionEntity> getUserDeposits(TransactionStatus status) {
         String keycloakId = getCurrentUserKeycloakId();
-        UserEntity user = userRepository.findByKeycloakId(keycloakId)
+        Long userId = userIdentityCache.findUserId(keycloakId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        UserEntity user = userRepository.getReferenceById(userId);
 
         if (status != null) {
             return depositRepo.findByDepositorAndStatus(user, status);
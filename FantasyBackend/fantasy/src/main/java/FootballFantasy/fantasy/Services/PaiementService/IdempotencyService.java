@@ -0,0 +1,150 @@
+package FootballFantasy.fantasy.Services.PaiementService;
+
+import FootballFantasy.fantasy.Exceptions.BusinessLogicException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency keys for money-moving requests (join + debit, withdraw submission, deposit
+ * confirmation). A client sends the same {@value #HEADER} header when it retries; the
+ * first request runs, later ones get the stored response back without re-running the
+ * transactional path. A retry arriving while the first attempt still runs waits for
+ * its outcome.
+ *
+ * Only successful responses are kept (failed attempts moved no money and may be
+ * retried), for {@code idempotency.ttl-minutes}. They are kept as the JSON the client
+ * received, never as entities: a replay answers exactly what the first attempt answered
+ * and the cache does not pin persistence graphs. Keys are scoped per endpoint and per
+ * user, and reusing a key with different parameters is rejected.
+ *
+ * Call outside of the transaction, so the stored response is always a committed one.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final Cache<String, Entry> responses;
+    private final ObjectMapper objectMapper;
+    private final long inFlightWaitMs;
+    private final Counter replays;
+
+    // Serialized response body
+    private record Entry(List<Object> fingerprint, CompletableFuture<byte[]> response) {
+    }
+
+    public IdempotencyService(MeterRegistry meterRegistry,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.ttl-minutes:1440}") long ttlMinutes,
+                              @Value("${idempotency.max-size:100000}") long maxSize,
+                              @Value("${idempotency.in-flight-wait-ms:10000}") long inFlightWaitMs) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.objectMapper = objectMapper;
+        this.inFlightWaitMs = inFlightWaitMs;
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotency");
+        this.replays = Counter.builder("idempotency.replays")
+                .description("Requests answered from a stored response")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code work} once per (scope, owner, key); without a key it simply runs.
+     *
+     * @param responseType type replays are read back as
+     * @param fingerprint  request parameters; a retry must send the same ones
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String idempotencyKey, String scope, String owner, Class<? super T> responseType,
+                         Supplier<T> work, Object... fingerprint) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return work.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessLogicException("Idempotency key is too long (max " + MAX_KEY_LENGTH + " characters)",
+                    "IDEMPOTENCY_KEY_INVALID");
+        }
+
+        String cacheKey = scope + ":" + owner + ":" + idempotencyKey.trim();
+        Entry fresh = new Entry(Arrays.asList(fingerprint), new CompletableFuture<>());
+        Entry existing = responses.asMap().putIfAbsent(cacheKey, fresh);
+
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fresh.fingerprint())) {
+                throw new BusinessLogicException("Idempotency key was already used for a different request",
+                        "IDEMPOTENCY_KEY_REUSED");
+            }
+            replays.increment();
+            return (T) read(awaitResponse(existing), responseType);
+        }
+
+        T response;
+        try {
+            response = work.get();
+        } catch (RuntimeException e) {
+            // Nothing was committed: forget the key so the client can retry
+            responses.asMap().remove(cacheKey, fresh);
+            fresh.response().completeExceptionally(e);
+            throw e;
+        }
+
+        try {
+            fresh.response().complete(objectMapper.writeValueAsBytes(response));
+        } catch (JsonProcessingException e) {
+            // The work did commit, so the key must stay taken; retries just cannot get the body back
+            System.out.println("⚠️ Idempotent response for " + scope + " could not be stored: " + e.getMessage());
+            fresh.response().completeExceptionally(new BusinessLogicException(
+                    "The original request succeeded but its response is unavailable", "IDEMPOTENT_RESPONSE_UNAVAILABLE"));
+        }
+        return response;
+    }
+
+    private Object read(byte[] body, Class<?> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] awaitResponse(Entry entry) {
+        try {
+            return entry.response().get(inFlightWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new BusinessLogicException("The original request is still being processed, please retry shortly",
+                    "IDEMPOTENT_REQUEST_IN_PROGRESS");
+        } catch (ExecutionException e) {
+            // Same outcome as the attempt it duplicated
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessLogicException("Request interrupted", "IDEMPOTENT_REQUEST_INTERRUPTED");
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package FootballFantasy.fantasy.Services.PaiementService;
+
+import FootballFantasy.fantasy.Entities.PaiementEntities.LedgerEntryType;
+import FootballFantasy.fantasy.Entities.PaiementEntities.WalletBalanceSnapshot;
+import FootballFantasy.fantasy.Entities.PaiementEntities.WalletLedgerEntry;
+import FootballFantasy.fantasy.Repositories.PaiementRepositories.WalletBalanceSnapshotRepository;
+import FootballFantasy.fantasy.Repositories.PaiementRepositories.WalletLedgerRepository;
+import FootballFantasy.fantasy.Repositories.PaiementRepositories.WalletLedgerRepository.BalanceDriftView;
+import FootballFantasy.fantasy.Repositories.PaiementRepositories.WalletLedgerRepository.LedgerTailView;
+import FootballFantasy.fantasy.Repositories.PaiementRepositories.WalletLedgerRepository.LedgerTotalsView;
+import FootballFantasy.fantasy.Repositories.UserRepositories.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only wallet ledger. Every change of a user's balance is also written as a
+ * typed entry, in the transaction that changes the balance; entries are plain inserts,
+ * so concurrent payments never wait on a shared row.
+ *
+ * Per-user snapshots hold the running balance up to an entry id and are rolled forward
+ * in the background, so reading a balance costs the snapshot plus the short tail of
+ * entries after it. Entries only join a snapshot once older than
+ * {@code wallet.ledger.snapshot-lag-seconds}, leaving in-flight transactions time to
+ * commit. An entry that still committed below a snapshot's last id shows up in the
+ * snapshot's entry count: the read then sums the user's whole ledger, until the
+ * verifier repairs the snapshot.
+ *
+ * Balances from before the ledger get an opening entry, written under the user row
+ * lock: by the first balance change of the user, or else by the verifier. The verifier
+ * also reports any other difference with the stored balance columns (never corrected
+ * automatically); until it has run once, and for users it reports, the stored column
+ * stays the balance shown to the user ({@link #displayedBalanceOf}).
+ */
+@Service
+@RequiredArgsConstructor
+public class WalletLedgerService {
+
+    private final WalletLedgerRepository walletLedgerRepository;
+    private final WalletBalanceSnapshotRepository snapshotRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${wallet.ledger.snapshot-lag-seconds:300}")
+    private long snapshotLagSeconds;
+
+    private final Object snapshotLock = new Object();
+
+    private volatile boolean reconciled = false;
+    private volatile Set<Long> driftingUsers = Set.of();
+
+    private TransactionTemplate ledgerTransaction;
+
+    @PostConstruct
+    void init() {
+        ledgerTransaction = new TransactionTemplate(transactionManager);
+        ledgerTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Gauge.builder("wallet.ledger.drift.users", this, service -> service.driftingUsers.size())
+                .description("Users whose stored balance differs from their ledger")
+                .register(meterRegistry);
+    }
+
+    // ======== Writes ========
+
+    /**
+     * Records money added to a user's balance. Joins the caller's transaction.
+     */
+    @Transactional
+    public void credit(Long userId, LedgerEntryType type, BigDecimal amount, Long referenceId) {
+        append(userId, type, amount, referenceId);
+    }
+
+    /**
+     * Records money taken from a user's balance. Joins the caller's transaction.
+     */
+    @Transactional
+    public void debit(Long userId, LedgerEntryType type, BigDecimal amount, Long referenceId) {
+        append(userId, type, amount.negate(), referenceId);
+    }
+
+    /**
+     * Runs right after the conditional balance UPDATE, so the user row lock is already
+     * held: a first entry also writes the opening entry of the balance held before it.
+     */
+    private void append(Long userId, LedgerEntryType type, BigDecimal amount, Long referenceId) {
+        if (amount == null || amount.signum() == 0) {
+            return;
+        }
+        if (walletLedgerRepository.lockFirstEntryId(userId).isEmpty()) {
+            BigDecimal before = userRepository.lockBalanceById(userId).orElse(BigDecimal.ZERO).subtract(amount);
+            if (before.signum() != 0) {
+                insert(userId, LedgerEntryType.OPENING, before, null);
+            }
+        }
+        insert(userId, type, amount, referenceId);
+    }
+
+    private void insert(Long userId, LedgerEntryType type, BigDecimal amount, Long referenceId) {
+        WalletLedgerEntry entry = new WalletLedgerEntry();
+        entry.setUserId(userId);
+        entry.setType(type);
+        entry.setAmount(amount);
+        entry.setReferenceId(referenceId);
+        entry.setCreatedAt(LocalDateTime.now());
+        walletLedgerRepository.save(entry);
+    }
+
+    // ======== Reads ========
+
+    /**
+     * Balance shown to the user: the ledger once it has been reconciled with the stored
+     * balances, the stored column before that and for users whose ledger drifts.
+     */
+    public BigDecimal displayedBalanceOf(Long userId) {
+        if (!reconciled || driftingUsers.contains(userId)) {
+            return userRepository.findBalanceById(userId).orElse(BigDecimal.ZERO);
+        }
+        return balanceOf(userId);
+    }
+
+    /**
+     * Balance of a user according to the ledger: latest snapshot plus the entries after it.
+     */
+    public BigDecimal balanceOf(Long userId) {
+        WalletBalanceSnapshot snapshot = snapshotRepository.findById(userId).orElse(null);
+        if (snapshot == null) {
+            return walletLedgerRepository.sumAfter(userId, 0L);
+        }
+        LedgerTailView tail = walletLedgerRepository.findTail(userId, snapshot.getLastEntryId());
+        if (tail.getCoveredEntries() != snapshot.getEntryCount()) {
+            // An entry below the snapshot's last id committed after it was taken
+            return walletLedgerRepository.sumAfter(userId, 0L);
+        }
+        return snapshot.getBalance().add(tail.getTail());
+    }
+
+    // ======== Snapshots ========
+
+    /**
+     * Rolls forward the snapshots of every user with entries written since the last run,
+     * recomputing their totals in one grouped query and one batch of snapshot writes.
+     */
+    @Scheduled(fixedDelayString = "${wallet.ledger.snapshot-ms:60000}", initialDelayString = "${wallet.ledger.snapshot-ms:60000}")
+    public void rollSnapshots() {
+        synchronized (snapshotLock) {
+            Integer rolled = ledgerTransaction.execute(status -> {
+                Long cutoff = walletLedgerRepository.findMaxIdCreatedBefore(
+                        LocalDateTime.now().minusSeconds(snapshotLagSeconds));
+                Long watermark = snapshotRepository.findWatermark();
+                if (cutoff == null || cutoff <= watermark) {
+                    return 0;
+                }
+
+                List<Long> userIds = walletLedgerRepository.findUserIdsBetween(watermark, cutoff);
+                if (userIds.isEmpty()) {
+                    return 0;
+                }
+                Map<Long, WalletBalanceSnapshot> snapshots = snapshotRepository.findAllById(userIds).stream()
+                        .collect(Collectors.toMap(WalletBalanceSnapshot::getUserId, Function.identity()));
+
+                // Whole totals, not deltas: entries that committed late below the watermark are included
+                LocalDateTime now = LocalDateTime.now();
+                for (LedgerTotalsView totals : walletLedgerRepository.sumByUserUpTo(userIds, cutoff)) {
+                    WalletBalanceSnapshot snapshot = snapshots.computeIfAbsent(totals.getUserId(),
+                            id -> new WalletBalanceSnapshot(id, 0L, BigDecimal.ZERO, null, 0L));
+                    apply(snapshot, totals);
+                    snapshot.setTakenAt(now);
+                }
+                snapshotRepository.saveAll(snapshots.values());
+                return userIds.size();
+            });
+            if (rolled != null && rolled > 0) {
+                System.out.println("📒 Wallet snapshots rolled forward for " + rolled + " user(s)");
+            }
+        }
+    }
+
+    // ======== Verification ========
+
+    /**
+     * Reconciles the ledger with the stored balances and repairs stale snapshots.
+     * Returns the users whose stored balance differs from their ledger.
+     */
+    @Scheduled(cron = "${wallet.ledger.verify-cron:0 30 * * * *}")
+    public List<BalanceDriftView> verify() {
+        synchronized (snapshotLock) {
+            // 1️⃣ Balances held before the ledger existed, one short transaction per user
+            List<Long> candidates = ledgerTransaction.execute(status -> walletLedgerRepository.findUnledgeredBalances()
+                    .stream().map(BalanceDriftView::getUserId).toList());
+            int opened = 0;
+            for (Long userId : candidates) {
+                if (Boolean.TRUE.equals(ledgerTransaction.execute(status -> writeOpeningEntry(userId)))) {
+                    opened++;
+                }
+            }
+            int openingEntries = opened;
+
+            return ledgerTransaction.execute(status -> {
+                // 2️⃣ Snapshots missing an entry that committed after they were taken
+                List<LedgerTotalsView> staleSnapshots = walletLedgerRepository.findSnapshotDrift();
+                if (!staleSnapshots.isEmpty()) {
+                    Map<Long, LedgerTotalsView> corrected = new HashMap<>();
+                    staleSnapshots.forEach(t -> corrected.put(t.getUserId(), t));
+                    List<WalletBalanceSnapshot> snapshots = snapshotRepository.findAllById(corrected.keySet());
+                    snapshots.forEach(s -> apply(s, corrected.get(s.getUserId())));
+                    snapshotRepository.saveAll(snapshots);
+                }
+
+                // 3️⃣ Stored balances that disagree with the ledger
+                List<BalanceDriftView> drift = walletLedgerRepository.findBalanceDrift();
+                driftingUsers = drift.stream().map(BalanceDriftView::getUserId).collect(Collectors.toUnmodifiableSet());
+                reconciled = true;
+                for (BalanceDriftView user : drift) {
+                    System.out.println("⚠️ Wallet drift for user " + user.getUserId() + ": stored " +
+                            user.getStoredBalance() + " vs ledger " + user.getLedgerBalance());
+                }
+
+                System.out.println("🩺 Wallet ledger verified: " + openingEntries + " opening entr(ies), " +
+                        staleSnapshots.size() + " snapshot(s) repaired, " + drift.size() + " drifting user(s)");
+                return drift;
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        verify();
+    }
+
+    /**
+     * Writes the opening entry of a user, holding the user row lock every balance update
+     * takes: the balance read is the latest one and no first ledger write can interleave.
+     */
+    private boolean writeOpeningEntry(Long userId) {
+        BigDecimal balance = userRepository.lockBalanceById(userId).orElse(null);
+        if (balance == null || balance.signum() == 0 || walletLedgerRepository.existsByUserId(userId)) {
+            return false;
+        }
+        insert(userId, LedgerEntryType.OPENING, balance, null);
+        return true;
+    }
+
+    private static void apply(WalletBalanceSnapshot snapshot, LedgerTotalsView totals) {
+        snapshot.setBalance(totals.getTotal());
+        snapshot.setLastEntryId(totals.getLastEntryId());
+        snapshot.setEntryCount(totals.getEntryCount());
+    }
+}
@@ -0,0 +1,347 @@
+package FootballFantasy.fantasy.Services.PaiementService;
+
+import FootballFantasy.fantasy.Entities.PaiementEntities.PaymentPlatform;
+import FootballFantasy.fantasy.Entities.PaiementEntities.PrefixedAmount;
+import FootballFantasy.fantasy.Entities.PaiementEntities.TransactionStatus;
+import FootballFantasy.fantasy.Entities.PaiementEntities.WithdrawRequestEntity;
+import FootballFantasy.fantasy.Events.WithdrawReservationsExpiredEvent;
+import FootballFantasy.fantasy.Exceptions.PaiementExceptions.WithdrawLimitExceededException;
+import FootballFantasy.fantasy.Repositories.PaiementRepositories.WithdrawRequestRepository;
+import FootballFantasy.fantasy.Schedulers.DeadlineTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * Matches depositors with pending withdraws from memory instead of locking the oldest
+ * withdraw row of an (amount, platform) pair for every reservation.
+ *
+ * Available withdraws sit in one FIFO queue per (PrefixedAmount, PaymentPlatform),
+ * oldest first. Taking one is a single atomic poll, so every withdraw goes to exactly
+ * one depositor and concurrent reservations never wait on each other. Cancelling a
+ * withdraw removes it from its queue with the same atomicity, which is what decides
+ * between a cancellation and a reservation racing for it.
+ *
+ * Reservations are written to withdraw_requests in write-behind batches; a deposit
+ * confirmation forces the write of its reservation first. The book is rebuilt from
+ * the database at startup, so a crash loses at most the reservations of the last
+ * flush interval (those withdraws become available again).
+ *
+ * Every reservation is released {@link #RESERVATION_TTL} after it was made, by a
+ * deadline timer publishing {@link WithdrawReservationsExpiredEvent} batches; confirmed
+ * reservations are taken off the timer.
+ *
+ * The book is per instance and assumes a single application node, like the schedulers.
+ */
+@Service
+public class WithdrawOrderBook {
+
+    public static final Duration RESERVATION_TTL = Duration.ofMinutes(15);
+
+    // Oldest withdraw first; ids break ties between identical timestamps
+    private static final Comparator<Offer> FIFO = Comparator
+            .comparing(Offer::createdAt)
+            .thenComparing(Offer::withdrawId);
+
+    @Autowired
+    private WithdrawRequestRepository withdrawRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${withdraw.book.expiry-batch-size:200}")
+    private int expiryBatchSize;
+
+    private final Map<BookKey, ConcurrentSkipListSet<Offer>> queues = new ConcurrentHashMap<>();
+    // withdrawId -> offer, for withdraws currently in a queue
+    private final Map<Long, Offer> offers = new ConcurrentHashMap<>();
+    // One active reservation per depositor
+    private final Map<String, Reservation> reservationsByUser = new ConcurrentHashMap<>();
+    private final Map<Long, Reservation> reservationsByWithdraw = new ConcurrentHashMap<>();
+    // Reservations not yet written to the database
+    private final Map<Long, Reservation> pendingWrites = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    private TransactionTemplate flushTransaction;
+    private DeadlineTimer<Long> reservationExpiry;
+
+    @PostConstruct
+    void init() {
+        flushTransaction = new TransactionTemplate(transactionManager);
+        flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        reservationExpiry = new DeadlineTimer<>("withdraw-expiry", expiryBatchSize, Duration.ofSeconds(5),
+                ids -> eventPublisher.publishEvent(new WithdrawReservationsExpiredEvent(this, ids)));
+        Gauge.builder("withdraw.book.available", offers, Map::size)
+                .description("Pending withdraws available for deposit matching")
+                .register(meterRegistry);
+        Gauge.builder("withdraw.book.reserved", reservationsByWithdraw, Map::size)
+                .description("Withdraws reserved by a depositor and not yet confirmed")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reservationExpiry.close();
+    }
+
+    // ======== Matching ========
+
+    /**
+     * Reserves the oldest available withdraw of the pair for a depositor. Empty when none
+     * is available; fails when the depositor already holds a reservation.
+     */
+    public Optional<Reservation> reserve(String keycloakId, PrefixedAmount prefixedAmount, PaymentPlatform platform) {
+        Reservation claim = new Reservation(null, keycloakId, LocalDateTime.now(), null);
+        if (reservationsByUser.putIfAbsent(keycloakId, claim) != null) {
+            throw new WithdrawLimitExceededException("You already have an active reserved deposit. Complete it first.");
+        }
+
+        Offer offer = queue(new BookKey(prefixedAmount, platform)).pollFirst();
+        if (offer == null) {
+            reservationsByUser.remove(keycloakId, claim);
+            return Optional.empty();
+        }
+        offers.remove(offer.withdrawId());
+
+        Reservation reservation = new Reservation(offer.withdrawId(), keycloakId, claim.reservedAt(), offer);
+        reservationsByUser.put(keycloakId, reservation);
+        reservationsByWithdraw.put(offer.withdrawId(), reservation);
+        pendingWrites.put(offer.withdrawId(), reservation);
+        reservationExpiry.schedule(offer.withdrawId(), reservation.expiresAt());
+        return Optional.of(reservation);
+    }
+
+    /**
+     * Makes a withdraw available once the surrounding transaction committed (newly
+     * submitted, or put back after a released reservation or a rejected deposit).
+     */
+    public void offer(WithdrawRequestEntity withdraw) {
+        Offer offer = Offer.of(withdraw);
+        runAfterCompletion(committed -> {
+            if (committed) {
+                dropReservation(offer.withdrawId());
+                add(offer);
+            }
+        });
+    }
+
+    /**
+     * Takes a withdraw off the book for cancellation. False when a depositor got it
+     * first. Put back if the cancelling transaction rolls back.
+     */
+    public boolean remove(Long withdrawId) {
+        Offer offer = offers.get(withdrawId);
+        if (offer == null || !queue(offer.key()).remove(offer)) {
+            return false;
+        }
+        offers.remove(withdrawId, offer);
+        runAfterCompletion(committed -> {
+            if (!committed) {
+                add(offer);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Ends a reservation whose deposit was confirmed, once that transaction committed.
+     */
+    public void complete(Long withdrawId) {
+        runAfterCompletion(committed -> {
+            if (committed) {
+                dropReservation(withdrawId);
+            }
+        });
+    }
+
+    /**
+     * Writes the reservation of a withdraw now if it is still queued. Call before the
+     * transaction reads the withdraw, so its snapshot includes the reservation.
+     */
+    public void ensurePersisted(Long withdrawId) {
+        if (pendingWrites.containsKey(withdrawId)) {
+            synchronized (flushLock) {
+                flushBatch();
+            }
+        }
+    }
+
+    private void add(Offer offer) {
+        if (queue(offer.key()).add(offer)) {
+            offers.put(offer.withdrawId(), offer);
+        }
+    }
+
+    private void dropReservation(Long withdrawId) {
+        reservationExpiry.cancel(withdrawId);
+        Reservation reservation = reservationsByWithdraw.remove(withdrawId);
+        if (reservation != null) {
+            reservationsByUser.remove(reservation.keycloakId(), reservation);
+            pendingWrites.remove(withdrawId, reservation);
+        }
+    }
+
+    private ConcurrentSkipListSet<Offer> queue(BookKey key) {
+        return queues.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>(FIFO));
+    }
+
+    private void runAfterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    // ======== Persistence ========
+
+    /**
+     * Writes the reservations handed out since the last flush in one transaction (the
+     * updates are JDBC-batched). Failed batches are retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${withdraw.book.flush-ms:250}")
+    public void flushReservations() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        synchronized (flushLock) {
+            flushBatch();
+        }
+    }
+
+    private void flushBatch() {
+        Map<Long, Reservation> batch = new HashMap<>();
+        for (Long withdrawId : new ArrayList<>(pendingWrites.keySet())) {
+            Reservation reservation = pendingWrites.remove(withdrawId);
+            if (reservation != null) {
+                batch.put(withdrawId, reservation);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Reservations whose withdraw changed (or vanished) before they could be written
+        Set<Long> skipped = new HashSet<>(batch.keySet());
+        try {
+            flushTransaction.executeWithoutResult(status -> {
+                List<WithdrawRequestEntity> withdraws = withdrawRepo.findAllById(batch.keySet());
+                for (WithdrawRequestEntity w : withdraws) {
+                    if (w.getStatus() != TransactionStatus.PENDING || w.isReserved()) {
+                        System.out.println("⚠️ Withdraw " + w.getId() + " changed before its reservation was written (" +
+                                w.getStatus() + "), dropping the reservation");
+                        continue;
+                    }
+                    Reservation reservation = batch.get(w.getId());
+                    w.setReserved(true);
+                    w.setReservedAt(reservation.reservedAt());
+                    w.setReservedByKeycloakId(reservation.keycloakId());
+                    w.setStatus(TransactionStatus.RESERVED);
+                    skipped.remove(w.getId());
+                }
+                withdrawRepo.saveAll(withdraws);
+            });
+        } catch (Exception e) {
+            System.out.println("❌ Reservation flush failed for " + batch.size() + " withdraw(s), retrying: " + e.getMessage());
+            batch.forEach(pendingWrites::putIfAbsent);
+            return;
+        }
+
+        // Never persisted: free the depositor so they can reserve again
+        for (Long withdrawId : skipped) {
+            if (reservationsByWithdraw.get(withdrawId) == batch.get(withdrawId)) {
+                dropReservation(withdrawId);
+            }
+        }
+    }
+
+    /**
+     * Loads available withdraws (oldest first) and active reservations from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (flushLock) {
+            flushTransaction.executeWithoutResult(status -> {
+                queues.clear();
+                offers.clear();
+                reservationsByUser.clear();
+                reservationsByWithdraw.clear();
+                pendingWrites.clear();
+                reservationExpiry.clear();
+
+                for (WithdrawRequestEntity w : withdrawRepo.findByStatusAndReservedFalseOrderByCreatedAtAsc(TransactionStatus.PENDING)) {
+                    add(Offer.of(w));
+                }
+                for (WithdrawRequestEntity w : withdrawRepo.findByStatusAndReservedTrue(TransactionStatus.RESERVED)) {
+                    Reservation reservation = new Reservation(w.getId(), w.getReservedByKeycloakId(), w.getReservedAt(), Offer.of(w));
+                    reservationsByWithdraw.put(w.getId(), reservation);
+                    // Reservations already past their deadline are released right away
+                    reservationExpiry.schedule(w.getId(), reservation.expiresAt());
+                    if (w.getReservedByKeycloakId() != null) {
+                        reservationsByUser.put(w.getReservedByKeycloakId(), reservation);
+                    }
+                }
+            });
+        }
+        System.out.println("📗 Withdraw order book rebuilt: " + offers.size() + " available, " +
+                reservationsByWithdraw.size() + " reserved");
+    }
+
+    // ======== Structures ========
+
+    record BookKey(PrefixedAmount prefixedAmount, PaymentPlatform platform) {
+    }
+
+    /**
+     * Snapshot of an available withdraw, enough to answer a reservation without a query.
+     */
+    public record Offer(Long withdrawId, PrefixedAmount prefixedAmount, PaymentPlatform platform,
+                        String withdrawNumber, BigDecimal amount, LocalDateTime createdAt) {
+        static Offer of(WithdrawRequestEntity w) {
+            return new Offer(w.getId(), w.getPrefixedAmount(), w.getPlatform(), w.getWithdrawNumber(),
+                    w.getAmount(), w.getCreatedAt() != null ? w.getCreatedAt() : LocalDateTime.MIN);
+        }
+
+        BookKey key() {
+            return new BookKey(prefixedAmount, platform);
+        }
+    }
+
+    public record Reservation(Long withdrawId, String keycloakId, LocalDateTime reservedAt, Offer offer) {
+        public LocalDateTime expiresAt() {
+            return (reservedAt != null ? reservedAt : LocalDateTime.now()).plus(RESERVATION_TTL);
+        }
+    }
+}
@@ -2,17 +2,21 @@ package FootballFantasy.fantasy.Services.PaiementService;
 
 import FootballFantasy.fantasy.Entities.PaiementEntities.*;
 import FootballFantasy.fantasy.Entities.UserEntities.UserEntity;
+import FootballFantasy.fantasy.Events.WithdrawReservationsExpiredEvent;
 import FootballFantasy.fantasy.Exceptions.PaiementExceptions.*;
 import FootballFantasy.fantasy.Exceptions.UsersExceptions.UserBannedException;
 import FootballFantasy.fantasy.Exceptions.UsersExceptions.UserNotFoundException;
 import FootballFantasy.fantasy.Repositories.PaiementRepositories.WithdrawRequestRepository;
 import FootballFantasy.fantasy.Repositories.UserRepositories.UserRepository;
+import FootballFantasy.fantasy.Services.UserService.UserIdentityCache;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -21,6 +25,9 @@ public class WithdrawRequestService {
 
     private final WithdrawRequestRepository withdrawRepo;
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final BalanceService balanceService;
+    private final WithdrawOrderBook withdrawOrderBook;
 
     @Transactional
     public WithdrawRequestEntity submitWithdrawRequest(
@@ -29,7 +36,8 @@ public class WithdrawRequestService {
             PaymentPlatform platform,
             String withdrawNumber
     ) {
-        UserEntity user = userRepository.findByKeycloakId(keycloakId)
+        // Row lock serializes this user's withdraw requests (pending limit); balances move conditionally below
+        UserEntity user = userRepository.findByKeycloakIdForUpdate(keycloakId)
                 .orElseThrow(() -> new UserNotFoundException(keycloakId));
 
         if (user.isBanned()) {
@@ -55,12 +63,6 @@ public class WithdrawRequestService {
             throw new WithdrawLimitExceededException("You cannot have more than 3 pending withdraw requests");
         }
 
-        // ✅ Update balances immediately
-        user.setBalance(user.getBalance().subtract(amount));
-        user.setWithdrawableBalance(user.getWithdrawableBalance().subtract(amount));
-        user.setPendingWithdrawals(user.getPendingWithdrawals().add(amount)); // ← use pendingWithdrawals
-        userRepository.save(user);
-
         // ✅ Create withdraw request
         WithdrawRequestEntity withdraw = new WithdrawRequestEntity();
         withdraw.setRequester(user);
@@ -72,12 +74,17 @@ public class WithdrawRequestService {
         withdraw.setReserved(false);
         withdraw.setCreatedAt(LocalDateTime.now());
 
-        return withdrawRepo.save(withdraw);
+        WithdrawRequestEntity saved = withdrawRepo.save(withdraw);
+
+        // ✅ Update balances immediately (conditional on the withdrawable balance, rolls the request back otherwise)
+        balanceService.reserveWithdrawal(user.getId(), amount, saved.getId());
+        withdrawOrderBook.offer(saved);
+        return saved;
     }
 
     @Transactional
     public void cancelWithdrawRequest(String keycloakId, Long withdrawId) {
-        UserEntity user = userRepository.findByKeycloakId(keycloakId)
+        UserEntity user = userRepository.findByKeycloakIdForUpdate(keycloakId)
                 .orElseThrow(() -> new UserNotFoundException(keycloakId));
 
         WithdrawRequestEntity withdraw = withdrawRepo.findById(withdrawId)
@@ -91,20 +98,13 @@ public class WithdrawRequestService {
             throw new InvalidWithdrawStatusException(withdraw.getStatus());
         }
 
-        if (withdraw.isReserved()) {
+        // The order book decides between this cancellation and a depositor reserving it right now
+        if (withdraw.isReserved() || !withdrawOrderBook.remove(withdrawId)) {
             throw new WithdrawReservedException();
         }
 
         // Refund the user's balances
-        BigDecimal amount = withdraw.getAmount();
-        user.setBalance(user.getBalance().add(amount));
-        user.setWithdrawableBalance(user.getWithdrawableBalance().add(amount));
-        user.setPendingWithdrawals(user.getPendingWithdrawals().subtract(amount)); // ← use pendingWithdrawals
-        if (user.getPendingWithdrawals().compareTo(BigDecimal.ZERO) < 0) {
-            user.setPendingWithdrawals(BigDecimal.ZERO);
-        }
-
-        userRepository.save(user);
+        balanceService.restoreWithdrawal(user.getId(), withdraw.getAmount(), withdrawId);
 
         // Mark withdraw as cancelled
         withdraw.setStatus(TransactionStatus.CANCELLED);
@@ -125,25 +125,67 @@ public class WithdrawRequestService {
     // ===========================
     @Transactional
     public List<WithdrawRequestEntity> getUserWithdrawRequests(String keycloakId) {
-        UserEntity user = userRepository.findByKeycloakId(keycloakId)
+        Long userId = userIdentityCache.findUserId(keycloakId)
                 .orElseThrow(() -> new UserNotFoundException(keycloakId));
-        return withdrawRepo.findByRequester(user);
+        return withdrawRepo.findByRequester(userRepository.getReferenceById(userId));
+    }
+
+    // ===========================
+    // Reservation expiry
+    // ===========================
+    // Fired by the order book's deadline timer at reservedAt + 15 min
+    @EventListener
+    @Transactional
+    public void onReservationsExpired(WithdrawReservationsExpiredEvent event) {
+        // Queued reservation writes first, before this transaction reads the rows
+        withdrawOrderBook.flushReservations();
+        List<WithdrawRequestEntity> withdraws = withdrawRepo.findAllById(event.getWithdrawIds());
+
+        // Reservation never reached the database: only the book needs the withdraw back
+        withdraws.stream()
+                .filter(w -> !w.isReserved() && w.getStatus() == TransactionStatus.PENDING)
+                .forEach(withdrawOrderBook::offer);
+
+        int released = releaseReservations(event.getWithdrawIds());
+        if (released > 0) {
+            System.out.println("⏰ Released " + released + " expired withdraw reservation(s)");
+        }
     }
 
+    // Admin fallback: release whatever is past its deadline in the database
     @Transactional
     public void releaseExpiredReservations() {
-        LocalDateTime expiryThreshold = LocalDateTime.now().minusMinutes(15);
+        LocalDateTime expiryThreshold = LocalDateTime.now().minus(WithdrawOrderBook.RESERVATION_TTL);
 
         // Only release withdraws that are reserved AND still in review
-        List<WithdrawRequestEntity> expired = withdrawRepo
-                .findAllByReservedTrueAndReservedAtBeforeAndStatus(expiryThreshold, TransactionStatus.RESERVED);
+        releaseReservations(withdrawRepo
+                .findAllByReservedTrueAndReservedAtBeforeAndStatus(expiryThreshold, TransactionStatus.RESERVED)
+                .stream().map(WithdrawRequestEntity::getId).toList());
+    }
+
+    /**
+     * Releases the withdraws among ids that are still reserved. The rows are locked first,
+     * as confirmDeposit locks its withdraw: a deposit confirmed meanwhile keeps its withdraw,
+     * and only the rows the conditional UPDATE changed go back to the book.
+     */
+    private int releaseReservations(Collection<Long> withdrawIds) {
+        if (withdrawIds.isEmpty()) {
+            return 0;
+        }
+        List<WithdrawRequestEntity> released = withdrawRepo.findReservedByIdInForUpdate(withdrawIds);
+        if (released.isEmpty()) {
+            return 0;
+        }
+        withdrawRepo.releaseReservations(released.stream().map(WithdrawRequestEntity::getId).toList());
 
-        for (WithdrawRequestEntity w : expired) {
+        // Detached by the UPDATE: only the book reads them from here on
+        for (WithdrawRequestEntity w : released) {
             w.setReserved(false);
             w.setReservedAt(null);
             w.setReservedByKeycloakId(null);
-            w.setStatus(TransactionStatus.PENDING); // put back in the pool
-            withdrawRepo.save(w);
+            w.setStatus(TransactionStatus.PENDING);
+            withdrawOrderBook.offer(w);
         }
+        return released.size();
     }
 }
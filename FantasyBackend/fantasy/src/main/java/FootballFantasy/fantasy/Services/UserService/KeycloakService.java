@@ -2,12 +2,12 @@ package FootballFantasy.fantasy.Services.UserService;
 
 import FootballFantasy.fantasy.Dto.RegisterRequest;
 import FootballFantasy.fantasy.Exceptions.UsersExceptions.UserAlreadyExistsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.ws.rs.core.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.keycloak.OAuth2Constants;
 import org.keycloak.admin.client.Keycloak;
-import org.keycloak.admin.client.KeycloakBuilder;
 import org.keycloak.admin.client.resource.UsersResource;
 import org.keycloak.representations.idm.CredentialRepresentation;
 import org.keycloak.representations.idm.RoleRepresentation;
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
@@ -41,31 +42,27 @@ public class KeycloakService {
     @Value("${keycloak.backend.client-secret}")
     private String clientSecret;
 
+    // Shared admin client (see KeycloakAdminClientConfig) - never close it here
+    private final Keycloak keycloak;
+    private final MeterRegistry meterRegistry;
+
     // =======================
     // USER CREATION METHODS
     // =======================
     public String createUser(RegisterRequest request) {
         printConfiguration();
 
-        Keycloak keycloak = null;
         try {
-            keycloak = KeycloakBuilder.builder()
-                    .serverUrl(serverUrl)
-                    .realm(realm)
-                    .grantType(OAuth2Constants.CLIENT_CREDENTIALS)
-                    .clientId(clientId)
-                    .clientSecret(clientSecret)
-                    .build();
-
             UsersResource usersResource = keycloak.realm(realm).users();
             UserRepresentation user = buildUserRepresentation(request);
 
             log.info("📝 Creating user in Keycloak: {}", request.getUsername());
-            Response response = usersResource.create(user);
+            Response response = adminCall("create_user", () -> usersResource.create(user));
             int status = response.getStatus();
 
             if (status == 201) {
                 String userId = extractUserIdFromResponse(response);
+                response.close();
                 log.info("✅ User created in Keycloak with ID: {}", userId);
 
                 // Set password
@@ -94,8 +91,26 @@ public class KeycloakService {
         } catch (Exception e) {
             log.error("❌ Exception during user creation: {}", e.getMessage(), e);
             throw new RuntimeException("Erreur inattendue lors de la création du compte utilisateur.", e);
+        }
+    }
+
+    /**
+     * Runs one admin API call, recording its latency. Token refreshes are counted by
+     * the shared client (see KeycloakAdminClientConfig).
+     */
+    private <T> T adminCall(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
         } finally {
-            if (keycloak != null) keycloak.close();
+            sample.stop(Timer.builder("keycloak.admin.calls")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
     }
 
@@ -151,7 +166,10 @@ public class KeycloakService {
             cred.setType(CredentialRepresentation.PASSWORD);
             cred.setTemporary(false);
             cred.setValue(password);
-            usersResource.get(userId).resetPassword(cred);
+            adminCall("reset_password", () -> {
+                usersResource.get(userId).resetPassword(cred);
+                return null;
+            });
             log.info("✅ Password set successfully for user: {}", userId);
         } catch (Exception e) {
             log.error("❌ Failed to set password: {}", e.getMessage());
@@ -176,11 +194,14 @@ public class KeycloakService {
             // ✅ Use executeActionsEmail for seamless verification
             List<String> actions = Arrays.asList("VERIFY_EMAIL");
 
-            usersResource.get(userId).executeActionsEmail(
-                    "angular-client",                           // Your Angular client ID
-                    "http://localhost:4200/user-gameweek-list", // Direct redirect to main page
-                    actions
-            );
+            adminCall("execute_actions_email", () -> {
+                usersResource.get(userId).executeActionsEmail(
+                        "angular-client",                           // Your Angular client ID
+                        "http://localhost:4200/user-gameweek-list", // Direct redirect to main page
+                        actions
+                );
+                return null;
+            });
 
             log.info("✅ Seamless email verification sent to: {}", email);
 
@@ -238,18 +259,9 @@ public class KeycloakService {
     // Add these methods to your KeycloakService class
 
     public UserRepresentation getUserFromKeycloak(String keycloakId) {
-        Keycloak keycloak = null;
         try {
-            keycloak = KeycloakBuilder.builder()
-                    .serverUrl(serverUrl)
-                    .realm(realm)
-                    .grantType(OAuth2Constants.CLIENT_CREDENTIALS)
-                    .clientId(clientId)
-                    .clientSecret(clientSecret)
-                    .build();
-
             UsersResource usersResource = keycloak.realm(realm).users();
-            UserRepresentation user = usersResource.get(keycloakId).toRepresentation();
+            UserRepresentation user = adminCall("get_user", () -> usersResource.get(keycloakId).toRepresentation());
 
             System.out.println("Retrieved full user from Keycloak: " + keycloakId);
             return user;
@@ -257,8 +269,6 @@ public class KeycloakService {
         } catch (Exception e) {
             System.err.println("Failed to fetch user from Keycloak: " + e.getMessage());
             return null;
-        } finally {
-            if (keycloak != null) keycloak.close();
         }
     }
 
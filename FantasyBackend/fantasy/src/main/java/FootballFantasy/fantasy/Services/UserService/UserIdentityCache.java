@@ -0,0 +1,87 @@
+package FootballFantasy.fantasy.Services.UserService;
+
+import FootballFantasy.fantasy.Entities.UserEntities.UserEntity;
+import FootballFantasy.fantasy.Repositories.UserRepositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * keycloakId → app user identity, so resolving the JWT subject does not cost a SELECT
+ * on every request.
+ *
+ * Only the id and profile fields that never matter for money are cached. Balances,
+ * ban state etc. must always be read from the row (under lock where it is modified).
+ * Entries are evicted explicitly on profile update, ban/unban and delete.
+ */
+@Component
+public class UserIdentityCache {
+
+    public record UserIdentity(Long id, String keycloakId, String username, String email,
+                               String firstName, String lastName) {
+
+        static UserIdentity of(UserEntity user) {
+            return new UserIdentity(user.getId(), user.getKeycloakId(), user.getUsername(),
+                    user.getEmail(), user.getFirstName(), user.getLastName());
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserIdentity> identities;
+
+    public UserIdentityCache(UserRepository userRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${users.identity-cache.max-size:20000}") long maxSize,
+                             @Value("${users.identity-cache.ttl-minutes:30}") long ttlMinutes) {
+        this.userRepository = userRepository;
+        this.identities = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, identities, "userIdentity");
+    }
+
+    public Optional<UserIdentity> find(String keycloakId) {
+        if (keycloakId == null) {
+            return Optional.empty();
+        }
+        UserIdentity cached = identities.getIfPresent(keycloakId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        // Unknown users are not cached: they may be provisioned on the next request
+        Optional<UserIdentity> loaded = userRepository.findByKeycloakId(keycloakId).map(UserIdentity::of);
+        loaded.ifPresent(identity -> identities.put(keycloakId, identity));
+        return loaded;
+    }
+
+    /**
+     * @return the app user id, or empty if no user exists yet for this Keycloak id
+     */
+    public Optional<Long> findUserId(String keycloakId) {
+        return find(keycloakId).map(UserIdentity::id);
+    }
+
+    public void put(UserEntity user) {
+        if (user.getKeycloakId() != null && user.getId() != null) {
+            identities.put(user.getKeycloakId(), UserIdentity.of(user));
+        }
+    }
+
+    public void invalidate(String keycloakId) {
+        if (keycloakId != null) {
+            identities.invalidate(keycloakId);
+        }
+    }
+
+    public void invalidate(UserEntity user) {
+        invalidate(user.getKeycloakId());
+    }
+}
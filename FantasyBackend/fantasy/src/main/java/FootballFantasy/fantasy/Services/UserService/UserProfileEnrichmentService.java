@@ -0,0 +1,130 @@
+package FootballFantasy.fantasy.Services.UserService;
+
+import FootballFantasy.fantasy.Repositories.UserRepositories.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Fills in the Keycloak custom attributes (phone, country, address, postalNumber,
+ * birthDate, referralCode) of freshly provisioned users in the background, so the
+ * first request of a new user never waits on the Keycloak Admin API.
+ *
+ * Only empty columns are written: values the user already edited are kept. Failed
+ * lookups are retried with a growing delay; the delay runs on a scheduler, so the
+ * worker keeps enriching other users meanwhile.
+ */
+@Service
+@Slf4j
+public class UserProfileEnrichmentService {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final KeycloakService keycloakService;
+    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService retryScheduler;
+
+    public UserProfileEnrichmentService(KeycloakService keycloakService,
+                                        UserRepository userRepository,
+                                        UserIdentityCache userIdentityCache,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${users.enrichment.queue-capacity:1000}") int queueCapacity) {
+        this.keycloakService = keycloakService;
+        this.userRepository = userRepository;
+        this.userIdentityCache = userIdentityCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "user-enrichment");
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-enrichment-retry");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void enqueue(String keycloakId) {
+        enqueue(keycloakId, 1);
+    }
+
+    private void enqueue(String keycloakId, int attempt) {
+        try {
+            executor.execute(() -> enrich(keycloakId, attempt));
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ Enrichment queue full, skipping Keycloak attributes for {}", keycloakId);
+        }
+    }
+
+    private void enrich(String keycloakId, int attempt) {
+        UserRepresentation keycloakUser = keycloakService.getUserFromKeycloak(keycloakId);
+        if (keycloakUser == null) {
+            if (attempt < MAX_ATTEMPTS) {
+                scheduleRetry(keycloakId, attempt + 1, attempt * 2000L);
+            } else {
+                log.warn("❌ Giving up Keycloak enrichment for {} after {} attempts", keycloakId, attempt);
+            }
+            return;
+        }
+
+        Map<String, List<String>> attributes = keycloakUser.getAttributes();
+        if (attributes == null || attributes.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                userRepository.findByKeycloakId(keycloakId).ifPresent(user -> {
+                    if (user.getPhone() == null) user.setPhone(keycloakService.getAttributeValue(attributes, "phone"));
+                    if (user.getCountry() == null) user.setCountry(keycloakService.getAttributeValue(attributes, "country"));
+                    if (user.getAddress() == null) user.setAddress(keycloakService.getAttributeValue(attributes, "address"));
+                    if (user.getPostalNumber() == null) user.setPostalNumber(keycloakService.getAttributeValue(attributes, "postalNumber"));
+                    if (user.getReferralCode() == null) user.setReferralCode(keycloakService.getAttributeValue(attributes, "referralCode"));
+                    if (user.getBirthDate() == null) user.setBirthDate(parseBirthDate(keycloakService.getAttributeValue(attributes, "birthDate")));
+                    userRepository.save(user);
+                    userIdentityCache.invalidate(user);
+                }));
+        log.info("✅ Keycloak attributes applied for user {}", keycloakId);
+    }
+
+    private LocalDate parseBirthDate(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (Exception e) {
+            log.warn("Failed to parse birth date: {}", value);
+            return null;
+        }
+    }
+
+    private void scheduleRetry(String keycloakId, int attempt, long delayMs) {
+        try {
+            retryScheduler.schedule(() -> enqueue(keycloakId, attempt), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            log.warn("⚠️ Enrichment retry for {} dropped", keycloakId);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        retryScheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+}
@@ -3,14 +3,17 @@ package FootballFantasy.fantasy.Services.UserService;
 import FootballFantasy.fantasy.Entities.AdminEntities.BanCause;
 import FootballFantasy.fantasy.Entities.AdminEntities.UserAction;
 import FootballFantasy.fantasy.Entities.AdminEntities.UserManagementAudit;
+import FootballFantasy.fantasy.Entities.PaiementEntities.LedgerEntryType;
 import FootballFantasy.fantasy.Entities.UserEntities.UserEntity;
-import FootballFantasy.fantasy.Exceptions.PaiementExceptions.InsufficientBalanceException;
 import FootballFantasy.fantasy.Repositories.AdminRepositories.UserManagementAuditRepository;
 import FootballFantasy.fantasy.Repositories.UserRepositories.UserRepository;
 import FootballFantasy.fantasy.Services.GameweekService.SessionParticipationService;
+import FootballFantasy.fantasy.Services.PaiementService.BalanceService;
 import jakarta.transaction.Transactional;
-import org.keycloak.representations.idm.UserRepresentation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -21,7 +24,6 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -39,6 +41,15 @@ public class UserService {
     @Autowired
     private KeycloakService keycloakService;
 
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private UserProfileEnrichmentService userProfileEnrichmentService;
+
+    @Autowired
+    private BalanceService balanceService;
+
     // ======== Keycloak / Current User Helpers ========
 
     private Jwt getJwt() {
@@ -55,10 +66,15 @@ public class UserService {
 
     public Long getCurrentAppUserId() {
         String keycloakId = getCurrentKeycloakId();
-        return userRepository.findByKeycloakId(keycloakId)
-                .map(UserEntity::getId)
+        return userIdentityCache.findUserId(keycloakId)
                 .orElseThrow(() -> new RuntimeException("App user not found for Keycloak ID: " + keycloakId));
     }
+    /**
+     * Returns the app user for the current token, provisioning it on first login.
+     * Steady state is read-only: one cached id lookup + one row read, no writes and no
+     * Keycloak calls. New users are created from the JWT claims only; their custom
+     * Keycloak attributes are filled in asynchronously by UserProfileEnrichmentService.
+     */
     public UserEntity ensureCurrentUserFromToken() {
         try {
             Jwt jwt = getJwt();
@@ -69,101 +85,39 @@ public class UserService {
             }
 
             // Check if user already exists
-            UserEntity existingUser = userRepository.findByKeycloakId(keycloakId).orElse(null);
-
+            UserEntity existingUser = userIdentityCache.findUserId(keycloakId)
+                    .flatMap(userRepository::findById)
+                    .orElse(null);
             if (existingUser != null) {
-                System.out.println("User already exists in database: " + keycloakId);
-
-                // Ensure new fields have default values for existing users
-                boolean updated = false;
-                if (existingUser.getBalance() == null) {
-                    existingUser.setBalance(BigDecimal.ZERO);
-                    updated = true;
-                }
-                if (existingUser.getWithdrawableBalance() == null) {
-                    existingUser.setWithdrawableBalance(BigDecimal.ZERO);
-                    updated = true;
-                }
-                if (existingUser.getPendingWithdrawals() == null) {
-                    existingUser.setPendingWithdrawals(BigDecimal.ZERO);
-                    updated = true;
-                }
-                if (existingUser.getPendingDeposits() == null) {
-                    existingUser.setPendingDeposits(BigDecimal.ZERO);
-                    updated = true;
-                }
-                if (existingUser.getBonusBalance() == null) {
-                    existingUser.setBonusBalance(BigDecimal.ZERO);
-                    updated = true;
-                }
-
-                if (updated) {
-                    return userRepository.save(existingUser);
-                }
-
                 return existingUser;
             }
 
-            // User doesn't exist - fetch complete profile from Keycloak Admin API
-            System.out.println("Creating new user from Keycloak: " + keycloakId);
-
-            // Get basic info from JWT
-            String username = getClaimSafely(jwt, "preferred_username");
-            String email = getClaimSafely(jwt, "email");
-            String firstName = getClaimSafely(jwt, "given_name");
-            String lastName = getClaimSafely(jwt, "family_name");
-
-            // Fetch complete user profile from Keycloak
-            String phone = null;
-            String country = null;
-            String address = null;
-            String postalNumber = null;
-            LocalDate birthDate = null;
-            String referralCode = null;
-
-            try {
-                UserRepresentation keycloakUser = keycloakService.getUserFromKeycloak(keycloakId);
-                if (keycloakUser != null && keycloakUser.getAttributes() != null) {
-                    Map<String, List<String>> attributes = keycloakUser.getAttributes();
-
-                    phone = keycloakService.getAttributeValue(attributes, "phone");
-                    country = keycloakService.getAttributeValue(attributes, "country");
-                    address = keycloakService.getAttributeValue(attributes, "address");
-                    postalNumber = keycloakService.getAttributeValue(attributes, "postalNumber");
-                    referralCode = keycloakService.getAttributeValue(attributes, "referralCode");
-
-                    String birthDateStr = keycloakService.getAttributeValue(attributes, "birthDate");
-                    if (birthDateStr != null && !birthDateStr.trim().isEmpty()) {
-                        try {
-                            birthDate = LocalDate.parse(birthDateStr);
-                        } catch (Exception e) {
-                            System.err.println("Failed to parse birth date: " + birthDateStr);
-                        }
-                    }
-
-                    System.out.println("Retrieved custom attributes from Keycloak:");
-                    System.out.println("Phone: " + phone);
-                    System.out.println("Country: " + country);
-                    System.out.println("Address: " + address);
-                    System.out.println("Postal: " + postalNumber);
-                    System.out.println("Birth Date: " + birthDate);
-                }
-            } catch (Exception e) {
-                System.err.println("Warning: Could not fetch custom attributes from Keycloak: " + e.getMessage());
-            }
+            return provisionUserFromToken(jwt, keycloakId);
+
+        } catch (Exception e) {
+            System.err.println("Failed to ensure user from token: " + e.getMessage());
+            e.printStackTrace();
+            throw new RuntimeException("Failed to synchronize user with database: " + e.getMessage(), e);
+        }
+    }
+
+    private UserEntity provisionUserFromToken(Jwt jwt, String keycloakId) {
+        System.out.println("Creating new user from token: " + keycloakId);
+
+        String username = getClaimSafely(jwt, "preferred_username");
+        String email = getClaimSafely(jwt, "email");
+        String firstName = getClaimSafely(jwt, "given_name");
+        String lastName = getClaimSafely(jwt, "family_name");
 
-            // Create user with all available information
-            UserEntity newUser = createOrUpdateUser(
+        UserEntity newUser;
+        try {
+            newUser = createOrUpdateUser(
                     keycloakId,
                     username != null ? username : "user_" + keycloakId.substring(0, 8),
                     email != null ? email : "",
                     firstName != null ? firstName : "",
                     lastName != null ? lastName : "",
-                    phone,
-                    country,
-                    address,
-                    postalNumber,
-                    birthDate,
+                    null, null, null, null, null,   // filled in by UserProfileEnrichmentService
                     true,               // termsAccepted
                     true,               // active
                     BigDecimal.ZERO,    // balance
@@ -172,20 +126,29 @@ public class UserService {
                     BigDecimal.ZERO,    // pendingDeposits
                     null                // bannedUntil
             );
+        } catch (DataIntegrityViolationException e) {
+            // Concurrent first requests of the same user: the other one inserted the row
+            return userRepository.findByKeycloakId(keycloakId)
+                    .orElseThrow(() -> e);
+        }
 
-            // Set referral code if available
-            if (referralCode != null) {
-                newUser.setReferralCode(referralCode);
-                userRepository.save(newUser);
-            }
+        userIdentityCache.put(newUser);
+        userProfileEnrichmentService.enqueue(keycloakId);
 
-            System.out.println("Successfully created user from Keycloak with all custom fields: " + keycloakId);
-            return newUser;
+        System.out.println("Successfully created user from token: " + keycloakId);
+        return newUser;
+    }
 
-        } catch (Exception e) {
-            System.err.println("Failed to ensure user from token: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to synchronize user with database: " + e.getMessage(), e);
+    /**
+     * One-time backfill of balance columns that predate their defaults, so the
+     * per-request path never has to patch them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillNullBalances() {
+        int updated = userRepository.backfillNullBalances();
+        if (updated > 0) {
+            System.out.println("✅ Backfilled null balance columns for " + updated + " user(s)");
         }
     }
 
@@ -245,13 +208,18 @@ public class UserService {
         user.setBirthDate(birthDate);
         user.setTermsAccepted(termsAccepted);
         user.setActive(active);
-        user.setBalance(balance);
-        user.setWithdrawableBalance(withdrawableBalance);
-        user.setPendingWithdrawals(pendingWithdrawals);
-        user.setPendingDeposits(pendingDeposits);
+        // Initial balances only: existing balances change through BalanceService alone
+        if (user.getId() == null) {
+            user.setBalance(balance);
+            user.setWithdrawableBalance(withdrawableBalance);
+            user.setPendingWithdrawals(pendingWithdrawals);
+            user.setPendingDeposits(pendingDeposits);
+        }
         user.setBannedUntil(bannedUntil);
 
-        return userRepository.save(user);
+        UserEntity saved = userRepository.save(user);
+        userIdentityCache.invalidate(saved);
+        return saved;
     }
 
     @Transactional
@@ -267,7 +235,9 @@ public class UserService {
         if (request.getPostalNumber() != null) user.setPostalNumber(request.getPostalNumber());
         if (request.getBirthDate() != null) user.setBirthDate(request.getBirthDate());
 
-        return userRepository.save(user);
+        UserEntity saved = userRepository.save(user);
+        userIdentityCache.invalidate(saved);
+        return saved;
     }
 
     @Transactional
@@ -324,6 +294,7 @@ public class UserService {
         UserEntity user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         userRepository.delete(user);
+        userIdentityCache.invalidate(user);
     }
 
     @Transactional
@@ -339,9 +310,7 @@ public class UserService {
         BigDecimal oldWithdrawable = user.getWithdrawableBalance();
 
         // Add to both balance and withdrawable balance for admin credits
-        user.setBalance(user.getBalance().add(amount));
-        user.setWithdrawableBalance(user.getWithdrawableBalance().add(amount));
-        userRepository.save(user);
+        balanceService.creditWithdrawable(userId, amount, LedgerEntryType.ADMIN_ADJUST, adminId);
 
         // Update audit details
         UserManagementAudit audit = new UserManagementAudit();
@@ -349,9 +318,9 @@ public class UserService {
         audit.setAdminId(adminId);
         audit.setAction(UserAction.CREDIT);
         audit.setDetails("Credited " + amount + " | Previous balance: " + oldBalance +
-                " | New balance: " + user.getBalance() +
+                " | New balance: " + oldBalance.add(amount) +
                 " | Previous withdrawable: " + oldWithdrawable +
-                " | New withdrawable: " + user.getWithdrawableBalance());
+                " | New withdrawable: " + oldWithdrawable.add(amount));
         audit.setTimestamp(LocalDateTime.now());
         userManagementAuditRepository.save(audit);
     }
@@ -365,22 +334,11 @@ public class UserService {
         UserEntity user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Check against withdrawable balance for debits
-        if (user.getWithdrawableBalance().compareTo(amount) < 0) {
-            throw new InsufficientBalanceException(
-                    String.valueOf(userId),
-                    amount.toString(),
-                    user.getWithdrawableBalance().toString()
-            );
-        }
-
         BigDecimal oldBalance = user.getBalance();
         BigDecimal oldWithdrawable = user.getWithdrawableBalance();
 
-        // Deduct from both balance and withdrawable balance
-        user.setBalance(user.getBalance().subtract(amount));
-        user.setWithdrawableBalance(user.getWithdrawableBalance().subtract(amount));
-        userRepository.save(user);
+        // Deduct from both balance and withdrawable balance (checked against withdrawable)
+        balanceService.debitWithdrawable(userId, amount, LedgerEntryType.ADMIN_ADJUST, adminId);
 
         // Update audit details
         UserManagementAudit audit = new UserManagementAudit();
@@ -388,9 +346,9 @@ public class UserService {
         audit.setAdminId(adminId);
         audit.setAction(UserAction.DEBIT);
         audit.setDetails("Debited " + amount + " | Previous balance: " + oldBalance +
-                " | New balance: " + user.getBalance() +
+                " | New balance: " + oldBalance.subtract(amount) +
                 " | Previous withdrawable: " + oldWithdrawable +
-                " | New withdrawable: " + user.getWithdrawableBalance());
+                " | New withdrawable: " + oldWithdrawable.subtract(amount));
         audit.setTimestamp(LocalDateTime.now());
         userManagementAuditRepository.save(audit);
     }
@@ -468,12 +426,7 @@ public class UserService {
     }
     @Transactional
     public void refundUser(Long userId, BigDecimal amount) {
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        user.setBalance(user.getBalance().add(amount));
-        user.setWithdrawableBalance(user.getWithdrawableBalance().add(amount));
-        userRepository.save(user);
+        balanceService.creditWithdrawable(userId, amount, LedgerEntryType.REFUND, null);
     }
 
     @Transactional
@@ -483,6 +436,7 @@ public class UserService {
 
         user.setBannedUntil(LocalDateTime.now().plusDays(days));
         userRepository.save(user);
+        userIdentityCache.invalidate(user);
 
         UserManagementAudit audit = new UserManagementAudit();
         audit.setUserId(userId);
@@ -501,6 +455,7 @@ public class UserService {
 
         user.setActive(false);
         userRepository.save(user);
+        userIdentityCache.invalidate(user);
 
         UserManagementAudit audit = new UserManagementAudit();
         audit.setUserId(userId);
@@ -529,6 +484,7 @@ public class UserService {
         user.setActive(true);
         user.setBannedUntil(null);
         userRepository.save(user);
+        userIdentityCache.invalidate(user);
 
         // Log audit
         UserManagementAudit audit = new UserManagementAudit();
@@ -0,0 +1,71 @@
+package FootballFantasy.fantasy.Schedulers.GameweekSchedulers;
+
+import FootballFantasy.fantasy.Events.SessionCreatedEvent;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.CompetitionSessionRepository;
+import FootballFantasy.fantasy.Schedulers.DeadlineTimer;
+import FootballFantasy.fantasy.Services.GameweekService.CompetitionSessionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class SessionDeadlineProcessorTest {
+
+    private final CompetitionSessionService competitionSessionService = mock(CompetitionSessionService.class);
+    private final SessionDeadlineProcessor processor = new SessionDeadlineProcessor(
+            mock(CompetitionSessionRepository.class), competitionSessionService, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(processor, "graceSeconds", 0L);
+        processor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+    }
+
+    @Test
+    void sessionNotDueYetIsScheduledAgain() throws InterruptedException {
+        // The timer fires, but the session's deadline is still ahead (clock adjusted, or deadline moved)
+        LocalDateTime actualDeadline = LocalDateTime.now().plusHours(1);
+        when(competitionSessionService.closeExpiredSession(7L)).thenReturn(Optional.of(actualDeadline));
+
+        processor.onSessionCreated(new SessionCreatedEvent(this, 7L, LocalDateTime.now().minusSeconds(1)));
+
+        verify(competitionSessionService, timeout(1_000)).closeExpiredSession(7L);
+        assertEquals(1, awaitPendingDeadlines(1));
+    }
+
+    @Test
+    void closedSessionLeavesTheIndex() {
+        when(competitionSessionService.closeExpiredSession(8L)).thenReturn(Optional.empty());
+
+        processor.onSessionCreated(new SessionCreatedEvent(this, 8L, LocalDateTime.now().minusSeconds(1)));
+
+        verify(competitionSessionService, timeout(1_000)).closeExpiredSession(8L);
+        assertEquals(0, pendingDeadlines());
+    }
+
+    // The timer thread schedules again right after the mocked call returns
+    private int awaitPendingDeadlines(int expected) throws InterruptedException {
+        long giveUp = System.currentTimeMillis() + 1_000;
+        while (pendingDeadlines() != expected && System.currentTimeMillis() < giveUp) {
+            Thread.sleep(10);
+        }
+        return pendingDeadlines();
+    }
+
+    @SuppressWarnings("unchecked")
+    private int pendingDeadlines() {
+        return ((DeadlineTimer<Long>) ReflectionTestUtils.getField(processor, "deadlines")).size();
+    }
+}
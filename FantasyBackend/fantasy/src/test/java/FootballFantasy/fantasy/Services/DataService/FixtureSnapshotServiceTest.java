@@ -0,0 +1,168 @@
+package FootballFantasy.fantasy.Services.DataService;
+
+import FootballFantasy.fantasy.Entities.GameweekEntities.LeagueTheme;
+import FootballFantasy.fantasy.Exceptions.BusinessLogicException;
+import FootballFantasy.fantasy.Services.DataService.FixtureSnapshotService.FixtureSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Conditional fixture fetches against a stub football API (MockRestServiceServer).
+ */
+class FixtureSnapshotServiceTest {
+
+    private static final String URL = "https://api.test/v4/competitions/PL/matches?season=2025";
+
+    private static final String FEED_V1 = """
+            {"matches": [
+              {"id": 101, "matchday": 7, "status": "FINISHED", "utcDate": "2025-10-04T14:00:00Z",
+               "homeTeam": {"name": "Arsenal FC"}, "awayTeam": {"name": "Chelsea FC"},
+               "score": {"fullTime": {"home": 2, "away": 1}}},
+              {"id": 102, "matchday": 8, "status": "TIMED", "utcDate": "2025-10-18T16:30:00Z",
+               "homeTeam": {"name": "Liverpool FC"}, "awayTeam": {"name": "Everton FC"},
+               "score": {"fullTime": {"home": null, "away": null}}}
+            ]}""";
+
+    private static final String FEED_V2 = """
+            {"matches": [
+              {"id": 102, "matchday": 8, "status": "FINISHED", "utcDate": "2025-10-18T16:30:00Z",
+               "homeTeam": {"name": "Liverpool FC"}, "awayTeam": {"name": "Everton FC"},
+               "score": {"fullTime": {"home": 0, "away": 0}}}
+            ]}""";
+
+    private FixtureSnapshotService service;
+    private MockRestServiceServer api;
+
+    @BeforeEach
+    void setUp() {
+        service = new FixtureSnapshotService();
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        ReflectionTestUtils.setField(service, "apiUrlTemplate", "https://api.test/v4/competitions/{competition}/matches?season={season}");
+        ReflectionTestUtils.setField(service, "season", 2025);
+        ReflectionTestUtils.setField(service, "maxAgeSeconds", 60L);
+        ReflectionTestUtils.setField(service, "rateBudgetPerMinute", 10);
+        api = MockRestServiceServer.bindTo((RestTemplate) ReflectionTestUtils.getField(service, "restTemplate")).build();
+    }
+
+    @Test
+    void firstFetchIsUnconditionalAndParsesTheFeed() {
+        api.expect(requestTo(URL))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Auth-Token", "test-key"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(FEED_V1, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+
+        FixtureSnapshot snapshot = service.refresh(LeagueTheme.PREMIER_LEAGUE);
+
+        api.verify();
+        assertEquals("\"v1\"", snapshot.etag());
+        assertEquals(2, snapshot.fixtures().size());
+        assertEquals("Arsenal FC", snapshot.forMatchday(7).get(0).homeTeam());
+        assertEquals(2, snapshot.forMatchday(7).get(0).homeScore());
+        assertNull(snapshot.forMatchday(8).get(0).homeScore());
+    }
+
+    @Test
+    void notModifiedKeepsThePreviousFixtures() {
+        api.expect(requestTo(URL))
+                .andRespond(withSuccess(FEED_V1, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+        api.expect(requestTo(URL))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        FixtureSnapshot first = service.refresh(LeagueTheme.PREMIER_LEAGUE);
+        age(first);
+        FixtureSnapshot second = service.refresh(LeagueTheme.PREMIER_LEAGUE);
+
+        api.verify();
+        assertSame(first.fixtures(), second.fixtures());
+        assertEquals("\"v1\"", second.etag());
+        assertTrue(second.fetchedAt().isAfter(Instant.now().minusSeconds(5)), "a 304 moves the fetch time forward");
+    }
+
+    @Test
+    void changedFeedReplacesTheSnapshot() {
+        api.expect(requestTo(URL))
+                .andRespond(withSuccess(FEED_V1, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+        api.expect(requestTo(URL))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withSuccess(FEED_V2, MediaType.APPLICATION_JSON).headers(etag("\"v2\"")));
+
+        age(service.refresh(LeagueTheme.PREMIER_LEAGUE));
+        FixtureSnapshot snapshot = service.refresh(LeagueTheme.PREMIER_LEAGUE);
+
+        api.verify();
+        assertEquals("\"v2\"", snapshot.etag());
+        assertEquals(1, snapshot.fixtures().size());
+        assertEquals("FINISHED", snapshot.forMatchday(8).get(0).status());
+    }
+
+    @Test
+    void freshSnapshotIsServedWithoutCallingTheApi() {
+        api.expect(requestTo(URL))
+                .andRespond(withSuccess(FEED_V1, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+
+        FixtureSnapshot first = service.snapshot(LeagueTheme.PREMIER_LEAGUE);
+        FixtureSnapshot second = service.snapshot(LeagueTheme.PREMIER_LEAGUE);
+
+        // The stub answers exactly one request; a second call to the API would fail the test
+        api.verify();
+        assertSame(first, second);
+    }
+
+    @Test
+    void overBudgetServesTheCachedSnapshotWithoutCallingTheApi() {
+        ReflectionTestUtils.setField(service, "rateBudgetPerMinute", 1);
+        api.expect(requestTo(URL))
+                .andRespond(withSuccess(FEED_V1, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+
+        FixtureSnapshot first = service.refresh(LeagueTheme.PREMIER_LEAGUE);
+        age(first);
+        assertFalse(service.hasBudget());
+        FixtureSnapshot second = service.refresh(LeagueTheme.PREMIER_LEAGUE);
+
+        api.verify();
+        assertSame(first.fixtures(), second.fixtures());
+    }
+
+    @Test
+    void overBudgetWithoutCacheFails() {
+        ReflectionTestUtils.setField(service, "rateBudgetPerMinute", 0);
+
+        BusinessLogicException e = assertThrows(BusinessLogicException.class,
+                () -> service.refresh(LeagueTheme.PREMIER_LEAGUE));
+
+        assertEquals("API_BUDGET_EXHAUSTED", e.getErrorCode());
+        api.verify();
+    }
+
+    private static HttpHeaders etag(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        return headers;
+    }
+
+    // Makes the stored snapshot old enough that refresh() contacts the API again
+    @SuppressWarnings("unchecked")
+    private void age(FixtureSnapshot snapshot) {
+        Map<LeagueTheme, FixtureSnapshot> snapshots =
+                (Map<LeagueTheme, FixtureSnapshot>) ReflectionTestUtils.getField(service, "snapshots");
+        snapshots.put(snapshot.league(), new FixtureSnapshot(snapshot.league(), snapshot.fixtures(),
+                snapshot.etag(), snapshot.lastModified(), Instant.now().minusSeconds(120)));
+    }
+}
@@ -0,0 +1,144 @@
+package FootballFantasy.fantasy.Services.DataService;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TeamNameNormalizerTest {
+
+    private final TeamNameNormalizer normalizer = new TeamNameNormalizer();
+
+    // Team names exactly as football-data.org sends them, per competition
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource(delimiter = '|', value = {
+            // Premier League
+            "Arsenal FC                  | Arsenal",
+            "Aston Villa FC              | Aston Villa",
+            "AFC Bournemouth             | Bournemouth",
+            "Brentford FC                | Brentford",
+            "Brighton & Hove Albion FC   | Brighton and Hove Albion",
+            "Burnley FC                  | Burnley",
+            "Chelsea FC                  | Chelsea",
+            "Crystal Palace FC           | Crystal Palace",
+            "Everton FC                  | Everton",
+            "Fulham FC                   | Fulham",
+            "Leeds United FC             | Leeds United",
+            "Liverpool FC                | Liverpool",
+            "Manchester City FC          | Manchester City",
+            "Manchester United FC        | Manchester United",
+            "Newcastle United FC         | Newcastle United",
+            "Nottingham Forest FC        | Nottingham Forest",
+            "Sunderland AFC              | Sunderland",
+            "Tottenham Hotspur FC        | Tottenham Hotspur",
+            "West Ham United FC          | West Ham United",
+            "Wolverhampton Wanderers FC  | Wolverhampton Wanderers",
+            // La Liga
+            "Athletic Club               | Ath. Bilbao",
+            "Club Atlético de Madrid     | Atletico Madrid",
+            "CA Osasuna                  | Osasuna",
+            "Deportivo Alavés            | Deportivo Alavés",
+            "Elche CF                    | Elche",
+            "FC Barcelona                | Barcelona",
+            "Getafe CF                   | Getafe",
+            "Girona FC                   | Girona",
+            "Levante UD                  | Levante",
+            "Rayo Vallecano de Madrid    | Rayo Vallecano",
+            "RC Celta de Vigo            | Celta Vigo",
+            "RCD Espanyol de Barcelona   | Espanyol",
+            "RCD Mallorca                | Mallorca",
+            "Real Betis Balompié         | Real Betis",
+            "Real Madrid CF              | Real Madrid",
+            "Real Oviedo                 | Real Oviedo",
+            "Real Sociedad de Fútbol     | Real Sociedad",
+            "Sevilla FC                  | Seville",
+            "Valencia CF                 | Valencia",
+            "Villarreal CF               | Villarreal",
+            // Ligue 1
+            "Angers SCO                  | Angers",
+            "AJ Auxerre                  | Auxerre",
+            "Stade Brestois 29           | Brest",
+            "Le Havre AC                 | Le Havre",
+            "Racing Club de Lens         | Lens",
+            "Lille OSC                   | Lille",
+            "FC Lorient                  | Lorient",
+            "Olympique Lyonnais          | Olympique de Lyon",
+            "Olympique de Marseille      | Olympique de Marseille",
+            "FC Metz                     | Metz",
+            "AS Monaco FC                | Monaco",
+            "FC Nantes                   | Nantes",
+            "OGC Nice                    | Nice",
+            "Paris FC                    | Paris FC",
+            "Paris Saint-Germain FC      | Paris Saint-Germain",
+            "Stade Rennais FC 1901       | Rennes",
+            "RC Strasbourg Alsace        | Strasbourg",
+            "Toulouse FC                 | Toulouse",
+            // Serie A
+            "AC Milan                    | AC Milan",
+            "AC Pisa 1909                | Pisa",
+            "ACF Fiorentina              | Fiorentina",
+            "AS Roma                     | Roma",
+            "Atalanta BC                 | Atalanta",
+            "Bologna FC 1909             | Bologna",
+            "Cagliari Calcio             | Cagliari",
+            "Como 1907                   | Como",
+            "FC Internazionale Milano    | Inter",
+            "Genoa CFC                   | Genoa",
+            "Hellas Verona FC            | Hellas Verona",
+            "Juventus FC                 | Juventus",
+            "Parma Calcio 1913           | Parma",
+            "SS Lazio                    | Lazio",
+            "SSC Napoli                  | Napoli",
+            "Torino FC                   | Torino",
+            "Udinese Calcio              | Udinese",
+            "US Cremonese                | Cremonese",
+            "US Lecce                    | Lecce",
+            "US Sassuolo Calcio          | Sassuolo",
+            // Bundesliga
+            "1. FC Heidenheim 1846       | Heidenheim",
+            "1. FC Köln                  | Koln",
+            "1. FC Union Berlin          | Union Berlin",
+            "1. FSV Mainz 05             | Mainz",
+            "Bayer 04 Leverkusen         | Bayer Leverkusen",
+            "Borussia Dortmund           | Borussia Dortmund",
+            "Borussia Mönchengladbach    | Borussia Mönchengladbach",
+            "Eintracht Frankfurt         | Eintracht Frankfurt",
+            "FC Augsburg                 | Augsburg",
+            "FC Bayern München           | Bayern Munich",
+            "FC St. Pauli 1910           | St Pauli",
+            "Hamburger SV                | Hamburg",
+            "RB Leipzig                  | RB Leipzig",
+            "SC Freiburg                 | Freiburg",
+            "SV Werder Bremen            | Werder Bremen",
+            "TSG 1899 Hoffenheim         | Hoffenheim",
+            "VfB Stuttgart               | Stuttgart",
+            "VfL Wolfsburg               | Wolfsburg",
+    })
+    void mapsFootballDataNamesToCanonicalNames(String apiName, String canonical) {
+        assertEquals(canonical, normalizer.normalize(apiName));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "Arsenal",
+            "Ath. Bilbao",
+            "Deportivo Alavés",
+            "Olympique de Lyon",
+            "Paris FC",
+            "Paris Saint-Germain",
+            "Borussia Mönchengladbach",
+            "St Pauli",
+    })
+    void canonicalNamesResolveToThemselves(String canonical) {
+        assertEquals(canonical, normalizer.normalize(canonical));
+    }
+
+    @Test
+    void unknownNamesComeBackFolded() {
+        assertEquals("sporting cp", normalizer.normalize("  Sporting  CP "));
+        assertEquals("", normalizer.normalize("FC"));
+        assertNull(normalizer.normalize(null));
+    }
+}
@@ -0,0 +1,54 @@
+package FootballFantasy.fantasy.Services.GameweekService;
+
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.GameWeekRepository;
+import FootballFantasy.fantasy.Services.UserService.UserIdentityCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JoinAdmissionServiceTest {
+
+    private final GameWeekRepository gameWeekRepository = mock(GameWeekRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JoinAdmissionService service = new JoinAdmissionService(
+            mock(UserIdentityCache.class), gameWeekRepository, meterRegistry, 4, 50, 50, 5000, 5, 0.5);
+
+    @Test
+    void sweepDropsTheGatesOfClosedGameweeks() {
+        service.admit(1L, 10L, () -> null);
+        service.admit(2L, 10L, () -> null);
+        service.admit(3L, 10L, () -> null);
+        // Gameweek 1 still takes joins; 2 is past its deadline, 3 no longer exists
+        when(gameWeekRepository.findIdsWithJoinDeadlineAfter(any(), any())).thenReturn(List.of(1L));
+
+        service.dropClosedGates();
+
+        assertEquals(1, gates().size());
+        assertTrue(gates().containsKey(1L));
+        assertNotNull(meterRegistry.find("admission.queue.depth").tag("gameweek", "1").gauge());
+        assertNull(meterRegistry.find("admission.queue.depth").tag("gameweek", "2").gauge());
+        assertNull(meterRegistry.find("admission.queue.depth").tag("gameweek", "3").gauge());
+    }
+
+    @Test
+    void lateRequestGetsAFreshGate() {
+        service.admit(2L, 10L, () -> null);
+        when(gameWeekRepository.findIdsWithJoinDeadlineAfter(any(), any())).thenReturn(List.of());
+        service.dropClosedGates();
+
+        assertEquals("ok", service.admit(2L, 11L, () -> "ok"));
+        assertNotNull(meterRegistry.find("admission.queue.depth").tag("gameweek", "2").gauge());
+    }
+
+    private Map<?, ?> gates() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(service, "gates");
+    }
+}
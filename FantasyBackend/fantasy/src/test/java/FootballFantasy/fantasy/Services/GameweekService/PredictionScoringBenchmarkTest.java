@@ -0,0 +1,162 @@
+package FootballFantasy.fantasy.Services.GameweekService;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Scaling benchmark of {@link PredictionService#scorePredictionsForMatch} against the
+ * configured MySQL database: one finished match predicted 1k, 10k, 100k and 1M times,
+ * each prediction in its own participation.
+ *
+ * Opt-in, since it writes (and removes) up to a million rows:
+ * {@code mvn test -Dtest=PredictionScoringBenchmarkTest -Dbenchmark.scoring=true}
+ * ({@code -Dbenchmark.scoring.sizes=1000,10000} to pick the sizes).
+ */
+@SpringBootTest(properties = {"football.polling.enabled=false", "sessions.pool.enabled=false"})
+@EnabledIfSystemProperty(named = "benchmark.scoring", matches = "true")
+class PredictionScoringBenchmarkTest {
+
+    // Explicit ids far above anything the pooled generators hand out
+    private static final long ID_BASE = 9_000_000_000L;
+    private static final int USERS = 1_000;
+    private static final int CHUNK = 10_000;
+
+    @Autowired
+    private PredictionService predictionService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void scoringScalesWithThePredictionCount() {
+        String run = "bench-scoring-" + System.currentTimeMillis();
+        List<Long> userIds = seedUsers(run);
+        try {
+            int[] sizes = sizes();
+            for (int round = 0; round < sizes.length; round++) {
+                int size = sizes[round];
+                Fixture fixture = seed(size, 900_000 + round, userIds);
+                try {
+                    long start = System.nanoTime();
+                    predictionService.scorePredictionsForMatch(fixture.matchId());
+                    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+                    System.out.printf("📊 Scored %,d predictions in %,d ms (%.1f µs/prediction)%n",
+                            size, elapsedMs, elapsedMs * 1000.0 / size);
+
+                    assertEquals(size, jdbc.queryForObject(
+                            "SELECT COUNT(*) FROM prediction WHERE match_id = ? AND is_correct IS NOT NULL",
+                            Integer.class, fixture.matchId()));
+                    assertEquals(size, jdbc.queryForObject(
+                            "SELECT COUNT(*) FROM session_participation WHERE id BETWEEN ? AND ? AND total_predictions = 1",
+                            Integer.class, ID_BASE, ID_BASE + size - 1));
+                } finally {
+                    cleanUp(fixture, size);
+                }
+            }
+        } finally {
+            jdbc.update("DELETE FROM users WHERE keycloak_id LIKE ?", run + "-%");
+        }
+    }
+
+    private static int[] sizes() {
+        return Arrays.stream(System.getProperty("benchmark.scoring.sizes", "1000,10000,100000,1000000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim()))
+                .toArray();
+    }
+
+    // ======== Seeding ========
+
+    private record Fixture(long gameweekId, long matchId, List<Long> sessionIds) {
+    }
+
+    private List<Long> seedUsers(String run) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            rows.add(new Object[]{run + "-" + i, run + "-" + i, run + "-" + i + "@bench.local"});
+        }
+        jdbc.batchUpdate("INSERT INTO users (keycloak_id, username, email, terms_accepted, active, balance, " +
+                "pending_withdrawals, withdrawable_balance, bonus_balance, pending_deposits) " +
+                "VALUES (?, ?, ?, true, true, 0, 0, 0, 0, 0)", rows);
+        return jdbc.queryForList("SELECT id FROM users WHERE keycloak_id LIKE ? ORDER BY id", Long.class, run + "-%");
+    }
+
+    private Fixture seed(int size, int weekNumber, List<Long> userIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        long gameweekId = insertReturningId("INSERT INTO game_week (week_number, status, competition, join_deadline, validated) " +
+                "VALUES (?, 'FINISHED', 'PREMIER_LEAGUE', ?, false)", weekNumber, now);
+        long matchId = insertReturningId("INSERT INTO football_match (home_team, away_team, match_date, home_score, away_score, " +
+                "finished, active, status) VALUES ('Bench Home', 'Bench Away', ?, 2, 1, true, true, 'COMPLETED')", now);
+
+        int sessions = (size + USERS - 1) / USERS;
+        List<Object[]> sessionRows = new ArrayList<>();
+        for (int s = 0; s < sessions; s++) {
+            sessionRows.add(new Object[]{"bench-" + s, gameweekId, now, now});
+        }
+        jdbc.batchUpdate("INSERT INTO competition_session (session_name, session_type, competition, buy_in_amount, " +
+                "max_participants, current_participants, version, status, gameweek_id, join_deadline, created_at, total_prize_pool) " +
+                "VALUES (?, 'OPEN_ROOM', 'PREMIER_LEAGUE', 0, 1000, 1000, 0, 'ACTIVE', ?, ?, ?, 0)", sessionRows);
+        List<Long> sessionIds = jdbc.queryForList(
+                "SELECT id FROM competition_session WHERE gameweek_id = ? ORDER BY id", Long.class, gameweekId);
+
+        String[] results = {"HOME_WIN", "DRAW", "AWAY_WIN"};
+        for (int from = 0; from < size; from += CHUNK) {
+            List<Object[]> participations = new ArrayList<>();
+            List<Object[]> predictions = new ArrayList<>();
+            for (int i = from; i < Math.min(from + CHUNK, size); i++) {
+                long id = ID_BASE + i;
+                long userId = userIds.get(i % USERS);
+                participations.add(new Object[]{id, userId, sessionIds.get(i / USERS), now});
+                // One in ten predictions is a tiebreaker, a fifth of those without a score
+                boolean tiebreaker = i % 10 == 0;
+                boolean scored = tiebreaker && i % 50 != 0;
+                predictions.add(new Object[]{id, userId, matchId, id, results[i % 3], now, tiebreaker,
+                        scored ? i % 4 : null, scored ? i % 3 : null});
+            }
+            jdbc.batchUpdate("INSERT INTO session_participation (id, user_id, session_id, joined_at, amount_paid, " +
+                    "total_correct_predictions, total_predictions, accuracy_percentage, tiebreaker_score, is_winner, " +
+                    "status, has_completed_all_predictions, prize_won) " +
+                    "VALUES (?, ?, ?, ?, 0, 0, 0, 0, 999999.0, false, 'ACTIVE', true, 0)", participations);
+            jdbc.batchUpdate("INSERT INTO prediction (id, user_id, match_id, participation_id, predicted_result, " +
+                    "prediction_time, is_tiebreaker, predicted_home_score, predicted_away_score) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", predictions);
+        }
+        return new Fixture(gameweekId, matchId, sessionIds);
+    }
+
+    private long insertReturningId(String sql, Object... args) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+
+    private void cleanUp(Fixture fixture, int size) {
+        jdbc.update("DELETE FROM prediction WHERE match_id = ?", fixture.matchId());
+        jdbc.update("DELETE FROM session_participation WHERE id BETWEEN ? AND ?", ID_BASE, ID_BASE + size - 1);
+        jdbc.update("DELETE FROM competition_session WHERE gameweek_id = ?", fixture.gameweekId());
+        jdbc.update("DELETE FROM football_match WHERE id = ?", fixture.matchId());
+        jdbc.update("DELETE FROM game_week WHERE id = ?", fixture.gameweekId());
+    }
+}
@@ -0,0 +1,197 @@
+package FootballFantasy.fantasy.Services.GameweekService;
+
+import FootballFantasy.fantasy.Dto.GameweekPredictionSubmissionDTO;
+import FootballFantasy.fantasy.Dto.PredictionDTO;
+import FootballFantasy.fantasy.Entities.GameweekEntities.LeagueTheme;
+import FootballFantasy.fantasy.Entities.GameweekEntities.PredictionResult;
+import FootballFantasy.fantasy.Entities.GameweekEntities.SessionParticipation;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.CompetitionSessionRepository;
+import FootballFantasy.fantasy.Repositories.GameweekRepositories.SessionParticipationRepository;
+import FootballFantasy.fantasy.Repositories.UserRepositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load test of the prediction submission write path against the configured MySQL
+ * database: concurrent submissions, each inserting one participation and a prediction
+ * per gameweek match in one transaction, as a join + submit does.
+ *
+ * Opt-in, since it writes to the database:
+ * {@code mvn test -Dtest=PredictionSubmissionLoadTest -Dbenchmark.submissions=true}
+ * ({@code -Dbenchmark.submissions.count=2000 -Dbenchmark.submissions.threads=16}).
+ *
+ * For the "before" figure, run it again with
+ * {@code -Dspring.jpa.properties.hibernate.jdbc.batch_size=1}: every row then costs its
+ * own round trip, as it did with IDENTITY ids.
+ */
+@SpringBootTest(properties = {"football.polling.enabled=false", "sessions.pool.enabled=false"})
+@EnabledIfSystemProperty(named = "benchmark.submissions", matches = "true")
+class PredictionSubmissionLoadTest {
+
+    private static final int MATCHES = 10;
+
+    @Autowired
+    private PredictionService predictionService;
+
+    @Autowired
+    private SessionParticipationRepository sessionParticipationRepository;
+
+    @Autowired
+    private CompetitionSessionRepository competitionSessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:1}")
+    private int batchSize;
+
+    @Test
+    void submissionsPerSecond() throws Exception {
+        int submissions = Integer.getInteger("benchmark.submissions.count", 2_000);
+        int threads = Integer.getInteger("benchmark.submissions.threads", 16);
+        String run = "bench-submit-" + System.currentTimeMillis();
+
+        Fixture fixture = seed(run, submissions);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> tasks = new ArrayList<>();
+            for (Long userId : fixture.userIds()) {
+                tasks.add(pool.submit(() -> {
+                    start.await();
+                    transaction.executeWithoutResult(status -> submit(fixture, userId));
+                    return null;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get(10, TimeUnit.MINUTES);
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+
+            System.out.printf("📊 %,d submissions (%d predictions each) on %d threads, batch_size=%d: %.1f s, %.0f submissions/s%n",
+                    submissions, MATCHES, threads, batchSize, seconds, submissions / seconds);
+
+            assertEquals(submissions * MATCHES, jdbc.queryForObject(
+                    "SELECT COUNT(*) FROM prediction p JOIN session_participation sp ON sp.id = p.participation_id " +
+                            "WHERE sp.session_id = ?", Integer.class, fixture.sessionId()));
+        } finally {
+            pool.shutdownNow();
+            cleanUp(run, fixture);
+        }
+    }
+
+    // Participation + predictions, as joinCompetition and submitPredictions insert them
+    private void submit(Fixture fixture, Long userId) {
+        SessionParticipation participation = new SessionParticipation();
+        participation.setUser(userRepository.getReferenceById(userId));
+        participation.setSession(competitionSessionRepository.getReferenceById(fixture.sessionId()));
+        participation.setJoinedAt(LocalDateTime.now());
+        participation.setAmountPaid(BigDecimal.ZERO);
+        sessionParticipationRepository.save(participation);
+
+        GameweekPredictionSubmissionDTO submission = new GameweekPredictionSubmissionDTO();
+        submission.setUserId(userId);
+        submission.setGameweekId(fixture.gameweekId());
+        submission.setCompetition(LeagueTheme.PREMIER_LEAGUE);
+        List<PredictionDTO> predictions = new ArrayList<>();
+        PredictionResult[] results = PredictionResult.values();
+        for (int i = 0; i < fixture.matchIds().size(); i++) {
+            PredictionDTO prediction = new PredictionDTO();
+            prediction.setMatchId(fixture.matchIds().get(i));
+            prediction.setPredictedResult(results[(int) ((userId + i) % results.length)]);
+            predictions.add(prediction);
+        }
+        submission.setPredictions(predictions);
+
+        predictionService.submitPredictions(submission, participation);
+    }
+
+    // ======== Seeding ========
+
+    private record Fixture(long gameweekId, long sessionId, List<Long> matchIds, List<Long> userIds) {
+    }
+
+    private Fixture seed(String run, int users) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp kickoff = Timestamp.valueOf(LocalDateTime.now().plusDays(1));
+
+        List<Object[]> userRows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userRows.add(new Object[]{run + "-" + i, run + "-" + i, run + "-" + i + "@bench.local"});
+        }
+        jdbc.batchUpdate("INSERT INTO users (keycloak_id, username, email, terms_accepted, active, balance, " +
+                "pending_withdrawals, withdrawable_balance, bonus_balance, pending_deposits) " +
+                "VALUES (?, ?, ?, true, true, 0, 0, 0, 0, 0)", userRows);
+        List<Long> userIds = jdbc.queryForList("SELECT id FROM users WHERE keycloak_id LIKE ? ORDER BY id", Long.class, run + "-%");
+
+        long gameweekId = insertReturningId("INSERT INTO game_week (week_number, status, competition, join_deadline, validated) " +
+                "VALUES (?, 'UPCOMING', 'PREMIER_LEAGUE', ?, false)", 800_000 + (int) (System.currentTimeMillis() % 100_000), kickoff);
+
+        List<Long> matchIds = new ArrayList<>();
+        for (int i = 0; i < MATCHES; i++) {
+            long matchId = insertReturningId("INSERT INTO football_match (home_team, away_team, match_date, prediction_deadline, " +
+                    "finished, active, status) VALUES (?, ?, ?, ?, false, true, 'SCHEDULED')",
+                    run + " home " + i, run + " away " + i, kickoff, kickoff);
+            jdbc.update("INSERT INTO match_gameweek (match_id, gameweek_id) VALUES (?, ?)", matchId, gameweekId);
+            matchIds.add(matchId);
+        }
+
+        long sessionId = insertReturningId("INSERT INTO competition_session (session_name, session_type, competition, buy_in_amount, " +
+                "max_participants, current_participants, version, status, gameweek_id, join_deadline, created_at, total_prize_pool) " +
+                "VALUES (?, 'OPEN_ROOM', 'PREMIER_LEAGUE', 0, ?, 0, 0, 'OPEN', ?, ?, ?, 0)", run, users, gameweekId, kickoff, now);
+
+        return new Fixture(gameweekId, sessionId, matchIds, userIds);
+    }
+
+    private long insertReturningId(String sql, Object... args) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+
+    private void cleanUp(String run, Fixture fixture) {
+        jdbc.update("DELETE p FROM prediction p JOIN session_participation sp ON sp.id = p.participation_id " +
+                "WHERE sp.session_id = ?", fixture.sessionId());
+        jdbc.update("DELETE FROM session_participation WHERE session_id = ?", fixture.sessionId());
+        jdbc.update("DELETE FROM competition_session WHERE id = ?", fixture.sessionId());
+        jdbc.update("DELETE FROM match_gameweek WHERE gameweek_id = ?", fixture.gameweekId());
+        jdbc.update("DELETE FROM football_match WHERE home_team LIKE ?", run + " home %");
+        jdbc.update("DELETE FROM game_week WHERE id = ?", fixture.gameweekId());
+        jdbc.update("DELETE FROM users WHERE keycloak_id LIKE ?", run + "-%");
+    }
+}
@@ -0,0 +1,132 @@
+package FootballFantasy.fantasy.Services.PaiementService;
+
+import FootballFantasy.fantasy.Entities.PaiementEntities.PaymentPlatform;
+import FootballFantasy.fantasy.Entities.PaiementEntities.PrefixedAmount;
+import FootballFantasy.fantasy.Entities.PaiementEntities.TransactionStatus;
+import FootballFantasy.fantasy.Entities.PaiementEntities.WithdrawRequestEntity;
+import FootballFantasy.fantasy.Exceptions.PaiementExceptions.WithdrawLimitExceededException;
+import FootballFantasy.fantasy.Repositories.PaiementRepositories.WithdrawRequestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WithdrawOrderBookTest {
+
+    private static final PrefixedAmount[] AMOUNTS = {PrefixedAmount.AMOUNT_10, PrefixedAmount.AMOUNT_20};
+
+    private final WithdrawRequestRepository withdrawRepo = mock(WithdrawRequestRepository.class);
+    private WithdrawOrderBook book;
+
+    @BeforeEach
+    void setUp() {
+        book = new WithdrawOrderBook();
+        ReflectionTestUtils.setField(book, "withdrawRepo", withdrawRepo);
+        ReflectionTestUtils.setField(book, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(book, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(book, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(book, "expiryBatchSize", 200);
+        book.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        book.shutdown();
+    }
+
+    @Test
+    void concurrentReservationsNeverShareAWithdrawOrAUser() throws Exception {
+        int withdraws = 100;
+        int users = 150;
+        int attemptsPerUser = 4;
+        for (long id = 1; id <= withdraws; id++) {
+            book.offer(withdraw(id, AMOUNTS[(int) (id % AMOUNTS.length)], TransactionStatus.PENDING));
+        }
+
+        Map<Long, String> holderByWithdraw = new ConcurrentHashMap<>();
+        Map<String, Long> withdrawByUser = new ConcurrentHashMap<>();
+        List<String> errors = new CopyOnWriteArrayList<>();
+        AtomicInteger refused = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int attempt = 0; attempt < attemptsPerUser; attempt++) {
+            for (int u = 0; u < users; u++) {
+                String user = "user-" + u;
+                PrefixedAmount amount = AMOUNTS[(u + attempt) % AMOUNTS.length];
+                tasks.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        Optional<WithdrawOrderBook.Reservation> reservation = book.reserve(user, amount, PaymentPlatform.D17);
+                        reservation.ifPresent(r -> {
+                            String previousHolder = holderByWithdraw.putIfAbsent(r.withdrawId(), user);
+                            if (previousHolder != null) {
+                                errors.add("withdraw " + r.withdrawId() + " handed to " + previousHolder + " and " + user);
+                            }
+                            Long previousWithdraw = withdrawByUser.putIfAbsent(user, r.withdrawId());
+                            if (previousWithdraw != null) {
+                                errors.add(user + " holds withdraws " + previousWithdraw + " and " + r.withdrawId());
+                            }
+                        });
+                    } catch (WithdrawLimitExceededException e) {
+                        refused.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+        }
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertTrue(errors.isEmpty(), String.join("\n", errors));
+        assertEquals(withdraws, holderByWithdraw.size(), "every withdraw should be reserved exactly once");
+        assertTrue(refused.get() > 0, "repeated attempts by a holder should be refused");
+    }
+
+    @Test
+    void reservationOfAWithdrawThatChangedIsDroppedOnFlush() {
+        book.offer(withdraw(1L, PrefixedAmount.AMOUNT_10, TransactionStatus.PENDING));
+        book.offer(withdraw(2L, PrefixedAmount.AMOUNT_10, TransactionStatus.PENDING));
+        assertTrue(book.reserve("depositor", PrefixedAmount.AMOUNT_10, PaymentPlatform.D17).isPresent());
+
+        // Withdraw 1 was cancelled before the write-behind reached it
+        when(withdrawRepo.findAllById(any())).thenReturn(List.of(withdraw(1L, PrefixedAmount.AMOUNT_10, TransactionStatus.CANCELLED)));
+        book.flushReservations();
+
+        Optional<WithdrawOrderBook.Reservation> next = book.reserve("depositor", PrefixedAmount.AMOUNT_10, PaymentPlatform.D17);
+        assertEquals(2L, next.map(WithdrawOrderBook.Reservation::withdrawId).orElse(null));
+    }
+
+    private static WithdrawRequestEntity withdraw(Long id, PrefixedAmount amount, TransactionStatus status) {
+        WithdrawRequestEntity w = new WithdrawRequestEntity();
+        w.setId(id);
+        w.setPrefixedAmount(amount);
+        w.setPlatform(PaymentPlatform.D17);
+        w.setAmount(BigDecimal.valueOf(amount.getValue()));
+        w.setWithdrawNumber("W" + id);
+        w.setStatus(status);
+        w.setCreatedAt(LocalDateTime.now().minusMinutes(1).plusNanos(id));
+        return w;
+    }
+}
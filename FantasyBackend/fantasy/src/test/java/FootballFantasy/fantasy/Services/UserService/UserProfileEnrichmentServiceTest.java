@@ -0,0 +1,44 @@
+package FootballFantasy.fantasy.Services.UserService;
+
+import FootballFantasy.fantasy.Entities.UserEntities.UserEntity;
+import FootballFantasy.fantasy.Repositories.UserRepositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserProfileEnrichmentServiceTest {
+
+    private final KeycloakService keycloakService = mock(KeycloakService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserProfileEnrichmentService service = new UserProfileEnrichmentService(
+            keycloakService, userRepository, mock(UserIdentityCache.class), mock(PlatformTransactionManager.class), 100);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void failingUserDoesNotHoldUpTheQueue() {
+        // "missing" is retried after 2s, 4s; "ready" must not wait for those delays
+        when(keycloakService.getUserFromKeycloak("missing")).thenReturn(null);
+        UserRepresentation ready = new UserRepresentation();
+        ready.setAttributes(Map.of("phone", List.of("+216 20 000 000")));
+        when(keycloakService.getUserFromKeycloak("ready")).thenReturn(ready);
+        when(userRepository.findByKeycloakId("ready")).thenReturn(Optional.of(new UserEntity()));
+
+        service.enqueue("missing");
+        service.enqueue("ready");
+
+        verify(userRepository, timeout(1_000)).save(any(UserEntity.class));
+        verify(keycloakService, timeout(3_000).times(2)).getUserFromKeycloak("missing");
+    }
+}
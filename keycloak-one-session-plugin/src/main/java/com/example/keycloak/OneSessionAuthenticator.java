@@ -9,6 +9,12 @@ import org.keycloak.models.UserSessionModel;
 
 public class OneSessionAuthenticator implements Authenticator {
 
+    private final RevocationPublisher revocationPublisher;
+
+    public OneSessionAuthenticator(RevocationPublisher revocationPublisher) {
+        this.revocationPublisher = revocationPublisher;
+    }
+
     @Override
     public void authenticate(AuthenticationFlowContext context) {
         // Get the authenticated user
@@ -45,7 +51,10 @@ public class OneSessionAuthenticator implements Authenticator {
         session.sessions().getUserSessionsStream(realm, user)
                 .filter(userSession -> !userSession.getId().equals(currentAuthSessionId))
                 .forEach(userSession -> {
+                    String revokedSessionId = userSession.getId();
                     session.sessions().removeUserSession(realm, userSession);
+                    // Let the backend drop tokens of the killed session without introspection
+                    revocationPublisher.publish(realm.getName(), user.getId(), revokedSessionId);
                 });
     }
 
@@ -16,6 +16,8 @@ public class OneSessionAuthenticatorFactory implements AuthenticatorFactory, Con
 
     public static final String ID = "one-session-authenticator";
 
+    private RevocationPublisher revocationPublisher = new RevocationPublisher(null, null);
+
     @Override
     public String getDisplayType() {
         return "One Session Authenticator";
@@ -62,11 +64,17 @@ public class OneSessionAuthenticatorFactory implements AuthenticatorFactory, Con
 
     @Override
     public Authenticator create(KeycloakSession session) {
-        return new OneSessionAuthenticator();
+        return new OneSessionAuthenticator(revocationPublisher);
     }
 
     @Override
-    public void init(Scope config) {}
+    public void init(Scope config) {
+        // spi-authenticator-one-session-authenticator-revocation-url / -revocation-secret
+        revocationPublisher = new RevocationPublisher(
+                config.get("revocationUrl", System.getenv("ONE_SESSION_REVOCATION_URL")),
+                config.get("revocationSecret", System.getenv("ONE_SESSION_REVOCATION_SECRET"))
+        );
+    }
 
     @Override
     public void postInit(KeycloakSessionFactory factory) {}
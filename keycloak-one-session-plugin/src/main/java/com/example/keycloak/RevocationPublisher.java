@@ -0,0 +1,74 @@
+package com.example.keycloak;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.logging.Logger;
+
+/**
+ * Pushes "session revoked" events to the backend so it can reject tokens of
+ * killed sessions without introspecting every request: a JSON event is POSTed to
+ * {@code revocationUrl} (fire-and-forget). Disabled when no URL is configured.
+ */
+public class RevocationPublisher {
+
+    private static final Logger logger = Logger.getLogger(RevocationPublisher.class.getName());
+
+    private final String revocationUrl;
+    private final String sharedSecret;
+    private final HttpClient httpClient;
+
+    public RevocationPublisher(String revocationUrl, String sharedSecret) {
+        this.revocationUrl = isBlank(revocationUrl) ? null : revocationUrl;
+        this.sharedSecret = sharedSecret;
+        this.httpClient = this.revocationUrl == null ? null : HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return revocationUrl != null;
+    }
+
+    public void publish(String realm, String userId, String sessionId) {
+        if (!isEnabled()) {
+            return;
+        }
+        String json = toJson(realm, userId, sessionId, Instant.now());
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(revocationUrl))
+                .timeout(Duration.ofSeconds(2))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (!isBlank(sharedSecret)) {
+            request.header("X-Revocation-Secret", sharedSecret);
+        }
+        // Never block the login flow on the backend
+        httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        logger.warning("Failed to push session revocation " + sessionId + ": " + error.getMessage());
+                    } else if (response.statusCode() >= 300) {
+                        logger.warning("Backend rejected session revocation " + sessionId + " with status " + response.statusCode());
+                    }
+                });
+    }
+
+    private static String toJson(String realm, String userId, String sessionId, Instant revokedAt) {
+        return "{\"realm\":\"" + escape(realm) + "\","
+                + "\"userId\":\"" + escape(userId) + "\","
+                + "\"sessionId\":\"" + escape(sessionId) + "\","
+                + "\"revokedAt\":\"" + revokedAt + "\"}";
+    }
+
+    private static String escape(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}